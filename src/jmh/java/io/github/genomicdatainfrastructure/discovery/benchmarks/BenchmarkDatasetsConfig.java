@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.benchmarks;
+
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The {@code datasets.*} filter configuration of {@code application.properties}, plus the
+ * {@code typical_age} range composite, so range merging is part of the measured work.
+ */
+final class BenchmarkDatasetsConfig implements DatasetsConfig {
+
+    private static final Set<Filter> FILTERS = Set.of(
+            new BenchmarkFilter("access_rights", FilterType.DROPDOWN, List.of()),
+            new BenchmarkFilter("theme", FilterType.DROPDOWN, List.of()),
+            new BenchmarkFilter("tags", FilterType.DROPDOWN, List.of()),
+            new BenchmarkFilter("publisher_name", FilterType.DROPDOWN, List.of()),
+            new BenchmarkFilter("res_format", FilterType.DROPDOWN, List.of()),
+            new BenchmarkFilter("modified", FilterType.DATETIME, List.of()),
+            new BenchmarkFilter("number_of_records", FilterType.NUMBER, List.of()),
+            new BenchmarkFilter("vocab_in_series_title", FilterType.DROPDOWN, List.of()),
+            new BenchmarkFilter("typical_age", FilterType.NUMBER,
+                    List.of("min_typical_age", "max_typical_age")));
+
+    @Override
+    public String filters() {
+        return "access_rights,theme,tags,publisher_name,res_format,modified,number_of_records,"
+                + "vocab_in_series_title,min_typical_age,max_typical_age";
+    }
+
+    @Override
+    public String noGroupKey() {
+        return "NO_GROUP";
+    }
+
+    @Override
+    public boolean statsEnabled() {
+        return false;
+    }
+
+    @Override
+    public Duration filterBuilderTimeout() {
+        return Duration.ofSeconds(5);
+    }
+
+    @Override
+    public List<FilterGroup> filterGroups() {
+        return List.of(new BenchmarkFilterGroup("DEFAULT", FILTERS));
+    }
+
+    private record BenchmarkFilterGroup(String key, Set<Filter> filters) implements FilterGroup {
+    }
+
+    private record BenchmarkFilter(String key, FilterType type, List<String> components)
+            implements Filter {
+
+        @Override
+        public Optional<List<String>> rangeComposite() {
+            return components.isEmpty() ? Optional.empty() : Optional.of(components);
+        }
+
+        @Override
+        public Optional<String> label() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> statsField() {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.benchmarks;
+
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CkanFacetsQueryBuilder;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.Operator;
+import io.github.genomicdatainfrastructure.discovery.model.QueryOperator;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanValueLabel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CkanFacetsQueryBuilderBenchmark {
+
+    private static final Set<String> RANGE_FACETS = Set.of("modified", "number_of_records",
+            "min_typical_age", "max_typical_age", "empty_range_filter");
+
+    /**
+     * Selected values per dropdown facet, taken from the scaled facet fixture.
+     */
+    @Param({"1", "10", "200"})
+    int selectedValues;
+
+    private DatasetSearchQuery query;
+
+    @Setup
+    public void setUp() {
+        var facets = new ArrayList<DatasetSearchQueryFacet>();
+        Fixtures.packagesSearchResult(0, selectedValues)
+                .getSearchFacets()
+                .forEach((key, facet) -> {
+                    if (RANGE_FACETS.contains(key)) {
+                        return;
+                    }
+                    facet.getItems()
+                            .stream()
+                            .map(CkanValueLabel::getName)
+                            .forEach(value -> facets.add(facet(key, FilterType.DROPDOWN, null,
+                                    value)));
+                });
+        facets.add(facet("number_of_records", FilterType.NUMBER,
+                Operator.GREATER_THAN_OR_EQUAL_TO_SYMBOL, "10"));
+        facets.add(facet("number_of_records", FilterType.NUMBER,
+                Operator.LESS_THAN_OR_EQUAL_TO_SYMBOL, "250"));
+        facets.add(facet("modified", FilterType.DATETIME,
+                Operator.GREATER_THAN_OR_EQUAL_TO_SYMBOL, "2024-01-01T00:00:00Z"));
+
+        query = new DatasetSearchQuery();
+        query.setOperator(QueryOperator.OR);
+        query.setFacets(facets);
+    }
+
+    @Benchmark
+    public String buildFacetQuery() {
+        return CkanFacetsQueryBuilder.buildFacetQuery(query);
+    }
+
+    private static DatasetSearchQueryFacet facet(String key, FilterType type, Operator operator,
+            String value) {
+        return DatasetSearchQueryFacet.builder()
+                .source("ckan")
+                .type(type)
+                .key(key)
+                .operator(operator)
+                .value(value)
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.model.BeaconResponse;
+import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.model.Frequency;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark fixtures built from the WireMock mappings in {@code src/test/resources/mappings},
+ * scaled up synthetically: packages and facet items are cloned round-robin, with unique ids and
+ * names, so the mappers see realistic shapes at production-like sizes.
+ */
+final class Fixtures {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final List<String> POPULATIONS = List.of("FR_M", "FR_F", "NL_Male",
+            "NL_Female", "DE", "ES", "M", "F", "Male", "Female", "LU_M", "ALL", "unknown");
+
+    private Fixtures() {
+    }
+
+    /**
+     * A CKAN search response with {@code packages} datasets, cloned from
+     * {@code package_search_datasets_when_query_ckan_only.json}, and the facets of
+     * {@code package_search_filters.json} with {@code facetValues} items each, plus the
+     * {@code min_typical_age}/{@code max_typical_age} range composite components.
+     */
+    static PackagesSearchResult packagesSearchResult(int packages, int facetValues) {
+        var result = (ObjectNode) responseBody("package_search_datasets_when_query_ckan_only.json")
+                .path("result");
+        var facetsResult = responseBody("package_search_filters.json").path("result");
+
+        var templates = result.path("results");
+        var scaledPackages = OBJECT_MAPPER.createArrayNode();
+        for (var i = 0; i < packages; i++) {
+            var scaled = (ObjectNode) templates.get(i % templates.size()).deepCopy();
+            scaled.put("id", scaled.path("id").asText() + "-" + i);
+            scaled.put("name", scaled.path("name").asText() + "-" + i);
+            scaled.put("identifier", scaled.path("identifier").asText() + "-" + i);
+            scaledPackages.add(scaled);
+        }
+        result.set("results", scaledPackages);
+        result.put("count", packages);
+
+        var searchFacets = (ObjectNode) facetsResult.path("search_facets").deepCopy();
+        searchFacets.set("min_typical_age", numberFacet("Minimum Typical Age", 0));
+        searchFacets.set("max_typical_age", numberFacet("Maximum Typical Age", 18));
+        searchFacets.properties()
+                .forEach(facet -> scaleItems((ObjectNode) facet.getValue(), facetValues));
+        result.set("search_facets", searchFacets);
+        result.set("stats", facetsResult.path("stats"));
+
+        return convert(result, PackagesSearchResult.class);
+    }
+
+    /**
+     * The Beacon response of {@code gvariants.json}, with its first result carrying
+     * {@code frequencies} population frequencies spread over country, sex and combined tags.
+     */
+    static BeaconResponse gVariantsResponse(int frequencies) {
+        var response = convert(responseBody("gvariants.json"), BeaconResponse.class);
+        var template = response.getResponse()
+                .getResultSets()
+                .getFirst()
+                .getResults()
+                .getFirst()
+                .getFrequencyInPopulations()
+                .getFirst();
+
+        var scaled = new ArrayList<Frequency>(frequencies);
+        for (var i = 0; i < frequencies; i++) {
+            var frequency = new Frequency();
+            frequency.setPopulation(POPULATIONS.get(i % POPULATIONS.size()));
+            frequency.setAlleleFrequency(BigDecimal.valueOf(i % 1000, 3));
+            frequency.setAlleleCount(BigDecimal.valueOf(i));
+            frequency.setAlleleNumber(BigDecimal.valueOf(frequencies));
+            scaled.add(frequency);
+        }
+        template.setFrequencies(scaled);
+        return response;
+    }
+
+    private static JsonNode responseBody(String mapping) {
+        try (var content = Fixtures.class.getClassLoader()
+                .getResourceAsStream("mappings/" + mapping)) {
+            if (content == null) {
+                throw new IllegalStateException("WireMock mapping not found: " + mapping);
+            }
+            return OBJECT_MAPPER.readTree(content).path("response").path("jsonBody");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static <T> T convert(JsonNode node, Class<T> type) {
+        try {
+            return OBJECT_MAPPER.treeToValue(node, type);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static ObjectNode numberFacet(String title, int value) {
+        var facet = OBJECT_MAPPER.createObjectNode().put("title", title);
+        facet.putArray("items")
+                .addObject()
+                .put("name", String.valueOf(value))
+                .put("display_name", String.valueOf(value))
+                .put("count", 1);
+        return facet;
+    }
+
+    private static void scaleItems(ObjectNode facet, int facetValues) {
+        var templates = facet.path("items");
+        if (templates.isEmpty()) {
+            return;
+        }
+
+        var scaled = OBJECT_MAPPER.createArrayNode();
+        for (var i = 0; i < facetValues; i++) {
+            var item = (ObjectNode) templates.get(i % templates.size()).deepCopy();
+            if (i >= templates.size()) {
+                var name = scaledName(item.path("name").asText(), i);
+                item.put("name", name);
+                item.put("display_name", name);
+            }
+            item.put("count", i % 50 + 1);
+            scaled.add(item);
+        }
+        facet.set("items", scaled);
+    }
+
+    private static String scaledName(String name, int index) {
+        try {
+            return String.valueOf(new BigDecimal(name).add(BigDecimal.valueOf(index)));
+        } catch (NumberFormatException notANumber) {
+            // fall through to dates and plain values
+        }
+        try {
+            return OffsetDateTime.parse(name).plusHours(index).toString();
+        } catch (DateTimeParseException notADate) {
+            return name + "-" + index;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconResilienceConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence.BeaconGuard;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence.GVariantsRepository;
+import io.github.genomicdatainfrastructure.discovery.model.GVariantSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.GVariantSearchQueryParams;
+import io.github.genomicdatainfrastructure.discovery.model.GVariantsSearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures {@link GVariantsRepository#search}, i.e. the Beacon response mapping and the
+ * country-of-birth/sex population filter, against an in-memory Beacon response. The Beacon guard
+ * is bypassed, so neither its executor hand-off nor its bookkeeping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GVariantsPopulationFilterBenchmark {
+
+    @Param({"100", "10000"})
+    int frequencies;
+
+    @Param({"FR:M", "ALL:F", "NL:"})
+    String population;
+
+    private GVariantsRepository repository;
+    private GVariantSearchQuery query;
+
+    @Setup
+    public void setUp() {
+        var response = Fixtures.gVariantsResponse(frequencies);
+        repository = new GVariantsRepository(request -> response,
+                request -> InputStream.nullInputStream(), new ObjectMapper(), new Unguarded());
+
+        var filter = population.split(":", -1);
+        var params = new GVariantSearchQueryParams();
+        params.setReferenceName("11");
+        params.setStart(List.of(87202));
+        params.setReferenceBases("G");
+        params.setAlternateBases("T");
+        params.setAssemblyId("GRCh38");
+        params.setCountryOfBirth(filter[0].isEmpty() ? null : filter[0]);
+        params.setSex(filter[1].isEmpty() ? null : filter[1]);
+        query = new GVariantSearchQuery();
+        query.setParams(params);
+    }
+
+    @Benchmark
+    public List<GVariantsSearchResponse> search() {
+        return repository.search(query);
+    }
+
+    /**
+     * Runs Beacon calls on the calling thread, without any of the guard's protections
+     */
+    private static class Unguarded extends BeaconGuard {
+
+        Unguarded() {
+            super("g_variants", new BenchmarkGuard(1, 1, 1.0, Duration.ZERO, 99, 1.0,
+                    Duration.ZERO, Duration.ZERO), null, Clock.systemUTC());
+        }
+
+        @Override
+        public <T> T call(Supplier<T> action) {
+            return action.get();
+        }
+    }
+
+    private record BenchmarkGuard(int maxConcurrent, int requestVolume, double failureRatio,
+            Duration openDelay, int timeoutPercentile, double timeoutMultiplier,
+            Duration minTimeout, Duration maxTimeout)
+            implements BeaconResilienceConfiguration.Guard {
+    }
+}
@@ -0,0 +1,76 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.utils.Sha256;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Builds JSON responses that carry HTTP validators. The body is serialised once, its SHA-256
+ * becomes a strong {@code ETag}, and a matching {@code If-None-Match} is answered with 304 and no
+ * body. Responses for authenticated callers are marked {@code private}, so shared caches (e.g. a
+ * CDN) only keep anonymous ones; either way caches must revalidate before reuse.
+ * <p>
+ * The validators are computed from the finished content, so a 304 only saves the transfer of
+ * the body, not the work of building it.
+ */
+public final class ConditionalResponses {
+
+    private static final String VARY = "Accept-Language, Authorization";
+
+    private ConditionalResponses() {
+    }
+
+    public static Response json(
+            Request request,
+            ObjectMapper objectMapper,
+            Object content,
+            OffsetDateTime lastModified,
+            boolean anonymous
+    ) {
+        var body = serialize(objectMapper, content);
+        var tag = new EntityTag(Sha256.hash(body));
+        var modified = lastModified == null
+                ? null
+                : Date.from(lastModified.toInstant().truncatedTo(ChronoUnit.SECONDS));
+
+        var notModified = modified == null
+                ? request.evaluatePreconditions(tag)
+                : request.evaluatePreconditions(modified, tag);
+        var builder = notModified != null
+                ? notModified
+                : Response.ok(body, MediaType.APPLICATION_JSON_TYPE);
+
+        return builder
+                .tag(tag)
+                .lastModified(modified)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl(anonymous))
+                .header(HttpHeaders.VARY, VARY)
+                .build();
+    }
+
+    static String cacheControl(boolean anonymous) {
+        return anonymous ? "no-cache" : "private, no-cache";
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, Object content) {
+        try {
+            return objectMapper.writeValueAsBytes(content);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -4,33 +4,45 @@
 
 package io.github.genomicdatainfrastructure.discovery.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.genomicdatainfrastructure.discovery.datasets.application.usecases.RetrieveDatasetInFormatQuery;
 import io.github.genomicdatainfrastructure.discovery.datasets.application.usecases.RetrieveDatasetQuery;
 import io.github.genomicdatainfrastructure.discovery.datasets.application.usecases.SearchDatasetsQuery;
+import io.github.genomicdatainfrastructure.discovery.datasets.domain.DatasetExport;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
 import io.quarkus.oidc.runtime.OidcJwtCallerPrincipal;
 import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.common.constraint.Nullable;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 import java.util.Locale;
 
+@RunOnVirtualThread
 @RequiredArgsConstructor
 public class DatasetQueryApiImpl implements DatasetQueryApi {
 
+    private static final String EXPORT_VARY = "Accept-Encoding, Authorization";
+
     private final SecurityIdentity identity;
     private final RetrieveDatasetInFormatQuery retrieveDatasetInFormatQuery;
     private final RetrieveDatasetQuery retrieveDatasetQuery;
     private final SearchDatasetsQuery searchDatasetsQuery;
+    private final ObjectMapper objectMapper;
 
     @Context
     HttpHeaders headers;
 
+    @Context
+    Request request;
+
     @ConfigProperty(name = "app.accept-language.default", defaultValue = "en")
     String defaultAcceptLanguage;
 
@@ -44,23 +56,53 @@ public class DatasetQueryApiImpl implements DatasetQueryApi {
         return Response.ok(content).build();
     }
 
+    /**
+     * The dataset is fully built, series and help texts included, before {@code If-None-Match}
+     * is checked: its ETag covers that enrichment, which the dataset's own
+     * {@code metadata_modified} doesn't, so a 304 only saves the transfer of the body.
+     */
     @Override
     public Response retrieveDataset(String id, String acceptLanguage) {
         var content = retrieveDatasetQuery.execute(id, accessToken(), preferredLanguage());
-        return Response.ok(content).build();
+        return ConditionalResponses.json(request, objectMapper, content, content.getModifiedAt(),
+                identity.isAnonymous());
     }
 
     @Override
     public Response retrieveDatasetInFormat(String id, String format) {
         var type = getType(format);
-        var content = retrieveDatasetInFormatQuery.execute(id, format, accessToken());
-        return Response
-                .ok(content)
+        var export = retrieveDatasetInFormatQuery.execute(id, format, accessToken(),
+                headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING),
+                headers.getHeaderString(HttpHeaders.IF_NONE_MATCH),
+                headers.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE));
+        if (export.notModified()) {
+            return withValidators(Response.notModified(), export).build();
+        }
+        // Upstream bytes are piped through as received, so length and encoding still apply,
+        // and transferTo keeps memory to one fixed-size buffer however large the export is.
+        StreamingOutput body = output -> {
+            try (export) {
+                export.content().transferTo(output);
+            }
+        };
+        return withValidators(Response.ok(body), export)
                 .type(type)
+                .header(HttpHeaders.CONTENT_LENGTH, export.contentLength())
+                .header(HttpHeaders.CONTENT_ENCODING, export.contentEncoding())
                 .header("Content-Disposition", "attachment; filename=\"" + id + "." + format + "\"")
                 .build();
     }
 
+    private Response.ResponseBuilder withValidators(Response.ResponseBuilder builder,
+            DatasetExport export) {
+        return builder
+                .header(HttpHeaders.ETAG, export.entityTag())
+                .header(HttpHeaders.LAST_MODIFIED, export.lastModified())
+                .header(HttpHeaders.CACHE_CONTROL,
+                        ConditionalResponses.cacheControl(identity.isAnonymous()))
+                .header(HttpHeaders.VARY, EXPORT_VARY);
+    }
+
     private String getType(String format) {
         return switch (format) {
             case "jsonld" -> "application/ld+json";
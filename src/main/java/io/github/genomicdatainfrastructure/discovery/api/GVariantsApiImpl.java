@@ -4,19 +4,70 @@
 
 package io.github.genomicdatainfrastructure.discovery.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.genomicdatainfrastructure.discovery.datasets.application.usecases.GVariantsQuery;
 import io.github.genomicdatainfrastructure.discovery.model.GVariantSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.GVariantsSearchResponse;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+@RunOnVirtualThread
 @RequiredArgsConstructor
 public class GVariantsApiImpl implements GVariantsApi {
 
+    static final MediaType NDJSON = new MediaType("application", "x-ndjson");
+    private static final int FLUSH_EVERY = 100;
+
     private final GVariantsQuery gVariantsQuery;
+    private final ObjectMapper objectMapper;
+
+    @Context
+    HttpHeaders headers;
 
     @Override
     public Response searchGenomicVariants(GVariantSearchQuery gvariantSearchQuery) {
-        return Response.ok(gVariantsQuery.execute(gvariantSearchQuery)).build();
+        if (!prefersNdjson()) {
+            return Response.ok(gVariantsQuery.execute(gvariantSearchQuery)).build();
+        }
+
+        var variants = gVariantsQuery.stream(gvariantSearchQuery);
+        StreamingOutput body = output -> writeNdjson(variants, output);
+        return Response.ok(body, NDJSON).build();
     }
 
+    private boolean prefersNdjson() {
+        return headers.getAcceptableMediaTypes()
+                .stream()
+                .findFirst()
+                .filter(type -> NDJSON.getType().equalsIgnoreCase(type.getType())
+                        && NDJSON.getSubtype().equalsIgnoreCase(type.getSubtype()))
+                .isPresent();
+    }
+
+    private void writeNdjson(Stream<GVariantsSearchResponse> variants, OutputStream output)
+            throws IOException {
+        try (variants; var generator = objectMapper.createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            var written = 0;
+            var iterator = variants.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                generator.writeRaw('\n');
+                // Flush the first variant right away, then in batches, so time-to-first-byte
+                // doesn't depend on the size of the result.
+                if (written++ % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@
 
 package io.github.genomicdatainfrastructure.discovery.datasets.application.ports;
 
+import io.github.genomicdatainfrastructure.discovery.datasets.domain.DatasetExport;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetsSearchResponse;
 import io.github.genomicdatainfrastructure.discovery.model.RetrievedDataset;
@@ -27,5 +28,11 @@ public interface DatasetsRepository {
 
     RetrievedDataset findById(String id, String accessToken, String preferredLanguage);
 
-    String retrieveDatasetInFormat(String id, String format, String accessToken);
+    DatasetExport retrieveDatasetInFormat(
+            String id,
+            String format,
+            String accessToken,
+            String acceptEncoding,
+            String ifNoneMatch,
+            String ifModifiedSince);
 }
@@ -8,9 +8,16 @@ import io.github.genomicdatainfrastructure.discovery.model.GVariantSearchQuery;
 import io.github.genomicdatainfrastructure.discovery.model.GVariantsSearchResponse;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface GVariantsRepositoryPort {
 
     List<GVariantsSearchResponse> search(GVariantSearchQuery gVariantSearchQuery);
 
+    /**
+     * Sends the search right away, but decodes the variants lazily while the returned stream is
+     * consumed. The stream holds the upstream response open and must be closed.
+     */
+    Stream<GVariantsSearchResponse> stream(GVariantSearchQuery gVariantSearchQuery);
+
 }
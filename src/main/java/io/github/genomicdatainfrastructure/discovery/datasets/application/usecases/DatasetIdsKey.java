@@ -0,0 +1,84 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.application.usecases;
+
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.Operator;
+import io.github.genomicdatainfrastructure.discovery.model.QueryEntry;
+import io.github.genomicdatainfrastructure.discovery.model.QueryOperator;
+import io.github.genomicdatainfrastructure.discovery.utils.Sha256;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Identifies the CKAN and Beacon dataset ids intersected for a user and a query. Paging and sort
+ * only pick a slice of that intersection, so they are left out; facets are deduplicated and
+ * sorted, except range facets (dates and numbers), which keep their request order as the first
+ * bound given wins; and the user is identified by a SHA-256 hash of the access token, as Beacon
+ * answers depend on their permissions.
+ */
+record DatasetIdsKey(String user, String query, QueryOperator operator, List<Facet> facets,
+        List<Facet> rangeFacets) {
+
+    private static final Comparator<String> NULLS_FIRST =
+            Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final Comparator<Facet> FACET_ORDER = Comparator
+            .comparing(Facet::source, NULLS_FIRST)
+            .thenComparing(Facet::key, NULLS_FIRST)
+            .thenComparing(Facet::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Facet::operator, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Facet::value, NULLS_FIRST)
+            .thenComparing(facet -> facet.entries().toString());
+
+    static DatasetIdsKey of(DatasetSearchQuery query, String accessToken) {
+        var allFacets = ofNullable(query.getFacets())
+                .orElseGet(List::of)
+                .stream()
+                .filter(Objects::nonNull)
+                .map(facet -> new Facet(facet.getSource(), facet.getKey(), facet.getType(),
+                        facet.getOperator(), facet.getValue(),
+                        entries(facet.getEntries())))
+                .distinct()
+                .toList();
+        var facets = allFacets.stream()
+                .filter(facet -> !isRange(facet.type()))
+                .sorted(FACET_ORDER)
+                .toList();
+        var rangeFacets = allFacets.stream()
+                .filter(facet -> isRange(facet.type()))
+                .toList();
+
+        return new DatasetIdsKey(
+                accessToken == null ? null : Sha256.hash(accessToken),
+                trimToNull(query.getQuery()),
+                QueryOperator.AND.equals(query.getOperator())
+                        ? QueryOperator.AND
+                        : QueryOperator.OR,
+                facets,
+                rangeFacets);
+    }
+
+    private static boolean isRange(FilterType type) {
+        return FilterType.DATETIME.equals(type) || FilterType.NUMBER.equals(type);
+    }
+
+    private static List<QueryEntry> entries(List<QueryEntry> entries) {
+        return entries == null ? List.of() : entries.stream().toList();
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    record Facet(String source, String key, FilterType type, Operator operator, String value,
+            List<QueryEntry> entries) {
+    }
+}
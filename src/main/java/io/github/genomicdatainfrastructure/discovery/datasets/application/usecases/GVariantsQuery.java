@@ -12,6 +12,7 @@ import jakarta.inject.Inject;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 @RequiredArgsConstructor(onConstructor = @__(@Inject))
@@ -22,4 +23,8 @@ public class GVariantsQuery {
     public List<GVariantsSearchResponse> execute(GVariantSearchQuery gVariantSearchQuery) {
         return repository.search(gVariantSearchQuery);
     }
+
+    public Stream<GVariantsSearchResponse> stream(GVariantSearchQuery gVariantSearchQuery) {
+        return repository.stream(gVariantSearchQuery);
+    }
 }
@@ -5,6 +5,7 @@
 package io.github.genomicdatainfrastructure.discovery.datasets.application.usecases;
 
 import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.DatasetsRepository;
+import io.github.genomicdatainfrastructure.discovery.datasets.domain.DatasetExport;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +16,9 @@ public class RetrieveDatasetInFormatQuery {
 
     private final DatasetsRepository repository;
 
-    public String execute(String id, String format, String accessToken) {
-        return repository.retrieveDatasetInFormat(id, format, accessToken);
+    public DatasetExport execute(String id, String format, String accessToken,
+            String acceptEncoding, String ifNoneMatch, String ifModifiedSince) {
+        return repository.retrieveDatasetInFormat(id, format, accessToken, acceptEncoding,
+                ifNoneMatch, ifModifiedSince);
     }
 }
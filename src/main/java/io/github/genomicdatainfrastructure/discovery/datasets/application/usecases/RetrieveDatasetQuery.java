@@ -6,6 +6,8 @@ package io.github.genomicdatainfrastructure.discovery.datasets.application.useca
 
 import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.DatasetsRepository;
 import io.github.genomicdatainfrastructure.discovery.model.RetrievedDataset;
+import io.github.genomicdatainfrastructure.discovery.utils.Sha256;
+import io.github.genomicdatainfrastructure.discovery.utils.SingleFlight;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.RequiredArgsConstructor;
@@ -15,9 +17,21 @@ import lombok.RequiredArgsConstructor;
 public class RetrieveDatasetQuery {
 
     private final DatasetsRepository repository;
+    private final SingleFlight<DatasetKey, RetrievedDataset> inFlight = new SingleFlight<>();
 
+    /**
+     * Concurrent retrievals of the same dataset, for the same access token and language, share
+     * one upstream call.
+     */
     public RetrievedDataset execute(String datasetId, String accessToken,
             String preferredLanguage) {
-        return repository.findById(datasetId, accessToken, preferredLanguage);
+        var key = new DatasetKey(datasetId,
+                accessToken == null ? null : Sha256.hash(accessToken),
+                preferredLanguage);
+        return inFlight.execute(key,
+                () -> repository.findById(datasetId, accessToken, preferredLanguage));
+    }
+
+    private record DatasetKey(String datasetId, String user, String preferredLanguage) {
     }
 }
@@ -8,44 +8,90 @@ import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconConfiguration;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence.BeaconDatasetIdsCollector;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CkanDatasetIdsCollector;
-import io.github.genomicdatainfrastructure.discovery.filters.application.ports.FilterBuilder;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
+import io.github.genomicdatainfrastructure.discovery.filters.application.usecases.ParallelFilterBuilders;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetsSearchResponse;
+import io.github.genomicdatainfrastructure.discovery.utils.SingleFlight;
+import io.github.genomicdatainfrastructure.discovery.utils.StaleWhileRevalidateCache;
+import io.quarkus.virtual.threads.VirtualThreads;
 
-import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
 
-import java.util.Collection;
+import java.time.Clock;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
 import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_FILTER_SOURCE;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.BEACON_IDS;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.CKAN_IDS;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.CKAN_RESTRICTED_SEARCH;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.CKAN_SEARCH;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.SUPPLEMENTAL_FACETS;
 import static java.lang.Math.min;
 import static java.util.Objects.nonNull;
 
 @Log
 @ApplicationScoped
-@RequiredArgsConstructor(onConstructor = @__(@Inject))
 public class SearchDatasetsQuery {
 
     private final DatasetsRepository repository;
     private final BeaconConfiguration beaconConfig;
     private final BeaconDatasetIdsCollector beaconDatasetIdsCollector;
     private final CkanDatasetIdsCollector ckanDatasetIdsCollector;
-    private final Instance<FilterBuilder> filterBuilders;
+    private final ParallelFilterBuilders filterBuilders;
+    private final ExecutorService executor;
+    private final SearchMetrics searchMetrics;
+    private final StaleWhileRevalidateCache<DatasetIdsKey, IntersectedDatasetIds> intersectedIds;
+    private final SingleFlight<SearchKey, DatasetsSearchResponse> inFlight = new SingleFlight<>();
+
+    @Inject
+    public SearchDatasetsQuery(DatasetsRepository repository,
+            BeaconConfiguration beaconConfig,
+            BeaconDatasetIdsCollector beaconDatasetIdsCollector,
+            CkanDatasetIdsCollector ckanDatasetIdsCollector,
+            ParallelFilterBuilders filterBuilders,
+            @VirtualThreads ExecutorService executor,
+            SearchMetrics searchMetrics) {
+        this.repository = repository;
+        this.beaconConfig = beaconConfig;
+        this.beaconDatasetIdsCollector = beaconDatasetIdsCollector;
+        this.ckanDatasetIdsCollector = ckanDatasetIdsCollector;
+        this.filterBuilders = filterBuilders;
+        this.executor = executor;
+        this.searchMetrics = searchMetrics;
+        this.intersectedIds = new StaleWhileRevalidateCache<>("Beacon dataset ids",
+                beaconConfig.beaconIdsTtl(), beaconConfig.beaconIdsTtl(),
+                beaconConfig.beaconIdsMaxEntries(), executor, Clock.systemUTC());
+    }
 
+    /**
+     * Identical searches running at the same time, for the same access token, share one
+     * computation and its response.
+     */
     public DatasetsSearchResponse execute(DatasetSearchQuery query, String accessToken,
             String preferredLanguage) {
         boolean includeBeacon = (query.getIncludeBeacon() == null || query.getIncludeBeacon())
                 && beaconConfig.beacon();
 
+        return inFlight.execute(
+                SearchKey.of(query, includeBeacon, accessToken, preferredLanguage),
+                () -> search(query, includeBeacon, accessToken, preferredLanguage));
+    }
+
+    private DatasetsSearchResponse search(DatasetSearchQuery query, boolean includeBeacon,
+            String accessToken, String preferredLanguage) {
         if (!includeBeacon) {
             return enrichWithSupplementalFacets(
                     searchCkanOnly(query, accessToken, preferredLanguage),
@@ -65,48 +111,32 @@ public class SearchDatasetsQuery {
     private DatasetsSearchResponse searchCkanOnly(DatasetSearchQuery query, String accessToken,
             String preferredLanguage) {
 
-        var searchResult = repository.search(query, accessToken, preferredLanguage);
-
-        return searchResult;
+        return searchMetrics.time(CKAN_SEARCH,
+                () -> repository.search(query, accessToken, preferredLanguage));
     }
 
     /**
-     * Comprehensive search with Beacon (intersection)
+     * Comprehensive search with Beacon (intersection). The intersected ids are reused for a short
+     * while by the same user's other pages and sort orders of the query.
      */
     private DatasetsSearchResponse searchWithBeacon(DatasetSearchQuery query, String accessToken,
             String preferredLanguage) {
 
-        // Collect CKAN datasets
-        Map<String, Integer> ckanDatasetIds = ckanDatasetIdsCollector.collect(query, accessToken);
-
-        // Try to collect Beacon datasets and capture any errors
-        Map<String, Integer> beaconDatasetIds = null;
-        String beaconError = null;
-
-        try {
-            beaconDatasetIds = beaconDatasetIdsCollector.collect(query, accessToken);
-        } catch (WebApplicationException exception) {
-            int status = exception.getResponse().getStatus();
-
-            beaconError = createBeaconErrorMessage(status);
-            log.log(Level.WARNING, exception.getMessage(), exception);
-        }
-
-        // Calculate intersection: if beacon failed, use CKAN-only results
-        Map<String, Integer> datasetIdsByRecordCount;
-        if (beaconDatasetIds != null) {
-            datasetIdsByRecordCount = findIdsIntersection(ckanDatasetIds, beaconDatasetIds);
-        } else {
-            // Beacon failed, fall back to CKAN-only results
-            datasetIdsByRecordCount = ckanDatasetIds;
+        var key = DatasetIdsKey.of(query, accessToken);
+        var intersection = intersectedIds.get(key, () -> intersectIds(query, accessToken));
+        if (intersection.beaconError() != null) {
+            // Keep the CKAN-only fallback to this request, the next one retries Beacon
+            intersectedIds.invalidate(key);
         }
+        var datasetIdsByRecordCount = intersection.datasetIds();
 
-        var searchResult = repository.search(datasetIdsByRecordCount.keySet(),
-                query.getSort(),
-                query.getRows(),
-                query.getStart(),
-                accessToken,
-                preferredLanguage);
+        var searchResult = searchMetrics.time(CKAN_RESTRICTED_SEARCH,
+                () -> repository.search(datasetIdsByRecordCount.keySet(),
+                        query.getSort(),
+                        query.getRows(),
+                        query.getStart(),
+                        accessToken,
+                        preferredLanguage));
 
         var enhancedDatasets = searchResult.getResults()
                 .stream()
@@ -122,10 +152,119 @@ public class SearchDatasetsQuery {
                 .count(searchResult.getCount())
                 .results(enhancedDatasets)
                 .facets(searchResult.getFacets())
-                .beaconError(beaconError)
+                .beaconError(intersection.beaconError())
                 .build();
     }
 
+    private IntersectedDatasetIds intersectIds(DatasetSearchQuery query, String accessToken) {
+        var collectedIds = beaconConfig.beaconParallel()
+                ? collectInParallel(query, accessToken)
+                : collectSequentially(query, accessToken);
+
+        // Calculate intersection: if beacon failed, use CKAN-only results
+        Map<String, Integer> datasetIdsByRecordCount;
+        if (collectedIds.beaconDatasetIds() != null) {
+            datasetIdsByRecordCount = findIdsIntersection(collectedIds.ckanDatasetIds(),
+                    collectedIds.beaconDatasetIds());
+            searchMetrics.recordIds("intersection", datasetIdsByRecordCount);
+        } else {
+            // Beacon failed, fall back to CKAN-only results
+            datasetIdsByRecordCount = collectedIds.ckanDatasetIds();
+        }
+
+        return new IntersectedDatasetIds(Collections.unmodifiableMap(datasetIdsByRecordCount),
+                collectedIds.beaconError());
+    }
+
+    private CollectedDatasetIds collectSequentially(DatasetSearchQuery query,
+            String accessToken) {
+        // Collect CKAN datasets
+        Map<String, Integer> ckanDatasetIds = collectCkanIds(query, accessToken);
+
+        // Try to collect Beacon datasets and capture any errors
+        try {
+            return new CollectedDatasetIds(ckanDatasetIds,
+                    collectBeaconIds(query, accessToken),
+                    null);
+        } catch (WebApplicationException exception) {
+            return new CollectedDatasetIds(ckanDatasetIds, null, beaconFailure(exception));
+        }
+    }
+
+    /**
+     * Runs both collectors concurrently and consumes them in completion order. A failing CKAN
+     * branch cancels the pending Beacon call, while a failing Beacon branch keeps the CKAN-only
+     * fallback.
+     */
+    private CollectedDatasetIds collectInParallel(DatasetSearchQuery query, String accessToken) {
+        var completionService = new ExecutorCompletionService<Map<String, Integer>>(executor);
+        var ckanTask = completionService.submit(() -> collectCkanIds(query, accessToken));
+        var beaconTask = completionService.submit(() -> collectBeaconIds(query, accessToken));
+
+        Map<String, Integer> ckanDatasetIds = null;
+        Map<String, Integer> beaconDatasetIds = null;
+        String beaconError = null;
+
+        try {
+            for (var pending = 2; pending > 0; pending--) {
+                var completed = completionService.take();
+                if (completed == ckanTask) {
+                    ckanDatasetIds = resultOf(ckanTask);
+                    continue;
+                }
+
+                try {
+                    beaconDatasetIds = resultOf(beaconTask);
+                } catch (WebApplicationException exception) {
+                    beaconError = beaconFailure(exception);
+                }
+
+                if (beaconDatasetIds != null && beaconDatasetIds.isEmpty()) {
+                    // Nothing can intersect with an empty Beacon result, the CKAN scan is moot
+                    return new CollectedDatasetIds(Map.of(), beaconDatasetIds, null);
+                }
+            }
+            return new CollectedDatasetIds(ckanDatasetIds, beaconDatasetIds, beaconError);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting dataset ids", exception);
+        } finally {
+            ckanTask.cancel(true);
+            beaconTask.cancel(true);
+        }
+    }
+
+    private Map<String, Integer> collectCkanIds(DatasetSearchQuery query, String accessToken) {
+        var ids = searchMetrics.time(CKAN_IDS,
+                () -> ckanDatasetIdsCollector.collect(query, accessToken));
+        searchMetrics.recordIds("ckan", ids);
+        return ids;
+    }
+
+    private Map<String, Integer> collectBeaconIds(DatasetSearchQuery query, String accessToken) {
+        var ids = searchMetrics.time(BEACON_IDS,
+                () -> beaconDatasetIdsCollector.collect(query, accessToken));
+        searchMetrics.recordIds("beacon", ids);
+        return ids;
+    }
+
+    private Map<String, Integer> resultOf(Future<Map<String, Integer>> task)
+            throws InterruptedException {
+        try {
+            return task.get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    private String beaconFailure(WebApplicationException exception) {
+        log.log(Level.WARNING, exception.getMessage(), exception);
+        return createBeaconErrorMessage(exception.getResponse().getStatus());
+    }
+
     /**
      * Create user-friendly error message based on HTTP status code
      */
@@ -164,13 +303,12 @@ public class SearchDatasetsQuery {
     private DatasetsSearchResponse enrichWithSupplementalFacets(DatasetsSearchResponse response,
             String accessToken,
             String preferredLanguage) {
-        var supplementalFacets = filterBuilders.stream()
-                .filter(filterBuilder -> !Objects.equals(CKAN_FILTER_SOURCE, filterBuilder
-                        .source()))
-                .map(filterBuilder -> filterBuilder.build(accessToken, preferredLanguage))
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .toList();
+        var supplementalFacets = searchMetrics.time(SUPPLEMENTAL_FACETS,
+                () -> filterBuilders.build(
+                        filterBuilder -> !Objects.equals(CKAN_FILTER_SOURCE,
+                                filterBuilder.source()),
+                        accessToken,
+                        preferredLanguage));
 
         if (supplementalFacets.isEmpty()) {
             return response;
@@ -184,4 +322,12 @@ public class SearchDatasetsQuery {
                 .facets(List.copyOf(mergedFacets))
                 .build();
     }
+
+    private record CollectedDatasetIds(Map<String, Integer> ckanDatasetIds,
+                                       Map<String, Integer> beaconDatasetIds,
+                                       String beaconError) {
+    }
+
+    private record IntersectedDatasetIds(Map<String, Integer> datasetIds, String beaconError) {
+    }
 }
@@ -0,0 +1,29 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.application.usecases;
+
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+
+/**
+ * Identifies a whole dataset search, so that identical concurrent searches share one upstream
+ * computation. On top of the {@link DatasetIdsKey}, which already scopes the key to the user's
+ * access token, it keeps the page, the sort, whether Beacon is queried, and the language.
+ */
+record SearchKey(DatasetIdsKey datasetIds, String sort, Integer rows, Integer start,
+        boolean includeBeacon, String preferredLanguage) {
+
+    static SearchKey of(DatasetSearchQuery query, boolean includeBeacon, String accessToken,
+            String preferredLanguage) {
+        return new SearchKey(
+                DatasetIdsKey.of(query, accessToken),
+                query.getSort() == null || query.getSort().isBlank()
+                        ? null
+                        : query.getSort().trim(),
+                query.getRows(),
+                query.getStart(),
+                includeBeacon,
+                preferredLanguage);
+    }
+}
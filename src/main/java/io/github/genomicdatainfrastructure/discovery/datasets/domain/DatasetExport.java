@@ -0,0 +1,32 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A dataset serialised by the catalogue (JSON-LD, RDF/XML or Turtle), handed over as the raw
+ * upstream body. {@code contentLength}, {@code contentEncoding}, {@code entityTag} and
+ * {@code lastModified} are the upstream header values for those bytes, {@code null} when the
+ * catalogue did not send them. When {@code notModified} is set the catalogue answered a
+ * conditional request with 304 and {@code content} is empty. Callers own the stream and must
+ * close it.
+ */
+public record DatasetExport(
+        InputStream content,
+        Long contentLength,
+        String contentEncoding,
+        String entityTag,
+        String lastModified,
+        boolean notModified
+) implements Closeable {
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+}
@@ -4,16 +4,41 @@
 
 package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.auth;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
 import io.github.genomicdatainfrastructure.discovery.remote.keycloak.api.KeycloakQueryApi;
+import io.github.genomicdatainfrastructure.discovery.remote.keycloak.model.KeycloakTokenResponse;
+import io.github.genomicdatainfrastructure.discovery.utils.Sha256;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
 import lombok.extern.java.Log;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.TOKEN_EXCHANGE;
+
+/**
+ * Exchanges the user's access token for a Beacon IdP token through Keycloak's broker endpoint.
+ * Exchanged tokens are cached per user, keyed by a SHA-256 hash of the access token, until the
+ * exchanged token expires; concurrent misses for the same user share a single Keycloak call, and
+ * rejected exchanges (400/401/403) are remembered for a short while. At most {@code MAX_ENTRIES}
+ * users are kept, the least recently seen one making room for a new one.
+ */
 @Log
 @ApplicationScoped
 public class BeaconAuth {
@@ -21,16 +46,46 @@ public class BeaconAuth {
     private static final String BEACON_ACCESS_TOKEN_INFO = "Skipping beacon search, user is not authorized or the token is invalid.";
     private static final String BEARER_PATTERN = "Bearer %s";
     private static final Set<Integer> SKIP_BEACON_QUERY_STATUS = Set.of(400, 401, 403);
+    private static final Duration EXPIRY_SKEW = Duration.ofSeconds(30);
+    static final int MAX_ENTRIES = 10_000;
 
     private final KeycloakQueryApi keycloakQueryApi;
     private final String beaconIdpAlias;
+    private final Duration negativeCacheTtl;
+    private final ObjectMapper objectMapper;
+    private final SearchMetrics searchMetrics;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CompletableFuture<TokenExchange>> exchanges =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, CompletableFuture<TokenExchange>> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
 
+    @Inject
     public BeaconAuth(
             @RestClient KeycloakQueryApi keycloakQueryApi,
-            @ConfigProperty(name = "quarkus.rest-client.keycloak_yaml.beacon_idp_alias") String beaconIdpAlias
+            @ConfigProperty(name = "quarkus.rest-client.keycloak_yaml.beacon_idp_alias") String beaconIdpAlias,
+            @ConfigProperty(name = "quarkus.rest-client.keycloak_yaml.negative_cache_ttl", defaultValue = "PT30S") Duration negativeCacheTtl,
+            ObjectMapper objectMapper,
+            SearchMetrics searchMetrics
     ) {
+        this(keycloakQueryApi, beaconIdpAlias, negativeCacheTtl, objectMapper, searchMetrics,
+                Clock.systemUTC());
+    }
+
+    BeaconAuth(KeycloakQueryApi keycloakQueryApi, String beaconIdpAlias,
+            Duration negativeCacheTtl, ObjectMapper objectMapper, SearchMetrics searchMetrics,
+            Clock clock) {
         this.keycloakQueryApi = keycloakQueryApi;
         this.beaconIdpAlias = beaconIdpAlias;
+        this.negativeCacheTtl = negativeCacheTtl;
+        this.objectMapper = objectMapper;
+        this.searchMetrics = searchMetrics;
+        this.clock = clock;
     }
 
     public String retrieveAuthorization(String accessToken) {
@@ -38,18 +93,107 @@ public class BeaconAuth {
             return null;
         }
 
+        var key = Sha256.hash(accessToken);
+        var candidate = new CompletableFuture<TokenExchange>();
+        CompletableFuture<TokenExchange> exchange;
+        lock.lock();
+        try {
+            exchange = exchanges.merge(key, candidate,
+                    (existing, created) -> isReusable(existing) ? existing : created);
+        } finally {
+            lock.unlock();
+        }
+
+        if (exchange == candidate) {
+            try {
+                candidate.complete(searchMetrics.time(TOKEN_EXCHANGE,
+                        () -> exchange(accessToken)));
+            } catch (RuntimeException exception) {
+                forget(key, candidate);
+                candidate.completeExceptionally(exception);
+            }
+        }
+
+        try {
+            return exchange.join().authorization();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private TokenExchange exchange(String accessToken) {
         var keycloakAuthorization = BEARER_PATTERN.formatted(accessToken);
 
         try {
             var response = keycloakQueryApi.retriveIdpTokens(beaconIdpAlias, keycloakAuthorization);
-            return BEARER_PATTERN.formatted(response.getAccessToken());
+            return new TokenExchange(BEARER_PATTERN.formatted(response.getAccessToken()),
+                    expiresAt(response));
         } catch (WebApplicationException exception) {
             if (SKIP_BEACON_QUERY_STATUS.contains(exception.getResponse().getStatus())) {
                 log.log(Level.INFO, BEACON_ACCESS_TOKEN_INFO);
                 log.log(Level.WARNING, exception, exception::getMessage);
-                return null;
+                return new TokenExchange(null, clock.instant().plus(negativeCacheTtl));
             }
             throw exception;
         }
     }
+
+    /**
+     * Takes the expiry from {@code expires_in}, falling back to the {@code exp} claim of the
+     * exchanged JWT; tokens without a known expiry are not reused.
+     */
+    private Instant expiresAt(KeycloakTokenResponse response) {
+        var now = clock.instant();
+        if (response.getExpiresIn() != null) {
+            return now.plusSeconds(response.getExpiresIn()).minus(EXPIRY_SKEW);
+        }
+        return jwtExpiry(response.getAccessToken())
+                .map(expiry -> expiry.minus(EXPIRY_SKEW))
+                .orElse(now);
+    }
+
+    private Optional<Instant> jwtExpiry(String token) {
+        var parts = token != null ? token.split("\\.") : new String[0];
+        if (parts.length < 2) {
+            return Optional.empty();
+        }
+
+        try {
+            var claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            var exp = claims.path("exp");
+            return exp.canConvertToLong()
+                    ? Optional.of(Instant.ofEpochSecond(exp.asLong()))
+                    : Optional.empty();
+        } catch (IOException | IllegalArgumentException exception) {
+            log.log(Level.FINE, "Could not read the expiry of the exchanged beacon token",
+                    exception);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isReusable(CompletableFuture<TokenExchange> exchange) {
+        if (!exchange.isDone()) {
+            return true;
+        }
+        return !exchange.isCompletedExceptionally() && !isExpired(exchange.join());
+    }
+
+    private boolean isExpired(TokenExchange exchange) {
+        return !clock.instant().isBefore(exchange.expiresAt());
+    }
+
+    private void forget(String key, CompletableFuture<TokenExchange> exchange) {
+        lock.lock();
+        try {
+            exchanges.remove(key, exchange);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record TokenExchange(String authorization, Instant expiresAt) {
+    }
 }
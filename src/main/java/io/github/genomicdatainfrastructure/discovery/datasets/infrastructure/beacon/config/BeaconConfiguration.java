@@ -7,6 +7,9 @@ package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.be
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 
+import java.time.Duration;
+import java.util.Optional;
+
 @ConfigMapping(prefix = "sources")
 public interface BeaconConfiguration {
 
@@ -15,4 +18,37 @@ public interface BeaconConfiguration {
      */
     @WithDefault("false")
     boolean beacon();
+
+    /**
+     * Whether the CKAN and Beacon dataset ids are collected concurrently, so a Beacon-enabled
+     * search costs the slower of both calls instead of their sum
+     */
+    @WithDefault("true")
+    boolean beaconParallel();
+
+    /**
+     * Optional path of a Beacon filter catalogue overriding the bundled beacon-filters.json; it
+     * is reloaded when its modification time changes
+     */
+    Optional<String> beaconFiltersLocation();
+
+    /**
+     * How long the CKAN and Beacon dataset ids intersected for a user and a query are reused, so
+     * paging through or re-sorting its results only costs one CKAN search per page
+     */
+    @WithDefault("PT1M")
+    Duration beaconIdsTtl();
+
+    /**
+     * Maximum number of intersected id sets kept; 0 disables the cache. Each set may hold the ids
+     * of the whole catalogue, so this stays small.
+     */
+    @WithDefault("100")
+    int beaconIdsMaxEntries();
+
+    /**
+     * Minimum time between two checks of {@code sources.beacon-filters-location} for changes
+     */
+    @WithDefault("PT1M")
+    Duration beaconFiltersReloadInterval();
 }
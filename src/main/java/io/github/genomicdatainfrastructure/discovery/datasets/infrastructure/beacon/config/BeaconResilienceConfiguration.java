@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithName;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "beacon")
+public interface BeaconResilienceConfiguration {
+
+    /**
+     * Guard around the Beacon individuals query used by dataset searches
+     */
+    Guard individuals();
+
+    /**
+     * Guard around the Beacon g_variants query
+     */
+    @WithName("gvariants")
+    Guard gVariants();
+
+    interface Guard {
+
+        /**
+         * Maximum number of concurrent calls; further calls are rejected right away
+         */
+        @WithDefault("20")
+        int maxConcurrent();
+
+        /**
+         * Number of most recent calls the circuit breaker judges the failure ratio on
+         */
+        @WithDefault("20")
+        int requestVolume();
+
+        /**
+         * Ratio of failed calls among the most recent ones that opens the circuit
+         */
+        @WithDefault("0.5")
+        double failureRatio();
+
+        /**
+         * How long an open circuit rejects calls before letting a single trial call through
+         */
+        @WithDefault("PT30S")
+        Duration openDelay();
+
+        /**
+         * Percentile of recent call durations, timed out calls included, the timeout is derived
+         * from
+         */
+        @WithDefault("99")
+        int timeoutPercentile();
+
+        /**
+         * Headroom applied to that percentile
+         */
+        @WithDefault("2.0")
+        double timeoutMultiplier();
+
+        /**
+         * Lower bound of the adaptive timeout, a few seconds above the usual p99 of Beacon
+         * queries, so that a run of fast answers doesn't cut off the occasional heavier one
+         */
+        @WithDefault("PT5S")
+        Duration minTimeout();
+
+        /**
+         * Upper bound of the adaptive timeout, also used until enough calls were observed. It
+         * stays below the REST client's read timeout, which only remains the outer cap of calls
+         * the guard already gave up on.
+         */
+        @WithDefault("PT55S")
+        Duration maxTimeout();
+    }
+}
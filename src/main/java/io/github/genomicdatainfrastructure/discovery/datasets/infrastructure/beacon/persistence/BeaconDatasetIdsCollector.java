@@ -6,20 +6,24 @@ package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.be
 
 import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.DatasetIdsCollector;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.auth.BeaconAuth;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconResilienceConfiguration;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.individuals.api.BeaconQueryApi;
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.individuals.model.BeaconResponse;
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.individuals.model.BeaconResponseContent;
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.individuals.model.BeaconResultSet;
 import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.apache.commons.lang3.ObjectUtils;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toMap;
@@ -34,12 +38,17 @@ public class BeaconDatasetIdsCollector implements DatasetIdsCollector {
 
     private final BeaconQueryApi beaconQueryApi;
     private final BeaconAuth beaconAuth;
+    private final BeaconGuard beaconGuard;
 
     @Inject
     public BeaconDatasetIdsCollector(@RestClient BeaconQueryApi beaconQueryApi,
-            BeaconAuth beaconAuth) {
+            BeaconAuth beaconAuth,
+            BeaconResilienceConfiguration resilienceConfiguration,
+            @VirtualThreads ExecutorService executor) {
         this.beaconQueryApi = beaconQueryApi;
         this.beaconAuth = beaconAuth;
+        this.beaconGuard = new BeaconGuard("individuals", resilienceConfiguration.individuals(),
+                executor, Clock.systemUTC());
     }
 
     @Override
@@ -53,7 +62,8 @@ public class BeaconDatasetIdsCollector implements DatasetIdsCollector {
             return null;
         }
 
-        var response = beaconQueryApi.listIndividuals(beaconAuthorization, beaconQuery);
+        var response = beaconGuard.call(
+                () -> beaconQueryApi.listIndividuals(beaconAuthorization, beaconQuery));
 
         var nonNullResultSets = ofNullable(response)
                 .map(BeaconResponse::getResponse)
@@ -11,6 +11,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.ObjectUtils;
 
 import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence.PopulationConstants.PARAM_REFERENCE_NAME;
@@ -83,31 +85,54 @@ public class BeaconGVariantsRequestMapper {
     }
 
     public static List<GVariantsSearchResponse> map(BeaconResponse response) {
+        return map(response, population -> true);
+    }
+
+    /**
+     * Maps only the frequencies whose population passes {@code populationFilter}, so excluded
+     * rows are never materialised. The filter is applied sequentially, on the calling thread.
+     */
+    public static List<GVariantsSearchResponse> map(BeaconResponse response,
+            Predicate<String> populationFilter) {
         var resultSets = ofNullable(response)
                 .map(BeaconResponse::getResponse)
                 .map(BeaconResponseContent::getResultSets)
                 .orElse(Collections.emptyList());
 
         return resultSets.stream()
-                .flatMap(resultSet -> mapResultSetToVariant(resultSet).stream())
+                .flatMap(resultSet -> mapResultSetToVariant(resultSet, populationFilter).stream())
                 .toList();
     }
 
-    private static List<GVariantsSearchResponse> mapResultSetToVariant(BeaconResultSet resultSet) {
+    private static List<GVariantsSearchResponse> mapResultSetToVariant(BeaconResultSet resultSet,
+            Predicate<String> populationFilter) {
         if (ObjectUtils.isEmpty(resultSet.getResults())) {
             return List.of();
         }
 
         return resultSet.getResults().stream()
-                .filter(result -> ObjectUtils.isNotEmpty(result.getFrequencyInPopulations()))
-                .flatMap(result -> result.getFrequencyInPopulations().stream()
-                        .filter(it -> ObjectUtils.isNotEmpty(it.getFrequencies()))
-                        .flatMap(fip -> fip.getFrequencies().stream()
-                                .map(freq -> populateVariantFromFrequency(freq, result,
-                                        resultSet.getBeaconId(), resultSet.getId()))))
+                .flatMap(result -> map(result, resultSet.getBeaconId(), resultSet.getId(),
+                        populationFilter))
                 .toList();
     }
 
+    /**
+     * Maps the accepted population frequencies of a single Beacon result, e.g. while a response
+     * is being decoded incrementally.
+     */
+    public static Stream<GVariantsSearchResponse> map(Result result, String beaconId, String id,
+            Predicate<String> populationFilter) {
+        if (ObjectUtils.isEmpty(result.getFrequencyInPopulations())) {
+            return Stream.empty();
+        }
+
+        return result.getFrequencyInPopulations().stream()
+                .filter(it -> ObjectUtils.isNotEmpty(it.getFrequencies()))
+                .flatMap(fip -> fip.getFrequencies().stream()
+                        .filter(freq -> populationFilter.test(freq.getPopulation()))
+                        .map(freq -> populateVariantFromFrequency(freq, result, beaconId, id)));
+    }
+
     private static GVariantsSearchResponse populateVariantFromFrequency(Frequency freq,
             Result result,
             String beaconId, String id) {
@@ -0,0 +1,186 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.model.GVariantsSearchResponse;
+import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.model.Result;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decodes a Beacon g_variants response incrementally: only one {@code Result} of
+ * {@code response.resultSets[].results[]} is bound at a time, and its accepted frequencies are
+ * handed out before the next one is read. A result set whose {@code beaconId} or {@code id} come
+ * after its results can't be mapped early, so those results are held until the end of the set.
+ */
+class BeaconGVariantsResponseReader implements Iterator<GVariantsSearchResponse>, Closeable {
+
+    private final JsonParser parser;
+    private final Predicate<String> populationFilter;
+    private final Deque<GVariantsSearchResponse> decoded = new ArrayDeque<>();
+    private final List<Result> deferred = new ArrayList<>();
+    private State state = State.SEEK;
+    private String beaconId;
+    private String id;
+
+    BeaconGVariantsResponseReader(ObjectMapper objectMapper, InputStream body,
+            Predicate<String> populationFilter) throws IOException {
+        this.parser = objectMapper.createParser(body);
+        this.populationFilter = populationFilter;
+    }
+
+    Stream<GVariantsSearchResponse> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (decoded.isEmpty() && state != State.DONE) {
+                advance();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not read Beacon g_variants response", exception);
+        }
+        return !decoded.isEmpty();
+    }
+
+    @Override
+    public GVariantsSearchResponse next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return decoded.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private void advance() throws IOException {
+        switch (state) {
+            case SEEK -> state = seekResultSets() ? State.RESULT_SETS : State.DONE;
+            case RESULT_SETS -> nextResultSet();
+            case RESULT_SET -> nextResultSetField();
+            case RESULTS -> nextResult();
+            case DONE -> {
+                // nothing left to read
+            }
+        }
+    }
+
+    private boolean seekResultSets() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            var value = parser.nextToken();
+            if ("response".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var responseField = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY
+                            && "resultSets".equals(responseField)) {
+                        return true;
+                    }
+                    parser.skipChildren();
+                }
+                return false;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private void nextResultSet() throws IOException {
+        var token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            beaconId = null;
+            id = null;
+            state = State.RESULT_SET;
+        } else if (token == null || token == JsonToken.END_ARRAY) {
+            state = State.DONE;
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private void nextResultSetField() throws IOException {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            deferred.forEach(this::decode);
+            deferred.clear();
+            state = State.RESULT_SETS;
+            return;
+        }
+
+        var field = parser.currentName();
+        var value = parser.nextToken();
+        switch (field) {
+            case "beaconId" -> beaconId = parser.getValueAsString();
+            case "id" -> id = parser.getValueAsString();
+            case "results" -> {
+                if (value == JsonToken.START_ARRAY) {
+                    state = State.RESULTS;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            default -> parser.skipChildren();
+        }
+    }
+
+    private void nextResult() throws IOException {
+        var token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            state = State.RESULT_SET;
+        } else if (token == JsonToken.START_OBJECT) {
+            var result = parser.readValueAs(Result.class);
+            if (beaconId != null && id != null) {
+                decode(result);
+            } else {
+                deferred.add(result);
+            }
+        } else if (token == null) {
+            state = State.DONE;
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private void decode(Result result) {
+        BeaconGVariantsRequestMapper.map(result, beaconId, id, populationFilter)
+                .forEach(decoded::add);
+    }
+
+    private enum State {
+        SEEK, RESULT_SETS, RESULT_SET, RESULTS, DONE
+    }
+}
@@ -0,0 +1,305 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconResilienceConfiguration.Guard;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.java.Log;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Isolates the service from a degraded Beacon network. Each call goes through, in order:
+ * <ul>
+ * <li>a circuit breaker, which opens once {@code failureRatio} of the last
+ * {@code requestVolume} calls failed, rejects calls for {@code openDelay}, and then lets a single
+ * trial call decide whether to close again;</li>
+ * <li>a bulkhead of {@code maxConcurrent} calls, beyond which calls are rejected instead of
+ * queued. A permit is held until the Beacon call itself finishes, not until the caller stops
+ * waiting for it, as interrupting a call doesn't abort its HTTP request;</li>
+ * <li>a timeout derived from the {@code timeoutPercentile} of recent call durations, timed out
+ * calls included, times {@code timeoutMultiplier}, bounded by {@code minTimeout} and
+ * {@code maxTimeout}.</li>
+ * </ul>
+ * Rejected and timed out calls fail fast with a 503 {@link WebApplicationException}, which
+ * searches already turn into their CKAN-only fallback. Client errors (4xx) are Beacon's answer,
+ * not a failure, so they don't count towards opening the circuit.
+ */
+@Log
+public class BeaconGuard {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final int MAX_SAMPLES = 200;
+
+    private final String name;
+    private final Guard config;
+    private final ExecutorService executor;
+    private final Clock clock;
+    private final Semaphore bulkhead;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] outcomes;
+    private final long[] durations = new long[MAX_SAMPLES];
+
+    private int calls;
+    private int failures;
+    private int nextOutcome;
+    private int samples;
+    private int nextDuration;
+    private Instant openUntil;
+    private boolean trialInFlight;
+
+    public BeaconGuard(String name, Guard config, ExecutorService executor, Clock clock) {
+        this.name = name;
+        this.config = config;
+        this.executor = executor;
+        this.clock = clock;
+        this.bulkhead = new Semaphore(Math.max(1, config.maxConcurrent()));
+        this.outcomes = new boolean[Math.max(1, config.requestVolume())];
+    }
+
+    public <T> T call(Supplier<T> action) {
+        var trial = acquireCircuit();
+        if (!bulkhead.tryAcquire()) {
+            releaseTrial(trial);
+            throw unavailable("too many concurrent Beacon %s calls".formatted(name));
+        }
+
+        // Whoever claims the permit releases it: the task once it ran, or the caller when the
+        // task was cancelled before it started
+        var permitClaimed = new AtomicBoolean();
+        var timeout = timeout();
+        var start = System.nanoTime();
+        Future<T> task;
+        try {
+            task = executor.submit(() -> {
+                if (!permitClaimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return action.get();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            bulkhead.release();
+            releaseTrial(trial);
+            throw exception;
+        }
+
+        try {
+            var result = task.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            recordDuration(System.nanoTime() - start);
+            recordSuccess(trial);
+            return result;
+        } catch (TimeoutException exception) {
+            abandon(task, permitClaimed);
+            recordDuration(System.nanoTime() - start);
+            recordFailure(trial);
+            throw unavailable("Beacon %s did not answer within %s".formatted(name, timeout));
+        } catch (ExecutionException exception) {
+            var cause = exception.getCause();
+            if (isUpstreamFailure(cause)) {
+                recordFailure(trial);
+            } else {
+                recordSuccess(trial);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException exception) {
+            abandon(task, permitClaimed);
+            releaseTrial(trial);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling Beacon " + name, exception);
+        }
+    }
+
+    /**
+     * The timeout the next call would get
+     */
+    Duration timeout() {
+        var min = config.minTimeout();
+        var max = config.maxTimeout();
+        long[] sorted;
+        lock.lock();
+        try {
+            if (samples < MIN_SAMPLES) {
+                return max;
+            }
+            sorted = Arrays.copyOf(durations, samples);
+        } finally {
+            lock.unlock();
+        }
+
+        Arrays.sort(sorted);
+        var percentile = Math.clamp(config.timeoutPercentile(), 1, 100);
+        var index = Math.min(sorted.length - 1,
+                (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        var adaptive = Duration.ofNanos((long) (sorted[index] * config.timeoutMultiplier()));
+
+        if (adaptive.compareTo(min) < 0) {
+            return min;
+        }
+        return adaptive.compareTo(max) > 0 ? max : adaptive;
+    }
+
+    boolean isOpen() {
+        lock.lock();
+        try {
+            return openUntil != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandon(Future<?> task, AtomicBoolean permitClaimed) {
+        task.cancel(true);
+        if (permitClaimed.compareAndSet(false, true)) {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireCircuit() {
+        lock.lock();
+        try {
+            if (openUntil == null) {
+                return false;
+            }
+            if (trialInFlight || clock.instant().isBefore(openUntil)) {
+                throw unavailable("Beacon %s circuit is open".formatted(name));
+            }
+            trialInFlight = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseTrial(boolean trial) {
+        if (!trial) {
+            return;
+        }
+        lock.lock();
+        try {
+            trialInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordDuration(long durationNanos) {
+        lock.lock();
+        try {
+            durations[nextDuration] = durationNanos;
+            nextDuration = (nextDuration + 1) % MAX_SAMPLES;
+            samples = Math.min(samples + 1, MAX_SAMPLES);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Only the trial call closes an open circuit; calls that started before it opened and answer
+     * late don't tell whether Beacon recovered
+     */
+    private void recordSuccess(boolean trial) {
+        var closed = false;
+        lock.lock();
+        try {
+            if (openUntil == null) {
+                recordOutcome(false);
+            } else if (trial) {
+                openUntil = null;
+                trialInFlight = false;
+                resetOutcomes();
+                closed = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (closed) {
+            log.info(() -> "Beacon %s circuit closed".formatted(name));
+        }
+    }
+
+    private void recordFailure(boolean trial) {
+        var failedCalls = -1;
+        var recentCalls = 0;
+        lock.lock();
+        try {
+            if (openUntil != null) {
+                if (trial) {
+                    // the trial call failed, keep rejecting calls for another delay
+                    openUntil = clock.instant().plus(config.openDelay());
+                    trialInFlight = false;
+                }
+                return;
+            }
+
+            recordOutcome(true);
+            if (calls == outcomes.length && failures >= config.failureRatio() * calls) {
+                openUntil = clock.instant().plus(config.openDelay());
+                failedCalls = failures;
+                recentCalls = calls;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (failedCalls >= 0) {
+            var failed = failedCalls;
+            var recent = recentCalls;
+            log.warning(() -> "Beacon %s circuit opened, %d of the last %d calls failed"
+                    .formatted(name, failed, recent));
+        }
+    }
+
+    private void recordOutcome(boolean failed) {
+        if (calls == outcomes.length && outcomes[nextOutcome]) {
+            failures--;
+        }
+        outcomes[nextOutcome] = failed;
+        if (failed) {
+            failures++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+        calls = Math.min(calls + 1, outcomes.length);
+    }
+
+    private void resetOutcomes() {
+        Arrays.fill(outcomes, false);
+        calls = 0;
+        failures = 0;
+        nextOutcome = 0;
+    }
+
+    private static boolean isUpstreamFailure(Throwable cause) {
+        if (cause instanceof WebApplicationException exception) {
+            return exception.getResponse() == null
+                    || exception.getResponse().getStatus() >= 500;
+        }
+        // connection failures, unreadable responses and the like
+        return true;
+    }
+
+    private static WebApplicationException unavailable(String message) {
+        return new WebApplicationException(message, Response.Status.SERVICE_UNAVAILABLE);
+    }
+}
@@ -4,19 +4,29 @@
 
 package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.GVariantsRepositoryPort;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconResilienceConfiguration;
 import io.github.genomicdatainfrastructure.discovery.model.GVariantSearchQuery;
 import io.github.genomicdatainfrastructure.discovery.model.GVariantsSearchResponse;
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.api.GVariantsApi;
 import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence.PopulationConstants.hasValue;
 import static org.apache.commons.lang3.ObjectUtils.isEmpty;
@@ -29,60 +39,101 @@ public class GVariantsRepository implements GVariantsRepositoryPort {
     private static final Pattern COUNTRY_CODE_PATTERN = Pattern.compile("^[A-Z]{2}$");
 
     private final GVariantsApi gVariantsApi;
+    private final GVariantsStreamApi gVariantsStreamApi;
+    private final ObjectMapper objectMapper;
+    private final BeaconGuard beaconGuard;
 
     @Inject
-    public GVariantsRepository(@RestClient GVariantsApi gVariantsApi) {
+    public GVariantsRepository(@RestClient GVariantsApi gVariantsApi,
+            @RestClient GVariantsStreamApi gVariantsStreamApi, ObjectMapper objectMapper,
+            BeaconResilienceConfiguration resilienceConfiguration,
+            @VirtualThreads ExecutorService executor) {
+        this(gVariantsApi, gVariantsStreamApi, objectMapper, new BeaconGuard("g_variants",
+                resilienceConfiguration.gVariants(), executor, Clock.systemUTC()));
+    }
+
+    public GVariantsRepository(GVariantsApi gVariantsApi, GVariantsStreamApi gVariantsStreamApi,
+            ObjectMapper objectMapper, BeaconGuard beaconGuard) {
         this.gVariantsApi = gVariantsApi;
+        this.gVariantsStreamApi = gVariantsStreamApi;
+        this.objectMapper = objectMapper;
+        this.beaconGuard = beaconGuard;
     }
 
     @Override
     public List<GVariantsSearchResponse> search(GVariantSearchQuery query) {
         var beaconQuery = BeaconGVariantsRequestMapper.map(query);
 
-        var response = gVariantsApi.postGenomicVariationsRequest(beaconQuery);
-        var unfilteredResponse = BeaconGVariantsRequestMapper.map(response);
+        var response = beaconGuard.call(
+                () -> gVariantsApi.postGenomicVariationsRequest(beaconQuery));
+        return BeaconGVariantsRequestMapper.map(response, populationFilter(query));
+    }
 
-        return filterPopulationByCountryOfBirthAndSex(unfilteredResponse, query);
+    @Override
+    public Stream<GVariantsSearchResponse> stream(GVariantSearchQuery query) {
+        var beaconQuery = BeaconGVariantsRequestMapper.map(query);
+
+        // only waiting for the response is guarded, not reading the streamed body
+        var body = beaconGuard.call(
+                () -> gVariantsStreamApi.postGenomicVariationsRequest(beaconQuery));
+        try {
+            return new BeaconGVariantsResponseReader(objectMapper, body, populationFilter(query))
+                    .stream();
+        } catch (IOException exception) {
+            closeQuietly(body, exception);
+            throw new UncheckedIOException("Could not read Beacon g_variants response", exception);
+        }
     }
 
-    private List<GVariantsSearchResponse> filterPopulationByCountryOfBirthAndSex(
-            List<GVariantsSearchResponse> variants, GVariantSearchQuery query) {
+    private static void closeQuietly(InputStream body, IOException cause) {
+        try {
+            body.close();
+        } catch (IOException exception) {
+            cause.addSuppressed(exception);
+        }
+    }
 
+    /**
+     * Compiles the country-of-birth and sex parameters once into a predicate on the population
+     * string. A response repeats a few dozen distinct populations over thousands of frequencies,
+     * so each distinct population is parsed and decided only once per search.
+     */
+    private Predicate<String> populationFilter(GVariantSearchQuery query) {
         var params = query.getParams();
         if (params == null) {
-            return variants;
+            return population -> true;
         }
 
         String countryOfBirth = params.getCountryOfBirth();
         String sex = params.getSex();
 
         if (isEmpty(countryOfBirth) && isEmpty(sex)) {
-            return variants;
+            return population -> true;
         }
 
-        return variants.stream()
-                .filter(v -> matchesFilters(v, countryOfBirth, sex))
-                .toList();
-    }
-
-    private boolean matchesFilters(GVariantsSearchResponse variant, String countryOfBirth,
-            String sex) {
         var requestedCountry = parseCountryFilter(countryOfBirth);
         var requestedSex = parseSexFilter(sex);
 
         if (requestedCountry.isUnset() && requestedSex.isUnset()) {
-            return true;
+            return population -> true;
         }
 
         if (requestedCountry.isInvalid() || requestedSex.isInvalid()) {
-            return false;
+            return population -> false;
         }
 
         if (requestedCountry.isAll() && requestedSex.isAll()) {
-            return true;
+            return population -> true;
         }
 
-        var populationTag = parsePopulationTag(variant.getPopulation());
+        var decisions = new HashMap<String, Boolean>();
+        return population -> decisions.computeIfAbsent(population,
+                ignored -> matchesFilters(parsePopulationTag(population), requestedCountry,
+                        requestedSex));
+    }
+
+    private boolean matchesFilters(PopulationTag populationTag, CountryFilter requestedCountry,
+            SexFilter requestedSex) {
         if (populationTag == null) {
             return false;
         }
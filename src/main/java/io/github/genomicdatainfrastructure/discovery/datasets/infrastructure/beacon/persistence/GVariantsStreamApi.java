@@ -0,0 +1,31 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.model.BeaconRequest;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+import java.io.InputStream;
+
+/**
+ * Raw variant of the generated {@code GVariantsApi#postGenomicVariationsRequest}, sharing its
+ * {@code gvariants_yaml} client configuration. The body is handed over undecoded, so it can be
+ * parsed incrementally instead of binding the whole {@code BeaconResponse} graph.
+ */
+@Path("/v2.0.0")
+@RegisterRestClient(configKey = "gvariants_yaml")
+public interface GVariantsStreamApi {
+
+    @POST
+    @Path("/g_variants")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    InputStream postGenomicVariationsRequest(BeaconRequest request);
+}
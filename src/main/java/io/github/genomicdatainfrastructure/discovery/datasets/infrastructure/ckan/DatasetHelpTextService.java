@@ -6,6 +6,7 @@ package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ck
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.HelpTexts;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.quarkus.HelpTextConfig;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.yaml.YamlHelpTextLoader;
@@ -15,18 +16,31 @@ import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryAp
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanFilterHelpTextsResponse;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanPackage;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanValueLabel;
+import io.github.genomicdatainfrastructure.discovery.utils.StaleWhileRevalidateCache;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import lombok.extern.java.Log;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.time.Clock;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.stream.Stream;
 
+/**
+ * Sets the help texts of a retrieved dataset. The CKAN help texts only depend on the language and
+ * the scheming type, so they are cached per (language, scheming type), see
+ * {@code ckan.help-texts.*}; when the dataset belongs to series, the package and series help texts
+ * are fetched concurrently.
+ */
 @Log
 @ApplicationScoped
 public class DatasetHelpTextService {
@@ -137,14 +151,28 @@ public class DatasetHelpTextService {
     private final ObjectMapper objectMapper;
     private final HelpTextConfig helpTextConfig;
     private final YamlHelpTextLoader yamlHelpTextLoader;
+    private final ExecutorService executor;
+    private final StaleWhileRevalidateCache<HelpTextsKey, Map<String, String>> packageHelpTexts;
+    private final StaleWhileRevalidateCache<HelpTextsKey, Map<String, String>> seriesHelpTexts;
 
+    @Inject
     public DatasetHelpTextService(@RestClient CkanQueryApi ckanQueryApi,
             ObjectMapper objectMapper, HelpTextConfig helpTextConfig,
-            YamlHelpTextLoader yamlHelpTextLoader) {
+            YamlHelpTextLoader yamlHelpTextLoader,
+            CkanClientConfiguration ckanClientConfiguration,
+            @VirtualThreads ExecutorService executor) {
         this.ckanQueryApi = ckanQueryApi;
         this.objectMapper = objectMapper;
         this.helpTextConfig = helpTextConfig;
         this.yamlHelpTextLoader = yamlHelpTextLoader;
+        this.executor = executor;
+        var helpTexts = ckanClientConfiguration.helpTexts();
+        this.packageHelpTexts = new StaleWhileRevalidateCache<>("CKAN dataset help texts",
+                helpTexts.ttl(), helpTexts.maxStale(), helpTexts.maxEntries(), executor,
+                Clock.systemUTC());
+        this.seriesHelpTexts = new StaleWhileRevalidateCache<>("CKAN series help texts",
+                helpTexts.ttl(), helpTexts.maxStale(), helpTexts.maxEntries(), executor,
+                Clock.systemUTC());
     }
 
     public RetrievedDataset enrich(RetrievedDataset dataset, CkanPackage ckanPackage,
@@ -188,54 +216,59 @@ public class DatasetHelpTextService {
 
     private Map<String, String> retrieveHelpTexts(CkanPackage ckanPackage,
             String preferredLanguage) {
+        var joinedSeriesHelpTexts = hasSeries(ckanPackage)
+                ? CompletableFuture.supplyAsync(() -> retrieveJoinedSeriesHelpTexts(
+                        preferredLanguage), executor)
+                : CompletableFuture.completedFuture(Map.<String, String>of());
+
         var helpTexts = new LinkedHashMap<String, String>();
         helpTexts.putAll(retrievePackageHelpTexts(ckanPackage, preferredLanguage));
-        helpTexts.putAll(retrieveJoinedSeriesHelpTexts(ckanPackage, preferredLanguage));
+        helpTexts.putAll(joinedSeriesHelpTexts.join());
         return helpTexts;
     }
 
+    private boolean hasSeries(CkanPackage ckanPackage) {
+        return ckanPackage.getInSeries() != null && !ckanPackage.getInSeries().isEmpty();
+    }
+
     private Map<String, String> retrievePackageHelpTexts(CkanPackage ckanPackage,
             String preferredLanguage) {
+        var schemingType = schemingType(ckanPackage);
         try {
-            return mapToDatasetProperties(
-                    Optional.ofNullable(ckanQueryApi.gdiDatasetHelpTextsShow(
-                            preferredLanguage,
-                            schemingType(ckanPackage),
-                            keysAsJson(SCHEMING_FIELD_TO_DATASET_PROPERTY)
-                    ))
-                            .map(CkanFilterHelpTextsResponse::getResult)
-                            .orElseGet(Map::of),
-                    SCHEMING_FIELD_TO_DATASET_PROPERTY
-            );
+            return packageHelpTexts.get(new HelpTextsKey(preferredLanguage, schemingType),
+                    () -> fetchHelpTexts(preferredLanguage, schemingType,
+                            SCHEMING_FIELD_TO_DATASET_PROPERTY));
         } catch (RuntimeException exception) {
             log.log(Level.WARNING, "Could not retrieve CKAN dataset help texts", exception);
             return Map.of();
         }
     }
 
-    private Map<String, String> retrieveJoinedSeriesHelpTexts(CkanPackage ckanPackage,
-            String preferredLanguage) {
-        if (ckanPackage.getInSeries() == null || ckanPackage.getInSeries().isEmpty()) {
-            return Map.of();
-        }
-
+    private Map<String, String> retrieveJoinedSeriesHelpTexts(String preferredLanguage) {
         try {
-            return mapToDatasetProperties(
-                    Optional.ofNullable(ckanQueryApi.gdiDatasetHelpTextsShow(
-                            preferredLanguage,
-                            DATASET_SERIES_TYPE,
-                            keysAsJson(SERIES_FIELD_TO_IN_SERIES_PROPERTY)
-                    ))
-                            .map(CkanFilterHelpTextsResponse::getResult)
-                            .orElseGet(Map::of),
-                    SERIES_FIELD_TO_IN_SERIES_PROPERTY
-            );
+            return seriesHelpTexts.get(new HelpTextsKey(preferredLanguage, DATASET_SERIES_TYPE),
+                    () -> fetchHelpTexts(preferredLanguage, DATASET_SERIES_TYPE,
+                            SERIES_FIELD_TO_IN_SERIES_PROPERTY));
         } catch (RuntimeException exception) {
             log.log(Level.WARNING, "Could not retrieve CKAN dataset series help texts", exception);
             return Map.of();
         }
     }
 
+    private Map<String, String> fetchHelpTexts(String preferredLanguage, String schemingType,
+            Map<String, List<String>> fieldMappings) {
+        return Collections.unmodifiableMap(mapToDatasetProperties(
+                Optional.ofNullable(ckanQueryApi.gdiDatasetHelpTextsShow(
+                        preferredLanguage,
+                        schemingType,
+                        keysAsJson(fieldMappings)
+                ))
+                        .map(CkanFilterHelpTextsResponse::getResult)
+                        .orElseGet(Map::of),
+                fieldMappings
+        ));
+    }
+
     private Map<String, String> mapToDatasetProperties(Map<String, String> helpTexts,
             Map<String, List<String>> fieldMappings) {
         var mappedHelpTexts = new LinkedHashMap<String, String>();
@@ -298,4 +331,7 @@ public class DatasetHelpTextService {
     private static List<String> resourceAccessServiceProperties(String propertyName) {
         return List.of("distributions.accessService." + propertyName);
     }
+
+    private record HelpTextsKey(String preferredLanguage, String schemingType) {
+    }
 }
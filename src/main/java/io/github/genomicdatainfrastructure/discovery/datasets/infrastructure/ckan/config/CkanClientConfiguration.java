@@ -0,0 +1,251 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config;
+
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.IdRestrictionStrategy;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigMapping(prefix = "ckan")
+public interface CkanClientConfiguration {
+
+    IdsCollector idsCollector();
+
+    IdRestriction idRestriction();
+
+    FacetCatalogue facetCatalogue();
+
+    Prewarm prewarm();
+
+    Series series();
+
+    HelpTexts helpTexts();
+
+    SearchResults searchResults();
+
+    LocalIndex localIndex();
+
+    interface IdsCollector {
+
+        /**
+         * Maximum number of CKAN result pages fetched concurrently once the first page has
+         * revealed the total count; 1 walks the pages one after another
+         */
+        @WithDefault("4")
+        int parallelism();
+    }
+
+    interface IdRestriction {
+
+        /**
+         * How identifier sets are expressed as a Solr filter; {@code TERMS} requires CKAN to
+         * allow the terms query parser
+         */
+        @WithDefault("BOOLEAN")
+        IdRestrictionStrategy strategy();
+
+        /**
+         * Identifier sets up to this size are sent to CKAN as a single filter; larger sets are
+         * ordered once, chunk by chunk, and then paged locally
+         */
+        @WithDefault("500")
+        int localPagingThreshold();
+
+        /**
+         * Maximum number of identifiers per CKAN request while ordering a large identifier set;
+         * capped at CKAN's maximum page size
+         */
+        @WithDefault("500")
+        int chunkSize();
+
+        /**
+         * Maximum number of chunks requested concurrently while ordering a large identifier set
+         */
+        @WithDefault("4")
+        int parallelism();
+
+        /**
+         * How long an ordered identifier list, and its facets, is reused for further pages of
+         * the same search
+         */
+        @WithDefault("PT2M")
+        Duration orderedIdsTtl();
+
+        /**
+         * Maximum number of ordered identifier lists kept; each may hold the ids of the whole
+         * catalogue, so this stays small
+         */
+        @WithDefault("50")
+        int orderedIdsMaxEntries();
+    }
+
+    interface FacetCatalogue {
+
+        /**
+         * How long facets and filter values fetched from CKAN are served before being refreshed
+         * in the background
+         */
+        @WithDefault("PT5M")
+        Duration ttl();
+
+        /**
+         * How long stale facets may still be served while a refresh is pending or failing; older
+         * entries are reloaded before answering
+         */
+        @WithDefault("PT1H")
+        Duration maxStale();
+
+        /**
+         * Maximum number of cached (filter, language) combinations
+         */
+        @WithDefault("1000")
+        int maxEntries();
+    }
+
+    interface Prewarm {
+
+        /**
+         * Whether connections to CKAN are opened at startup instead of on the first user request
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Number of concurrent lightweight requests, and so pooled connections, opened at startup
+         */
+        @WithDefault("2")
+        int connections();
+    }
+
+    interface Series {
+
+        /**
+         * Maximum number of related series resolved concurrently for a single dataset
+         */
+        @WithDefault("4")
+        int parallelism();
+
+        /**
+         * How long a resolved series summary is served before being refreshed in the background
+         */
+        @WithDefault("PT10M")
+        Duration ttl();
+
+        /**
+         * How long a stale series summary may still be served while its refresh is pending or
+         * failing
+         */
+        @WithDefault("PT1H")
+        Duration maxStale();
+
+        /**
+         * Maximum number of cached (series, language) combinations
+         */
+        @WithDefault("5000")
+        int maxEntries();
+    }
+
+    interface HelpTexts {
+
+        /**
+         * How long CKAN dataset and filter help texts are served before being refreshed in the
+         * background
+         */
+        @WithDefault("PT30M")
+        Duration ttl();
+
+        /**
+         * How long stale help texts may still be served while their refresh is pending or failing
+         */
+        @WithDefault("PT6H")
+        Duration maxStale();
+
+        /**
+         * Maximum number of cached (language, scheming type) and (language, filter keys)
+         * combinations, each
+         */
+        @WithDefault("200")
+        int maxEntries();
+
+        /**
+         * How long searches wait for filter help texts that aren't cached yet; beyond that they
+         * are answered without help texts, while the pending load still fills the cache
+         */
+        @WithDefault("PT0.5S")
+        Duration maxWait();
+    }
+
+    interface SearchResults {
+
+        /**
+         * How long the results of a CKAN-only search are reused for the same canonical query and
+         * language; expired results are fetched again before answering
+         */
+        @WithDefault("PT30S")
+        Duration ttl();
+
+        /**
+         * Maximum number of cached CKAN-only searches; 0 disables the cache
+         */
+        @WithDefault("500")
+        int maxEntries();
+    }
+
+    interface LocalIndex {
+
+        /**
+         * Whether the catalogue is mirrored in memory to answer searches and filter values
+         * without asking CKAN; off by default
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Languages the catalogue is mirrored in; requests in any other language go to CKAN
+         */
+        @WithDefault("en")
+        List<String> languages();
+
+        /**
+         * How often datasets modified since the last refresh are fetched from CKAN
+         */
+        @WithDefault("PT1M")
+        Duration refreshInterval();
+
+        /**
+         * How often the whole catalogue is mirrored again, which also drops deleted datasets
+         */
+        @WithDefault("PT1H")
+        Duration fullRebuildInterval();
+
+        /**
+         * Number of full datasets requested per CKAN page while mirroring; capped at CKAN's
+         * maximum page size
+         */
+        @WithDefault("500")
+        int pageSize();
+
+        /**
+         * Solr fields searches may be sorted on locally; other sorts go to CKAN. They must be
+         * stored in Solr, as fields that don't come back through {@code fl} (e.g.
+         * {@code title_string}) are left to CKAN too
+         */
+        @WithDefault("name,metadata_created,metadata_modified")
+        List<String> sortFields();
+
+        /**
+         * Whether free text queries sorted on a field are answered locally; off by default, so
+         * text queries go to CKAN. This is an approximation, not CKAN's search: every lowercase
+         * word of the query must appear in the title or notes, while CKAN searches its stemmed
+         * {@code text} field, which also covers tags, extras and resource names. Enabled, a
+         * query such as "cancers" or a tag name can match fewer datasets than CKAN would return.
+         */
+        @WithDefault("false")
+        boolean textSearch();
+    }
+}
@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config;
+
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.java.Log;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.stream.IntStream;
+
+/**
+ * Opens pooled connections to CKAN right after startup, so the first user requests don't pay for
+ * the TCP and TLS handshakes. Runs in the background and never delays or fails startup.
+ */
+@Log
+@ApplicationScoped
+public class CkanConnectionPrewarmer {
+
+    private final CkanQueryApi ckanQueryApi;
+    private final ExecutorService executor;
+    private final CkanClientConfiguration.Prewarm prewarm;
+
+    @Inject
+    public CkanConnectionPrewarmer(
+            @RestClient CkanQueryApi ckanQueryApi,
+            @VirtualThreads ExecutorService executor,
+            CkanClientConfiguration ckanClientConfiguration
+    ) {
+        this.ckanQueryApi = ckanQueryApi;
+        this.executor = executor;
+        this.prewarm = ckanClientConfiguration.prewarm();
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!prewarm.enabled()) {
+            return;
+        }
+        IntStream.range(0, prewarm.connections())
+                .forEach(ignored -> executor.execute(this::openConnection));
+    }
+
+    private void openConnection() {
+        var request = PackageSearchRequest.builder()
+                .rows(0)
+                .start(0)
+                .build();
+        try {
+            ckanQueryApi.packageSearch(null, request);
+        } catch (RuntimeException exception) {
+            log.log(Level.INFO, "Could not prewarm CKAN connection: {0}",
+                    exception.getMessage());
+        }
+    }
+}
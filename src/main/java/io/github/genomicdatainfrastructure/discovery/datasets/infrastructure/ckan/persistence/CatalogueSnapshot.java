@@ -0,0 +1,563 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.QueryOperator;
+import io.github.genomicdatainfrastructure.discovery.model.SearchedDataset;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanFacet;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanStats;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanStatsField;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanValueLabel;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_FILTER_SOURCE;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_IDENTIFIER_FIELD;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_PAGINATION_MAX_SIZE;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Immutable in-memory index of the mirrored CKAN catalogue. Every dataset gets a document number,
+ * and each facet field value (and, with text search, each title and notes token) maps to the set
+ * of documents holding it, so a filter-only search takes a few bitset operations and its facet
+ * counts are intersections with those sets. Facet titles, value labels and item order come from
+ * CKAN's own catalogue-wide facets in each language.
+ * <p>
+ * A snapshot whose catalogue-wide counts don't match CKAN's, e.g. because a facet field isn't
+ * stored in Solr and so never came back through {@code fl}, reports an {@link #inconsistency()}
+ * and serves nothing. Searches it can't answer exactly (ranges, relevance, unknown fields, sort
+ * fields Solr indexes but doesn't store and so never returned) are left to CKAN as well. Text
+ * search is the one exception: when enabled, it only matches whole title and notes words, an
+ * approximation of CKAN's stemmed full-text search.
+ */
+final class CatalogueSnapshot {
+
+    static final String MODIFIED_FIELD = "metadata_modified";
+    private static final String TITLE_FIELD = "title";
+    private static final String NOTES_FIELD = "notes";
+    private static final String MATCH_ALL = "*:*";
+    private static final int DEFAULT_ROWS = 10;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern RANGE_VALUE = Pattern.compile("\\[(\\S+) TO (\\S+)]");
+    // Solr's facet.sort=count: most frequent first, ties in index (value) order
+    static final Comparator<CkanValueLabel> FACET_ORDER = Comparator
+            .comparing(CkanValueLabel::getCount,
+                    Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+            .thenComparing(CkanValueLabel::getName,
+                    Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final List<IndexedDataset> datasets;
+    private final Schema schema;
+    private final Map<String, PackagesSearchResult> templates;
+    private final Instant rebuiltAt;
+    private final Map<String, Integer> documents = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> documentsByValue = new HashMap<>();
+    private final Map<String, BitSet> documentsByToken = new HashMap<>();
+    private final Map<String, StatsValues> statsValues = new LinkedHashMap<>();
+    private final Map<String, List<FacetLayout>> layouts = new HashMap<>();
+    private final Map<String, String> languages = new HashMap<>();
+    private final Set<String> sortableFields;
+    private final String lastModified;
+    private final String inconsistency;
+
+    private CatalogueSnapshot(List<IndexedDataset> datasets, Schema schema,
+            Map<String, PackagesSearchResult> templates, Instant rebuiltAt) {
+        this.datasets = List.copyOf(datasets);
+        this.schema = schema;
+        this.templates = Collections.unmodifiableMap(new LinkedHashMap<>(templates));
+        this.rebuiltAt = rebuiltAt;
+
+        schema.facetFields().forEach(field -> documentsByValue.put(field, new TreeMap<>()));
+        schema.statsFields().forEach(field -> statsValues.put(field,
+                new StatsValues(new String[this.datasets.size()],
+                        new String[this.datasets.size()])));
+
+        String latest = null;
+        for (var document = 0; document < this.datasets.size(); document++) {
+            var fields = this.datasets.get(document).fields();
+            documents.put(this.datasets.get(document).identifier(), document);
+            index(document, fields);
+
+            var modified = text(fields, MODIFIED_FIELD);
+            if (modified != null && (latest == null || modified.compareTo(latest) > 0)) {
+                latest = modified;
+            }
+        }
+        this.lastModified = latest;
+        this.sortableFields = sortableFields();
+
+        this.templates.forEach((language, template) -> {
+            layouts.put(language, layout(template));
+            languages.putIfAbsent(normalize(language), language);
+        });
+        this.inconsistency = checkConsistency();
+    }
+
+    static CatalogueSnapshot of(List<IndexedDataset> datasets, Schema schema,
+            Map<String, PackagesSearchResult> templates, Instant rebuiltAt) {
+        return new CatalogueSnapshot(datasets, schema, templates, rebuiltAt);
+    }
+
+    List<IndexedDataset> datasets() {
+        return datasets;
+    }
+
+    Map<String, PackagesSearchResult> templates() {
+        return templates;
+    }
+
+    Instant rebuiltAt() {
+        return rebuiltAt;
+    }
+
+    /**
+     * The latest {@code metadata_modified} of the mirrored datasets, from which the next refresh
+     * picks up changes
+     */
+    String lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Why the snapshot disagrees with CKAN, or {@code null} when it doesn't
+     */
+    String inconsistency() {
+        return inconsistency;
+    }
+
+    Optional<PackagesSearchResult> catalogueFacets(String preferredLanguage) {
+        return mirroredLanguage(preferredLanguage).map(templates::get);
+    }
+
+    Optional<IndexedPage> search(DatasetSearchQuery query, String preferredLanguage) {
+        var language = mirroredLanguage(preferredLanguage);
+        if (language.isEmpty()) {
+            return Optional.empty();
+        }
+        return matches(query).flatMap(matches -> page(matches, query.getSort(), query.getRows(),
+                query.getStart(), hasText(query), language.get()));
+    }
+
+    Optional<IndexedPage> search(Collection<String> datasetIds, String sort, Integer rows,
+            Integer start, String preferredLanguage) {
+        var language = mirroredLanguage(preferredLanguage);
+        if (language.isEmpty()) {
+            return Optional.empty();
+        }
+        var matches = new BitSet(datasets.size());
+        datasetIds.forEach(id -> {
+            var document = documents.get(id);
+            if (document != null) {
+                matches.set(document);
+            }
+        });
+        return page(matches, sort, rows, start, false, language.get());
+    }
+
+    /**
+     * The mirrored language a request is answered in. Requests carry a lowercased language tag
+     * (e.g. {@code en-gb}) or the configured default as is (e.g. {@code en-GB}), so tags are
+     * compared case-insensitively, falling back to their primary language ({@code en}).
+     */
+    private Optional<String> mirroredLanguage(String preferredLanguage) {
+        if (inconsistency != null || preferredLanguage == null) {
+            return Optional.empty();
+        }
+        var tag = normalize(preferredLanguage);
+        var separator = tag.indexOf('-');
+        return ofNullable(languages.get(tag))
+                .or(() -> separator > 0
+                        ? ofNullable(languages.get(tag.substring(0, separator)))
+                        : Optional.empty());
+    }
+
+    private void index(int document, JsonNode fields) {
+        documentsByValue.forEach((field, documentsByFieldValue) -> values(fields.get(field))
+                .forEach(value -> documentsByFieldValue
+                        .computeIfAbsent(value, ignored -> new BitSet())
+                        .set(document)));
+
+        if (schema.textSearch()) {
+            Stream.of(text(fields, TITLE_FIELD), text(fields, NOTES_FIELD))
+                    .flatMap(CatalogueSnapshot::tokens)
+                    .forEach(token -> documentsByToken
+                            .computeIfAbsent(token, ignored -> new BitSet())
+                            .set(document));
+        }
+
+        statsValues.forEach((field, values) -> {
+            for (var value : values(fields.get(field))) {
+                var range = RANGE_VALUE.matcher(value);
+                var min = range.matches() ? range.group(1) : value;
+                var max = range.matches() ? range.group(2) : value;
+                values.min()[document] = CkanOrderedIdsLoader.pick(values.min()[document],
+                        min, -1);
+                values.max()[document] = CkanOrderedIdsLoader.pick(values.max()[document],
+                        max, 1);
+            }
+        });
+    }
+
+    private Optional<BitSet> matches(DatasetSearchQuery query) {
+        var matches = new BitSet(datasets.size());
+        matches.set(0, datasets.size());
+
+        if (hasText(query)) {
+            if (!schema.textSearch()) {
+                return Optional.empty();
+            }
+            tokens(query.getQuery()).forEach(token -> matches.and(
+                    documentsByToken.getOrDefault(token, new BitSet())));
+        }
+
+        var facetsByKey = ofNullable(query.getFacets())
+                .orElseGet(List::of)
+                .stream()
+                .filter(Objects::nonNull)
+                .filter(facet -> CKAN_FILTER_SOURCE.equals(facet.getSource()))
+                .filter(facet -> facet.getKey() != null && !facet.getKey().isBlank())
+                .collect(Collectors.groupingBy(DatasetSearchQueryFacet::getKey,
+                        LinkedHashMap::new, Collectors.toList()));
+        var allValues = QueryOperator.AND.equals(query.getOperator());
+
+        for (var entry : facetsByKey.entrySet()) {
+            // Ranges, including temporal coverage, are left to CKAN
+            if (entry.getValue().stream().anyMatch(facet -> FilterType.DATETIME.equals(
+                    facet.getType()) || FilterType.NUMBER.equals(facet.getType()))) {
+                return Optional.empty();
+            }
+
+            var values = entry.getValue().stream()
+                    .map(DatasetSearchQueryFacet::getValue)
+                    .filter(value -> value != null && !value.isBlank())
+                    .toList();
+            if (values.isEmpty()) {
+                continue;
+            }
+
+            var documentsByFieldValue = documentsByValue.get(entry.getKey());
+            if (documentsByFieldValue == null) {
+                return Optional.empty();
+            }
+
+            BitSet keyMatches = null;
+            for (var value : values) {
+                var valueMatches = documentsByFieldValue.getOrDefault(value, new BitSet());
+                if (keyMatches == null) {
+                    keyMatches = (BitSet) valueMatches.clone();
+                } else if (allValues) {
+                    keyMatches.and(valueMatches);
+                } else {
+                    keyMatches.or(valueMatches);
+                }
+            }
+            matches.and(keyMatches);
+        }
+
+        return Optional.of(matches);
+    }
+
+    private Optional<IndexedPage> page(BitSet matches, String sort, Integer rows, Integer start,
+            boolean textQuery, String preferredLanguage) {
+        var effectiveSort = sort == null || sort.isBlank()
+                ? CkanOrderedIdsLoader.DEFAULT_SORT
+                : sort;
+        if (textQuery && SortClause.ranksByScore(effectiveSort)) {
+            return Optional.empty();
+        }
+        var clauses = SortClause.parse(effectiveSort);
+        if (!clauses.stream().map(SortClause::field).allMatch(sortableFields::contains)) {
+            return Optional.empty();
+        }
+
+        // Sorting is stable, so ties keep the mirror order, most recently modified first
+        var ordered = matches.stream()
+                .boxed()
+                .sorted(Comparator.comparing(document -> datasets.get(document).fields(),
+                        SortClause.comparator(clauses)))
+                .toList();
+        var from = Math.clamp(ofNullable(start).orElse(0), 0, ordered.size());
+        var size = Math.clamp(ofNullable(rows).orElse(DEFAULT_ROWS), 0,
+                CKAN_PAGINATION_MAX_SIZE);
+        var to = Math.clamp((long) from + size, from, ordered.size());
+
+        var results = ordered.subList(from, to)
+                .stream()
+                .map(document -> datasets.get(document).byLanguage().get(preferredLanguage))
+                .toList();
+        return Optional.of(new IndexedPage(results, facets(matches, preferredLanguage)));
+    }
+
+    private PackagesSearchResult facets(BitSet matches, String preferredLanguage) {
+        var searchFacets = new LinkedHashMap<String, CkanFacet>();
+        for (var layout : layouts.get(preferredLanguage)) {
+            var items = new ArrayList<CkanValueLabel>();
+            for (var value : layout.values()) {
+                var count = intersectionSize(matches, value.documents());
+                if (count > 0) {
+                    items.add(CkanValueLabel.builder()
+                            .name(value.name())
+                            .displayName(value.displayName())
+                            .count(count)
+                            .build());
+                }
+            }
+            items.sort(FACET_ORDER);
+            searchFacets.put(layout.field(), CkanFacet.builder()
+                    .title(layout.title())
+                    .items(items)
+                    .build());
+        }
+
+        var template = templates.get(preferredLanguage);
+        return PackagesSearchResult.builder()
+                .count(matches.cardinality())
+                .results(List.of())
+                .searchFacets(searchFacets)
+                .stats(template.getStats() != null ? stats(matches) : null)
+                .build();
+    }
+
+    private CkanStats stats(BitSet matches) {
+        var statsFields = new LinkedHashMap<String, CkanStatsField>();
+        statsValues.forEach((field, values) -> {
+            String min = null;
+            String max = null;
+            for (var document = matches.nextSetBit(0); document >= 0;
+                    document = matches.nextSetBit(document + 1)) {
+                min = CkanOrderedIdsLoader.pick(min, values.min()[document], -1);
+                max = CkanOrderedIdsLoader.pick(max, values.max()[document], 1);
+            }
+            statsFields.put(field, CkanStatsField.builder().min(min).max(max).build());
+        });
+        return CkanStats.builder().statsFields(statsFields).build();
+    }
+
+    /**
+     * The values of each facet with their labels in that language, including values CKAN didn't
+     * report; items are ordered by their count for each search
+     */
+    private List<FacetLayout> layout(PackagesSearchResult template) {
+        return ofNullable(template.getSearchFacets())
+                .orElseGet(Map::of)
+                .entrySet()
+                .stream()
+                .map(entry -> {
+                    var documentsByFieldValue = documentsByValue.getOrDefault(entry.getKey(),
+                            Map.of());
+                    var displayNames = new LinkedHashMap<String, String>();
+                    ofNullable(entry.getValue().getItems())
+                            .orElseGet(List::of)
+                            .stream()
+                            .filter(item -> item.getName() != null)
+                            .forEach(item -> displayNames.putIfAbsent(item.getName(),
+                                    ofNullable(item.getDisplayName()).orElse(item.getName())));
+                    documentsByFieldValue.keySet()
+                            .forEach(value -> displayNames.putIfAbsent(value, value));
+
+                    var values = displayNames.entrySet()
+                            .stream()
+                            .filter(value -> documentsByFieldValue.containsKey(value.getKey()))
+                            .map(value -> new FacetValue(value.getKey(), value.getValue(),
+                                    documentsByFieldValue.get(value.getKey())))
+                            .toList();
+                    return new FacetLayout(entry.getKey(), entry.getValue().getTitle(), values);
+                })
+                .toList();
+    }
+
+    /**
+     * The configured sort fields that came back through {@code fl}. A field Solr indexes but
+     * doesn't store (e.g. {@code title_string}) is never returned, and sorting on it locally
+     * would silently keep the mirror order.
+     */
+    private Set<String> sortableFields() {
+        return schema.sortFields()
+                .stream()
+                .filter(field -> datasets.isEmpty() || MODIFIED_FIELD.equals(field)
+                        || datasets.stream().anyMatch(dataset -> !values(dataset.fields().get(
+                                field)).isEmpty()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private String checkConsistency() {
+        for (var entry : templates.entrySet()) {
+            var language = entry.getKey();
+            var count = entry.getValue().getCount();
+            if (!Objects.equals(count, datasets.size())) {
+                return "CKAN counts %s datasets in %s, the index %d".formatted(count, language,
+                        datasets.size());
+            }
+            if (datasets.stream().anyMatch(dataset -> !dataset.byLanguage().containsKey(
+                    language))) {
+                return "datasets are missing in " + language;
+            }
+        }
+
+        var catalogue = templates.values().stream().findFirst();
+        if (catalogue.isEmpty()) {
+            return null;
+        }
+        var all = new BitSet(datasets.size());
+        all.set(0, datasets.size());
+        var expected = catalogue.get();
+        var actual = facets(all, templates.keySet().iterator().next());
+
+        for (var entry : ofNullable(expected.getSearchFacets()).orElseGet(Map::of).entrySet()) {
+            if (!counts(entry.getValue()).equals(counts(actual.getSearchFacets().get(
+                    entry.getKey())))) {
+                return "facet %s counts differ".formatted(entry.getKey());
+            }
+        }
+
+        var expectedStats = ofNullable(expected.getStats())
+                .map(CkanStats::getStatsFields)
+                .orElseGet(Map::of);
+        var actualStats = ofNullable(actual.getStats())
+                .map(CkanStats::getStatsFields)
+                .orElseGet(Map::of);
+        for (var entry : expectedStats.entrySet()) {
+            var local = actualStats.get(entry.getKey());
+            if (entry.getValue() == null || local == null
+                    || !sameStatsValue(entry.getValue().getMin(), local.getMin())
+                    || !sameStatsValue(entry.getValue().getMax(), local.getMax())) {
+                return "stats of %s differ".formatted(entry.getKey());
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Integer> counts(CkanFacet facet) {
+        return ofNullable(facet)
+                .map(CkanFacet::getItems)
+                .orElseGet(List::of)
+                .stream()
+                .filter(item -> item.getName() != null && item.getCount() != null
+                        && item.getCount() > 0)
+                .collect(Collectors.toMap(CkanValueLabel::getName, CkanValueLabel::getCount,
+                        Integer::sum));
+    }
+
+    /**
+     * Solr reports numeric stats as doubles, e.g. {@code 3.0} for an integer field
+     */
+    private static boolean sameStatsValue(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return expected == null && actual == null;
+        }
+        try {
+            return new BigDecimal(expected).compareTo(new BigDecimal(actual)) == 0;
+        } catch (NumberFormatException ignored) {
+            return expected.equals(actual);
+        }
+    }
+
+    private static int intersectionSize(BitSet left, BitSet right) {
+        var both = (BitSet) left.clone();
+        both.and(right);
+        return both.cardinality();
+    }
+
+    private static String normalize(String language) {
+        return language.trim().replace('_', '-').toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasText(DatasetSearchQuery query) {
+        var text = query.getQuery();
+        return text != null && !text.isBlank() && !MATCH_ALL.equals(text.trim());
+    }
+
+    private static Stream<String> tokens(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        return TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty());
+    }
+
+    private static String text(JsonNode fields, String field) {
+        var value = fields.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> values(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return List.of();
+        }
+        if (!value.isArray()) {
+            return List.of(value.asText());
+        }
+        var values = new ArrayList<String>(value.size());
+        value.forEach(element -> {
+            if (!element.isNull()) {
+                values.add(element.asText());
+            }
+        });
+        return values;
+    }
+
+    /**
+     * What is mirrored of each dataset: the Solr fields fetched through {@code fl}, and the
+     * search result as mapped from CKAN in every mirrored language
+     */
+    record IndexedDataset(String identifier, JsonNode fields,
+            Map<String, SearchedDataset> byLanguage) {
+    }
+
+    /**
+     * The Solr fields the index is built from
+     */
+    record Schema(List<String> facetFields, List<String> statsFields, Set<String> sortFields,
+            boolean textSearch) {
+
+        String fieldList() {
+            var fields = Stream.of(Stream.of(CKAN_IDENTIFIER_FIELD, MODIFIED_FIELD),
+                    textSearch ? Stream.of(TITLE_FIELD, NOTES_FIELD) : Stream.<String>empty(),
+                    facetFields.stream(), statsFields.stream(), sortFields.stream());
+            return fields.flatMap(field -> field)
+                    .distinct()
+                    .collect(Collectors.joining(","));
+        }
+    }
+
+    /**
+     * A page of results with the facets, stats and count of the whole search, like
+     * {@link CkanOrderedIdsLoader.OrderedIds}
+     */
+    record IndexedPage(List<SearchedDataset> results, PackagesSearchResult facets) {
+    }
+
+    private record StatsValues(String[] min, String[] max) {
+    }
+
+    private record FacetLayout(String field, String title, List<FacetValue> values) {
+    }
+
+    private record FacetValue(String name, String displayName, BitSet documents) {
+    }
+}
@@ -0,0 +1,392 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.mapper.CkanDatasetsMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CatalogueSnapshot.IndexedDataset;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CatalogueSnapshot.IndexedPage;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CatalogueSnapshot.Schema;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.CkanSearchFacetsMapper;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.SearchedDataset;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.java.Log;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_IDENTIFIER_FIELD;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_PAGINATION_MAX_SIZE;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CatalogueSnapshot.MODIFIED_FIELD;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Optional local mirror of the public CKAN catalogue, see {@code ckan.local-index.*}. Once
+ * enabled, the catalogue is mirrored in the background right after startup: the indexed Solr
+ * fields of every dataset ({@code fl}), its search result in each configured language, and
+ * CKAN's catalogue-wide facets. Every {@code refresh-interval}, datasets modified since the
+ * latest {@code metadata_modified} are fetched again, and every {@code full-rebuild-interval} the
+ * whole catalogue is, which also drops deleted datasets.
+ * <p>
+ * Searches and filter values are answered from the current {@link CatalogueSnapshot} when it
+ * agrees with CKAN and can answer them exactly; otherwise, as long as nothing is mirrored, and
+ * when disabled, callers get nothing and ask CKAN as before. Dataset pages and exports always
+ * come from CKAN.
+ */
+@Log
+@ApplicationScoped
+public class CkanCatalogueIndex {
+
+    private static final String MIRROR_SORT = "metadata_modified desc";
+    private static final String MODIFIED_SINCE = "%s:[\"%s\" TO *]";
+    private static final int MAX_BACKOFF_FACTOR = 8;
+
+    private final CkanQueryApi ckanQueryApi;
+    private final CkanIdentifiersApi ckanIdentifiersApi;
+    private final CkanDatasetsMapper ckanDatasetsMapper;
+    private final CkanSearchFacetsMapper ckanSearchFacetsMapper;
+    private final ObjectMapper objectMapper;
+    private final IdRestrictionStrategy idRestrictionStrategy;
+    private final CkanClientConfiguration.LocalIndex config;
+    private final Schema schema;
+    private final int pageSize;
+    private final Clock clock;
+    private final AtomicReference<CatalogueSnapshot> snapshot = new AtomicReference<>();
+    private ScheduledExecutorService scheduler;
+    // only touched by refresh(), which runs on the single index thread
+    private int inconsistentRebuilds;
+
+    @Inject
+    public CkanCatalogueIndex(
+            @RestClient CkanQueryApi ckanQueryApi,
+            @RestClient CkanIdentifiersApi ckanIdentifiersApi,
+            CkanDatasetsMapper ckanDatasetsMapper,
+            CkanSearchFacetsMapper ckanSearchFacetsMapper,
+            ObjectMapper objectMapper,
+            CkanClientConfiguration ckanClientConfiguration,
+            DatasetsConfig datasetsConfig
+    ) {
+        this(ckanQueryApi, ckanIdentifiersApi, ckanDatasetsMapper, ckanSearchFacetsMapper,
+                objectMapper, ckanClientConfiguration, datasetsConfig, Clock.systemUTC());
+    }
+
+    CkanCatalogueIndex(CkanQueryApi ckanQueryApi, CkanIdentifiersApi ckanIdentifiersApi,
+            CkanDatasetsMapper ckanDatasetsMapper, CkanSearchFacetsMapper ckanSearchFacetsMapper,
+            ObjectMapper objectMapper, CkanClientConfiguration ckanClientConfiguration,
+            DatasetsConfig datasetsConfig, Clock clock) {
+        this.ckanQueryApi = ckanQueryApi;
+        this.ckanIdentifiersApi = ckanIdentifiersApi;
+        this.ckanDatasetsMapper = ckanDatasetsMapper;
+        this.ckanSearchFacetsMapper = ckanSearchFacetsMapper;
+        this.objectMapper = objectMapper;
+        this.idRestrictionStrategy = ckanClientConfiguration.idRestriction().strategy();
+        this.config = ckanClientConfiguration.localIndex();
+        this.schema = schema(config, datasetsConfig);
+        this.pageSize = Math.clamp(config.pageSize(), 1, CKAN_PAGINATION_MAX_SIZE);
+        this.clock = clock;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!config.enabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("ckan-catalogue-index").factory());
+        scheduler.scheduleWithFixedDelay(this::refresh, 0,
+                config.refreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    Optional<IndexedPage> search(DatasetSearchQuery query, String preferredLanguage) {
+        return current().flatMap(index -> index.search(query, preferredLanguage));
+    }
+
+    Optional<IndexedPage> search(Collection<String> datasetIds, String sort, Integer rows,
+            Integer start, String preferredLanguage) {
+        return current().flatMap(index -> index.search(datasetIds, sort, rows, start,
+                preferredLanguage));
+    }
+
+    /**
+     * CKAN's catalogue-wide facets in the given language, as of the latest refresh
+     */
+    public Optional<PackagesSearchResult> catalogueFacets(String preferredLanguage) {
+        return current().flatMap(index -> index.catalogueFacets(preferredLanguage));
+    }
+
+    /**
+     * Rebuilds the index when none is mirrored yet or the current one is due for a full rebuild,
+     * and otherwise merges in the datasets modified since. Failures keep the current snapshot.
+     * <p>
+     * A snapshot that disagrees with CKAN often does so for good, e.g. because a facet field isn't
+     * stored in Solr, so it is only rebuilt after {@code full-rebuild-interval}, doubled after
+     * each rebuild that still disagrees, up to {@value #MAX_BACKOFF_FACTOR} times the interval.
+     */
+    void refresh() {
+        try {
+            var current = snapshot.get();
+            CatalogueSnapshot next;
+            if (current == null) {
+                next = rebuild();
+            } else if (current.inconsistency() != null) {
+                if (!isDue(current, backoffFactor())) {
+                    return;
+                }
+                next = rebuild();
+            } else {
+                next = isDue(current, 1) ? rebuild() : update(current);
+            }
+            if (next == current) {
+                return;
+            }
+
+            snapshot.set(next);
+            inconsistentRebuilds = next.inconsistency() == null ? 0 : inconsistentRebuilds + 1;
+            if (next.inconsistency() != null) {
+                log.warning(() -> ("Local CKAN catalogue index disagrees with CKAN (%s), "
+                        + "searches keep going to CKAN").formatted(next.inconsistency()));
+            } else {
+                log.info(() -> "Local CKAN catalogue index holds %d datasets"
+                        .formatted(next.datasets().size()));
+            }
+        } catch (RuntimeException exception) {
+            log.log(Level.WARNING, exception,
+                    () -> "Could not refresh the local CKAN catalogue index");
+        }
+    }
+
+    private boolean isDue(CatalogueSnapshot current, int factor) {
+        return !clock.instant().isBefore(current.rebuiltAt().plus(
+                config.fullRebuildInterval().multipliedBy(factor)));
+    }
+
+    private int backoffFactor() {
+        return 1 << Math.clamp(inconsistentRebuilds - 1, 0,
+                Integer.numberOfTrailingZeros(MAX_BACKOFF_FACTOR));
+    }
+
+    private Optional<CatalogueSnapshot> current() {
+        return ofNullable(snapshot.get());
+    }
+
+    private CatalogueSnapshot rebuild() {
+        var templates = fetchTemplates();
+        var fields = fetchFields(null);
+        var byLanguage = fetchSearchedDatasets(List.of(fields.keySet()), true);
+        return CatalogueSnapshot.of(datasets(fields, byLanguage), schema, templates,
+                clock.instant());
+    }
+
+    /**
+     * Merges the datasets modified since the latest refresh into a new snapshot, or keeps the
+     * current one when CKAN reports no change. Deletions only show in CKAN's counts, so a merge
+     * that leaves the index disagreeing with CKAN falls back to a full rebuild, once.
+     */
+    private CatalogueSnapshot update(CatalogueSnapshot current) {
+        var templates = fetchTemplates();
+        var lastModified = current.lastModified();
+        var changed = fetchFields(lastModified == null
+                ? null
+                : MODIFIED_SINCE.formatted(MODIFIED_FIELD, lastModified));
+        if (templates.equals(current.templates()) && unchanged(current, changed)) {
+            return current;
+        }
+
+        var chunks = new ArrayList<List<String>>();
+        var changedIds = List.copyOf(changed.keySet());
+        for (var from = 0; from < changedIds.size(); from += pageSize) {
+            chunks.add(changedIds.subList(from, Math.min(from + pageSize, changedIds.size())));
+        }
+        var byLanguage = fetchSearchedDatasets(chunks, false);
+
+        var fields = new LinkedHashMap<>(changed);
+        var merged = new HashMap<>(byLanguage);
+        current.datasets().forEach(dataset -> {
+            if (fields.putIfAbsent(dataset.identifier(), dataset.fields()) == null) {
+                merged.put(dataset.identifier(), dataset.byLanguage());
+            }
+        });
+
+        var next = CatalogueSnapshot.of(datasets(fields, merged), schema, templates,
+                current.rebuiltAt());
+        return next.inconsistency() == null ? next : rebuild();
+    }
+
+    /**
+     * The latest datasets come back on every refresh, as their {@code metadata_modified} is the
+     * lower bound; they only count as changed when their fields did
+     */
+    private boolean unchanged(CatalogueSnapshot current, Map<String, JsonNode> changed) {
+        var known = new HashMap<String, JsonNode>();
+        current.datasets().forEach(dataset -> known.put(dataset.identifier(), dataset.fields()));
+        return changed.entrySet().stream()
+                .allMatch(entry -> entry.getValue().equals(known.get(entry.getKey())));
+    }
+
+    private Map<String, PackagesSearchResult> fetchTemplates() {
+        var templates = new LinkedHashMap<String, PackagesSearchResult>();
+        for (var language : config.languages()) {
+            var request = ckanSearchFacetsMapper.applyStats(PackageSearchRequest.builder()
+                    .rows(0)
+                    .start(0)
+                    .facetField(ckanSearchFacetsMapper.selectedFacetField())
+                    .facetLimit(-1))
+                    .build();
+            var response = ckanQueryApi.packageSearch(language, request);
+            if (response == null || response.getResult() == null) {
+                throw new IllegalStateException("CKAN returned no facets in " + language);
+            }
+            templates.put(language, response.getResult());
+        }
+        return templates;
+    }
+
+    /**
+     * The indexed Solr fields of every dataset matching {@code fq}, most recently modified first
+     */
+    private Map<String, JsonNode> fetchFields(String fq) {
+        var fields = new LinkedHashMap<String, JsonNode>();
+        var start = 0;
+        while (true) {
+            var request = PackageSearchRequest.builder()
+                    .fq(fq)
+                    .fl(schema.fieldList())
+                    .sort(MIRROR_SORT)
+                    .rows(CKAN_PAGINATION_MAX_SIZE)
+                    .start(start)
+                    .build();
+            var result = readResult(request);
+            var rows = result.path("results");
+            rows.forEach(row -> {
+                var identifier = row.path(CKAN_IDENTIFIER_FIELD);
+                if (identifier.isTextual()) {
+                    fields.putIfAbsent(identifier.asText(), row);
+                }
+            });
+
+            start += rows.size();
+            if (rows.isEmpty() || start >= result.path("count").asInt(start)) {
+                return fields;
+            }
+        }
+    }
+
+    /**
+     * The search results of the given identifier chunks in every language; with {@code all},
+     * the single chunk is the whole catalogue and is paged through instead
+     */
+    private Map<String, Map<String, SearchedDataset>> fetchSearchedDatasets(
+            List<? extends Collection<String>> chunks, boolean all) {
+        var byIdentifier = new HashMap<String, Map<String, SearchedDataset>>();
+        BiConsumer<String, SearchedDataset> add = (language, dataset) -> byIdentifier
+                .computeIfAbsent(dataset.getIdentifier(), ignored -> new HashMap<>())
+                .put(language, dataset);
+
+        for (var language : config.languages()) {
+            for (var chunk : chunks) {
+                var fq = all ? null : idRestrictionStrategy.fq(chunk);
+                var start = 0;
+                while (true) {
+                    var request = PackageSearchRequest.builder()
+                            .fq(fq)
+                            .sort(MIRROR_SORT)
+                            .rows(pageSize)
+                            .start(start)
+                            .build();
+                    var response = ckanQueryApi.packageSearch(language, request);
+                    var result = response == null ? null : response.getResult();
+                    var page = ckanDatasetsMapper.map(result);
+                    page.stream()
+                            .filter(dataset -> dataset.getIdentifier() != null)
+                            .forEach(dataset -> add.accept(language, dataset));
+
+                    var size = result == null || result.getResults() == null
+                            ? 0
+                            : result.getResults().size();
+                    start += size;
+                    if (size == 0 || start >= Objects.requireNonNullElse(result.getCount(),
+                            start)) {
+                        break;
+                    }
+                }
+            }
+        }
+        return byIdentifier;
+    }
+
+    private JsonNode readResult(PackageSearchRequest request) {
+        try (var body = ckanIdentifiersApi.packageSearch(request)) {
+            var response = body == null ? null : objectMapper.readTree(body);
+            return response == null ? objectMapper.missingNode() : response.path("result");
+        } catch (IOException exception) {
+            throw new IllegalStateException("Could not read CKAN dataset fields", exception);
+        }
+    }
+
+    private static List<IndexedDataset> datasets(Map<String, JsonNode> fields,
+            Map<String, Map<String, SearchedDataset>> byLanguage) {
+        return fields.entrySet()
+                .stream()
+                .map(entry -> new IndexedDataset(entry.getKey(), entry.getValue(),
+                        Map.copyOf(byLanguage.getOrDefault(entry.getKey(), Map.of()))))
+                .toList();
+    }
+
+    private static Schema schema(CkanClientConfiguration.LocalIndex config,
+            DatasetsConfig datasetsConfig) {
+        var facetFields = Arrays.stream(datasetsConfig.filters().split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .toList();
+        var statsFields = !datasetsConfig.statsEnabled()
+                ? List.<String>of()
+                : ofNullable(datasetsConfig.filterGroups())
+                        .orElseGet(List::of)
+                        .stream()
+                        .flatMap(group -> group.filters().stream())
+                        .map(filter -> filter.statsField().orElse(null))
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList();
+        var sortFields = new LinkedHashSet<>(config.sortFields());
+        sortFields.add(MODIFIED_FIELD);
+        return new Schema(facetFields, statsFields, sortFields, config.textSearch());
+    }
+}
@@ -0,0 +1,39 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.io.InputStream;
+
+/**
+ * Raw variant of the generated {@code CkanQueryApi#retrieveDatasetInFormat}, sharing its
+ * {@code ckan_yaml} client configuration. The body is handed over undecoded, together with its
+ * headers, so exports can be piped to the caller instead of being buffered as a string. The
+ * caller's {@code Accept-Encoding} is forwarded, and a compressed body is passed on as is. So are
+ * the caller's validators, letting CKAN answer a revalidation with 304.
+ */
+@Path("/dataset")
+@RegisterRestClient(configKey = "ckan_yaml")
+public interface CkanDatasetExportApi {
+
+    @GET
+    @Path("/{id}.{format}")
+    @Produces({"application/ld+json", "application/rdf+xml", "text/turtle"})
+    RestResponse<InputStream> retrieveDatasetInFormat(
+            @PathParam("id") String id,
+            @PathParam("format") String format,
+            @HeaderParam("Authorization") String authorization,
+            @HeaderParam("Accept-Encoding") String acceptEncoding,
+            @HeaderParam("If-None-Match") String ifNoneMatch,
+            @HeaderParam("If-Modified-Since") String ifModifiedSince
+    );
+}
@@ -4,74 +4,216 @@
 
 package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.DatasetIdsCollector;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
-import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
-import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanPackage;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_IDENTIFIER_FIELD;
 import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_PAGINATION_MAX_SIZE;
 
+/**
+ * Collects the identifiers of every CKAN dataset matching a query. Only the {@code identifier}
+ * field is requested ({@code fl}) and it is streamed straight out of the response body; the first
+ * page reveals the total count, after which the remaining pages are fetched concurrently, bounded
+ * by {@code ckan.ids-collector.parallelism}.
+ */
 @ApplicationScoped
 public class CkanDatasetIdsCollector implements DatasetIdsCollector {
 
-    private final CkanQueryApi ckanQueryApi;
+    private final CkanIdentifiersApi ckanIdentifiersApi;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final SearchMetrics searchMetrics;
 
     @Inject
     public CkanDatasetIdsCollector(
-            @RestClient CkanQueryApi ckanQueryApi
+            @RestClient CkanIdentifiersApi ckanIdentifiersApi,
+            ObjectMapper objectMapper,
+            @VirtualThreads ExecutorService executor,
+            CkanClientConfiguration ckanClientConfiguration,
+            SearchMetrics searchMetrics
     ) {
-        this.ckanQueryApi = ckanQueryApi;
+        this.ckanIdentifiersApi = ckanIdentifiersApi;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.parallelism = Math.max(1, ckanClientConfiguration.idsCollector().parallelism());
+        this.searchMetrics = searchMetrics;
     }
 
     @Override
     public Map<String, Integer> collect(DatasetSearchQuery query, String accessToken) {
         var facetsQuery = CkanFacetsQueryBuilder.buildFacetQuery(query);
         var temporalCoverageBounds = CkanFacetsQueryBuilder.extractTemporalCoverageBounds(query);
+        IntFunction<PackageSearchRequest> pageRequest = start -> PackageSearchRequest.builder()
+                .q(query.getQuery())
+                .fq(facetsQuery)
+                .fl(CKAN_IDENTIFIER_FIELD)
+                .rows(CKAN_PAGINATION_MAX_SIZE)
+                .start(start)
+                .extTemporalMin(temporalCoverageBounds.min())
+                .extTemporalMax(temporalCoverageBounds.max())
+                .build();
 
         var datasetIdsByRecordCount = new HashMap<String, Integer>();
-        var start = 0;
-        var totalCount = Integer.MAX_VALUE;
-
-        while (start < totalCount) {
-            var request = PackageSearchRequest.builder()
-                    .q(query.getQuery())
-                    .fq(facetsQuery)
-                    .rows(CKAN_PAGINATION_MAX_SIZE)
-                    .start(start)
-                    .extTemporalMin(temporalCoverageBounds.min())
-                    .extTemporalMax(temporalCoverageBounds.max())
-                    .build();
-
-            var response = ckanQueryApi.packageSearch(
-                    null,
-                    request
-            );
-
-            if (response.getResult() == null || response.getResult().getResults() == null ||
-                    response.getResult().getResults().isEmpty()) {
-                break;
-            }
 
-            response.getResult()
-                    .getResults()
-                    .stream()
-                    .map(CkanPackage::getIdentifier)
-                    .filter(Objects::nonNull)
-                    .forEach(id -> datasetIdsByRecordCount.put(id, null));
+        var firstPage = fetchPage(pageRequest.apply(0));
+        firstPage.identifiers().forEach(id -> datasetIdsByRecordCount.put(id, null));
+
+        // CKAN may cap rows below the requested page size, so the first page sets the stride
+        var pageSize = firstPage.size();
+        if (pageSize == 0) {
+            searchMetrics.recordCkanIdPages(1);
+            return datasetIdsByRecordCount;
+        }
+        var totalCount = Objects.requireNonNullElse(firstPage.count(), pageSize);
 
-            totalCount = Objects.requireNonNullElse(response.getResult().getCount(),
-                    start + response.getResult().getResults().size());
-            start += response.getResult().getResults().size();
+        var limiter = new Semaphore(parallelism);
+        var pages = IntStream.iterate(pageSize, start -> start < totalCount,
+                start -> start + pageSize)
+                .mapToObj(start -> executor.submit(() -> fetchPage(pageRequest.apply(start),
+                        limiter)))
+                .toList();
+        searchMetrics.recordCkanIdPages(1 + pages.size());
+
+        try {
+            for (var page : pages) {
+                resultOf(page).identifiers().forEach(id -> datasetIdsByRecordCount.put(id, null));
+            }
+        } finally {
+            pages.forEach(page -> page.cancel(true));
         }
 
         return datasetIdsByRecordCount;
     }
+
+    private IdentifiersPage fetchPage(PackageSearchRequest request, Semaphore limiter)
+            throws InterruptedException {
+        limiter.acquire();
+        try {
+            return fetchPage(request);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private IdentifiersPage fetchPage(PackageSearchRequest request) {
+        try (var body = ckanIdentifiersApi.packageSearch(request)) {
+            return readIdentifiers(body);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Could not read CKAN dataset identifiers", exception);
+        }
+    }
+
+    private IdentifiersPage resultOf(Future<IdentifiersPage> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting CKAN dataset ids",
+                    exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    /**
+     * Reads {@code result.count} and {@code result.results[*].identifier} token by token,
+     * skipping everything else in the response.
+     */
+    private IdentifiersPage readIdentifiers(InputStream body) throws IOException {
+        Integer count = null;
+        var identifiers = new ArrayList<String>();
+        var size = 0;
+
+        if (body == null) {
+            return new IdentifiersPage(null, identifiers, size);
+        }
+
+        try (var parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new IdentifiersPage(null, identifiers, size);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                var token = parser.nextToken();
+                if (!"result".equals(field) || token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var resultField = parser.currentName();
+                    var resultToken = parser.nextToken();
+                    if ("count".equals(resultField) && resultToken.isNumeric()) {
+                        count = parser.getIntValue();
+                    } else if ("results".equals(resultField)
+                            && resultToken == JsonToken.START_ARRAY) {
+                        size += readResults(parser, identifiers);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+
+        return new IdentifiersPage(count, identifiers, size);
+    }
+
+    private int readResults(JsonParser parser, List<String> identifiers) throws IOException {
+        var size = 0;
+        for (var token = parser.nextToken(); token != null && token != JsonToken.END_ARRAY;
+                token = parser.nextToken()) {
+            size++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                var valueToken = parser.nextToken();
+                if (CKAN_IDENTIFIER_FIELD.equals(field) && valueToken == JsonToken.VALUE_STRING) {
+                    identifiers.add(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@code size} counts every returned row, including rows without an identifier, so paging
+     * advances exactly like CKAN does.
+     */
+    private record IdentifiersPage(Integer count, List<String> identifiers, int size) {
+    }
 }
@@ -5,55 +5,123 @@
 package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
 
 import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.DatasetsRepository;
+import io.github.genomicdatainfrastructure.discovery.datasets.domain.DatasetExport;
 import io.github.genomicdatainfrastructure.discovery.datasets.domain.exceptions.DatasetNotFoundException;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.DatasetHelpTextService;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.mapper.CkanDatasetsMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
 import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.FilterHelpTextService;
 import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.CkanSearchFacetsMapper;
 import io.github.genomicdatainfrastructure.discovery.model.*;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.*;
+import io.github.genomicdatainfrastructure.discovery.utils.StaleWhileRevalidateCache;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
 
+import java.io.InputStream;
+import java.time.Clock;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_FILTER_SOURCE;
-import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_IDENTIFIER_FIELD;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.FACET_MAPPING;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.HELP_TEXTS;
+import static jakarta.ws.rs.core.Response.Status.NOT_MODIFIED;
 import static java.util.Optional.ofNullable;
 
 @ApplicationScoped
 public class CkanDatasetsRepository implements DatasetsRepository {
 
     private final CkanQueryApi ckanQueryApi;
+    private final CkanDatasetExportApi ckanDatasetExportApi;
     private final CkanDatasetsMapper ckanDatasetsMapper;
     private final CkanSearchFacetsMapper ckanSearchFacetsMapper;
     private final FilterHelpTextService filterHelpTextService;
     private final DatasetHelpTextService datasetHelpTextService;
+    private final CkanOrderedIdsLoader ckanOrderedIdsLoader;
+    private final CkanCatalogueIndex catalogueIndex;
+    private final IdRestrictionStrategy idRestrictionStrategy;
+    private final int localPagingThreshold;
+    private final ExecutorService executor;
+    private final int seriesParallelism;
+    private final StaleWhileRevalidateCache<SeriesKey, DatasetSeries> seriesCache;
+    private final StaleWhileRevalidateCache<CkanSearchKey, DatasetsSearchResponse> searchResults;
+    private final SearchMetrics searchMetrics;
 
     @Inject
     public CkanDatasetsRepository(
             @RestClient CkanQueryApi ckanQueryApi,
+            @RestClient CkanDatasetExportApi ckanDatasetExportApi,
             CkanDatasetsMapper ckanDatasetsMapper,
             CkanSearchFacetsMapper ckanSearchFacetsMapper,
             FilterHelpTextService filterHelpTextService,
-            DatasetHelpTextService datasetHelpTextService
+            DatasetHelpTextService datasetHelpTextService,
+            CkanOrderedIdsLoader ckanOrderedIdsLoader,
+            CkanCatalogueIndex catalogueIndex,
+            CkanClientConfiguration ckanClientConfiguration,
+            @VirtualThreads ExecutorService executor,
+            SearchMetrics searchMetrics
     ) {
         this.ckanQueryApi = ckanQueryApi;
+        this.ckanDatasetExportApi = ckanDatasetExportApi;
         this.ckanDatasetsMapper = ckanDatasetsMapper;
         this.ckanSearchFacetsMapper = ckanSearchFacetsMapper;
         this.filterHelpTextService = filterHelpTextService;
         this.datasetHelpTextService = datasetHelpTextService;
+        this.ckanOrderedIdsLoader = ckanOrderedIdsLoader;
+        this.catalogueIndex = catalogueIndex;
+        this.idRestrictionStrategy = ckanClientConfiguration.idRestriction().strategy();
+        this.localPagingThreshold = ckanClientConfiguration.idRestriction()
+                .localPagingThreshold();
+        this.executor = executor;
+        var series = ckanClientConfiguration.series();
+        this.seriesParallelism = Math.max(1, series.parallelism());
+        this.seriesCache = new StaleWhileRevalidateCache<>("CKAN series", series.ttl(),
+                series.maxStale(), series.maxEntries(), executor, Clock.systemUTC());
+        var searchResults = ckanClientConfiguration.searchResults();
+        this.searchResults = new StaleWhileRevalidateCache<>("CKAN search results",
+                searchResults.ttl(), searchResults.ttl(), searchResults.maxEntries(), executor,
+                Clock.systemUTC());
+        this.searchMetrics = searchMetrics;
     }
 
+    /**
+     * CKAN-only results don't depend on the caller, only on the query and language, so they are
+     * shared for a short while under the canonical form of the query, unless the
+     * {@link CkanCatalogueIndex} can answer them.
+     */
     @Override
     public DatasetsSearchResponse search(DatasetSearchQuery query, String accessToken,
             String preferredLanguage) {
+        var indexed = catalogueIndex.search(query, preferredLanguage);
+        if (indexed.isPresent()) {
+            return toResponse(indexed.get(), preferredLanguage);
+        }
+
         var temporalCoverageBounds = CkanFacetsQueryBuilder.extractTemporalCoverageBounds(query);
+        var key = CkanSearchKey.of(query, temporalCoverageBounds, preferredLanguage);
+        return searchResults.get(key,
+                () -> searchCkan(query, temporalCoverageBounds, preferredLanguage));
+    }
 
+    private DatasetsSearchResponse searchCkan(DatasetSearchQuery query,
+            CkanFacetsQueryBuilder.TemporalCoverageBounds temporalCoverageBounds,
+            String preferredLanguage) {
         var request = ckanSearchFacetsMapper.applyStats(PackageSearchRequest.builder()
                 .q(query.getQuery())
                 .fq(CkanFacetsQueryBuilder.buildFacetQuery(query))
@@ -78,10 +146,7 @@ public class CkanDatasetsRepository implements DatasetsRepository {
         return DatasetsSearchResponse.builder()
                 .count(totalCount)
                 .results(mappedResults)
-                .facets(filterHelpTextService.enrich(
-                        ckanSearchFacetsMapper.map(response.getResult()),
-                        preferredLanguage
-                ))
+                .facets(facets(response.getResult(), preferredLanguage))
                 .build();
     }
 
@@ -102,10 +167,21 @@ public class CkanDatasetsRepository implements DatasetsRepository {
                     .build();
         }
 
-        var facetsQuery = buildFacetQuery(datasetIds);
+        var indexed = catalogueIndex.search(datasetIds, sort, rows, start, preferredLanguage);
+        if (indexed.isPresent()) {
+            return toResponse(indexed.get(), preferredLanguage);
+        }
+
+        if (datasetIds.size() > localPagingThreshold) {
+            var locallyPaged = searchLocallyPaged(datasetIds, sort, rows, start,
+                    preferredLanguage);
+            if (locallyPaged.isPresent()) {
+                return locallyPaged.get();
+            }
+        }
 
         var request = ckanSearchFacetsMapper.applyStats(PackageSearchRequest.builder()
-                .fq(facetsQuery)
+                .fq(idRestrictionStrategy.fq(datasetIds))
                 .sort(sort)
                 .rows(rows)
                 .start(start)
@@ -125,10 +201,7 @@ public class CkanDatasetsRepository implements DatasetsRepository {
         return DatasetsSearchResponse.builder()
                 .count(totalCount)
                 .results(mappedResults)
-                .facets(filterHelpTextService.enrich(
-                        ckanSearchFacetsMapper.map(response.getResult()),
-                        preferredLanguage
-                ))
+                .facets(facets(response.getResult(), preferredLanguage))
                 .build();
     }
 
@@ -137,18 +210,25 @@ public class CkanDatasetsRepository implements DatasetsRepository {
         try {
             var ckanPackage = ckanQueryApi.packageShow(id, preferredLanguage);
             var mappedDataset = ckanDatasetsMapper.map(ckanPackage.getResult());
-            datasetHelpTextService.enrich(
-                    mappedDataset,
-                    ckanPackage.getResult(),
-                    preferredLanguage
-            );
-            var inSeries = ofNullable(ckanPackage.getResult().getInSeries())
+            var seriesIds = ofNullable(ckanPackage.getResult().getInSeries())
                     .orElse(List.of())
                     .stream()
                     .filter(seriesId -> seriesId != null && !seriesId.isBlank())
-                    .map(seriesId -> resolveSeriesDataset(seriesId, preferredLanguage))
                     .toList();
-            mappedDataset.setInSeries(inSeries);
+
+            // Help texts and series are independent lookups, so they overlap
+            var helpTexts = executor.submit(() -> datasetHelpTextService.enrich(
+                    mappedDataset,
+                    ckanPackage.getResult(),
+                    preferredLanguage
+            ));
+            try {
+                var inSeries = resolveSeries(seriesIds, preferredLanguage);
+                resultOf(helpTexts);
+                mappedDataset.setInSeries(inSeries);
+            } finally {
+                helpTexts.cancel(true);
+            }
             return mappedDataset;
         } catch (WebApplicationException e) {
             if (e.getResponse().getStatus() == 404) {
@@ -158,19 +238,73 @@ public class CkanDatasetsRepository implements DatasetsRepository {
         }
     }
 
+    /**
+     * Resolves the related series concurrently, at most {@code ckan.series.parallelism} at a
+     * time, keeping the order of {@code inSeries}.
+     */
+    private List<DatasetSeries> resolveSeries(List<String> seriesIds, String preferredLanguage) {
+        if (seriesIds.size() <= 1) {
+            return seriesIds.stream()
+                    .map(seriesId -> resolveSeriesDataset(seriesId, preferredLanguage))
+                    .toList();
+        }
+
+        var limiter = new Semaphore(seriesParallelism);
+        var lookups = seriesIds.stream()
+                .map(seriesId -> executor.submit(() -> {
+                    limiter.acquire();
+                    try {
+                        return resolveSeriesDataset(seriesId, preferredLanguage);
+                    } finally {
+                        limiter.release();
+                    }
+                }))
+                .toList();
+
+        try {
+            return lookups.stream()
+                    .map(this::resultOf)
+                    .toList();
+        } finally {
+            lookups.forEach(lookup -> lookup.cancel(true));
+        }
+    }
+
     private DatasetSeries resolveSeriesDataset(String seriesId, String preferredLanguage) {
         try {
-            var response = ckanQueryApi.packageShow(seriesId, preferredLanguage);
-            if (response == null || response.getResult() == null) {
-                return fallbackSeries(seriesId);
-            }
-            return ckanDatasetsMapper.mapToDatasetSeries(response.getResult());
+            var series = seriesCache.get(new SeriesKey(seriesId, preferredLanguage),
+                    () -> fetchSeriesDataset(seriesId, preferredLanguage));
+            // The summary is shared through the cache, so the response gets its own copy
+            return series != null ? series.toBuilder().build() : fallbackSeries(seriesId);
         } catch (WebApplicationException ignored) {
             // Keep the API response resilient even when related series cannot be resolved.
             return fallbackSeries(seriesId);
         }
     }
 
+    private DatasetSeries fetchSeriesDataset(String seriesId, String preferredLanguage) {
+        var response = ckanQueryApi.packageShow(seriesId, preferredLanguage);
+        if (response == null || response.getResult() == null) {
+            return null;
+        }
+        return ckanDatasetsMapper.mapToDatasetSeries(response.getResult());
+    }
+
+    private <T> T resultOf(Future<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrieving dataset details",
+                    exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
     private DatasetSeries fallbackSeries(String seriesId) {
         return DatasetSeries.builder()
                 .id(seriesId)
@@ -180,9 +314,22 @@ public class CkanDatasetsRepository implements DatasetsRepository {
     }
 
     @Override
-    public String retrieveDatasetInFormat(String id, String format, String accessToken) {
+    public DatasetExport retrieveDatasetInFormat(String id, String format, String accessToken,
+            String acceptEncoding, String ifNoneMatch, String ifModifiedSince) {
         try {
-            return ckanQueryApi.retrieveDatasetInFormat(id, format, accessToken);
+            var response = ckanDatasetExportApi.retrieveDatasetInFormat(id, format, accessToken,
+                    acceptEncoding, ifNoneMatch, ifModifiedSince);
+            var notModified = response.getStatus() == NOT_MODIFIED.getStatusCode();
+            if (notModified) {
+                response.close();
+            }
+            return new DatasetExport(
+                    notModified ? InputStream.nullInputStream() : response.getEntity(),
+                    notModified ? null : contentLength(response),
+                    response.getHeaderString(HttpHeaders.CONTENT_ENCODING),
+                    response.getHeaderString(HttpHeaders.ETAG),
+                    response.getHeaderString(HttpHeaders.LAST_MODIFIED),
+                    notModified);
         } catch (WebApplicationException e) {
             if (e.getResponse().getStatus() == 404) {
                 throw new DatasetNotFoundException(id);
@@ -191,20 +338,86 @@ public class CkanDatasetsRepository implements DatasetsRepository {
         }
     }
 
-    private String buildFacetQuery(Set<String> datasetIds) {
-        var facets = datasetIds
+    private DatasetsSearchResponse toResponse(CatalogueSnapshot.IndexedPage page,
+            String preferredLanguage) {
+        return DatasetsSearchResponse.builder()
+                .count(page.facets().getCount())
+                .results(page.results())
+                .facets(facets(page.facets(), preferredLanguage))
+                .build();
+    }
+
+    private List<Filter> facets(PackagesSearchResult result, String preferredLanguage) {
+        var facets = searchMetrics.time(FACET_MAPPING, () -> ckanSearchFacetsMapper.map(result));
+        return searchMetrics.time(HELP_TEXTS,
+                () -> filterHelpTextService.enrich(facets, preferredLanguage));
+    }
+
+    private Long contentLength(RestResponse<?> response) {
+        var length = response.getHeaderString(HttpHeaders.CONTENT_LENGTH);
+        try {
+            return length != null ? Long.valueOf(length.trim()) : null;
+        } catch (NumberFormatException invalid) {
+            return null;
+        }
+    }
+
+    /**
+     * Pages over the cached, ordered identifiers of a large set and only asks CKAN for the
+     * datasets of the requested page, so no request ever carries the whole set. Returns nothing
+     * when the set can't be ordered locally, and CKAN has to be asked for it as a whole.
+     */
+    private Optional<DatasetsSearchResponse> searchLocallyPaged(
+            Set<String> datasetIds,
+            String sort,
+            Integer rows,
+            Integer start,
+            String preferredLanguage) {
+
+        var loaded = ckanOrderedIdsLoader.load(datasetIds, sort, preferredLanguage);
+        if (loaded.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var orderedIds = loaded.get();
+        var identifiers = orderedIds.identifiers();
+        var from = Math.clamp(ofNullable(start).orElse(0), 0, identifiers.size());
+        var to = Math.clamp((long) from + ofNullable(rows).orElse(10), from, identifiers.size());
+        var pageIds = identifiers.subList(from, to);
+
+        return Optional.of(DatasetsSearchResponse.builder()
+                .count(orderedIds.facets().getCount())
+                .results(fetchPage(pageIds, sort, preferredLanguage))
+                .facets(facets(orderedIds.facets(), preferredLanguage))
+                .build());
+    }
+
+    private List<SearchedDataset> fetchPage(List<String> pageIds, String sort,
+            String preferredLanguage) {
+        if (pageIds.isEmpty()) {
+            return List.of();
+        }
+
+        var request = PackageSearchRequest.builder()
+                .fq(idRestrictionStrategy.fq(pageIds))
+                .sort(sort)
+                .rows(pageIds.size())
+                .start(0)
+                .build();
+
+        var response = ckanQueryApi.packageSearch(preferredLanguage, request);
+
+        // Keep the merged order, which may break ties differently than a single CKAN query
+        var positions = IntStream.range(0, pageIds.size())
+                .boxed()
+                .collect(Collectors.toMap(pageIds::get, Function.identity()));
+        return ckanDatasetsMapper.map(response.getResult())
                 .stream()
-                .map(id -> DatasetSearchQueryFacet
-                        .builder()
-                        .source(CKAN_FILTER_SOURCE)
-                        .key(CKAN_IDENTIFIER_FIELD)
-                        .value(id)
-                        .build())
+                .sorted(Comparator.comparing(dataset -> positions.getOrDefault(
+                        dataset.getIdentifier(), Integer.MAX_VALUE)))
                 .toList();
+    }
 
-        return CkanFacetsQueryBuilder.buildFacetQuery(DatasetSearchQuery
-                .builder()
-                .facets(facets)
-                .build());
+    private record SeriesKey(String seriesId, String preferredLanguage) {
     }
 }
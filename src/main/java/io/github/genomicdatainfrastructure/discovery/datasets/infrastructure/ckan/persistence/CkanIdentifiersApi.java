@@ -0,0 +1,41 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+import java.io.InputStream;
+
+/**
+ * Raw variant of the generated {@code CkanQueryApi#packageSearch}, sharing its {@code ckan_yaml}
+ * client configuration. The body is handed over undecoded so that callers which only need a few
+ * fields (e.g. identifiers) can stream them out without binding full {@code CkanPackage} graphs.
+ */
+@Path("/api/3/action")
+@RegisterRestClient(configKey = "ckan_yaml")
+public interface CkanIdentifiersApi {
+
+    @POST
+    @Path("/enhanced_package_search")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    InputStream packageSearch(PackageSearchRequest request);
+
+    @POST
+    @Path("/enhanced_package_search")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    InputStream packageSearch(
+            @HeaderParam("Accept-Language") String preferredLanguage,
+            PackageSearchRequest request
+    );
+}
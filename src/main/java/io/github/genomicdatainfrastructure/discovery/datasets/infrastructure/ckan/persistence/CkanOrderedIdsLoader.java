@@ -0,0 +1,341 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.CkanSearchFacetsMapper;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanFacet;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanStats;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanStatsField;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanValueLabel;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+import io.github.genomicdatainfrastructure.discovery.utils.Sha256;
+import io.github.genomicdatainfrastructure.discovery.utils.StaleWhileRevalidateCache;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_IDENTIFIER_FIELD;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_PAGINATION_MAX_SIZE;
+
+/**
+ * Orders a large set of dataset identifiers the way CKAN would, without ever sending the whole set
+ * in one filter. The set is split into chunks, each chunk is searched for its identifiers and sort
+ * fields only ({@code fl}), and the chunks are merged and re-sorted locally; facet counts are
+ * summed and stats ranges widened across chunks, which is exact because the chunks are disjoint.
+ * The outcome is cached per identifier set, sort and language for
+ * {@code ckan.id-restriction.ordered-ids-ttl}, so paging through the same search only fetches
+ * the datasets of the requested page.
+ * <p>
+ * Solr only returns stored fields, so a sort on a field that is indexed but not stored (such as
+ * {@code title_string} in the default CKAN schema) can't be reproduced locally; such searches
+ * are left to CKAN.
+ */
+@ApplicationScoped
+public class CkanOrderedIdsLoader {
+
+    static final String DEFAULT_SORT = "score desc, metadata_modified desc";
+    private static final TypeReference<Map<String, CkanFacet>> SEARCH_FACETS_TYPE =
+            new TypeReference<>() {
+            };
+
+    private final CkanIdentifiersApi ckanIdentifiersApi;
+    private final ObjectMapper objectMapper;
+    private final CkanSearchFacetsMapper ckanSearchFacetsMapper;
+    private final ExecutorService executor;
+    private final IdRestrictionStrategy strategy;
+    private final int chunkSize;
+    private final int parallelism;
+    private final StaleWhileRevalidateCache<OrderedIdsKey, Optional<OrderedIds>> cache;
+
+    @Inject
+    public CkanOrderedIdsLoader(
+            @RestClient CkanIdentifiersApi ckanIdentifiersApi,
+            ObjectMapper objectMapper,
+            CkanSearchFacetsMapper ckanSearchFacetsMapper,
+            @VirtualThreads ExecutorService executor,
+            CkanClientConfiguration ckanClientConfiguration
+    ) {
+        this(ckanIdentifiersApi, objectMapper, ckanSearchFacetsMapper, executor,
+                ckanClientConfiguration, Clock.systemUTC());
+    }
+
+    CkanOrderedIdsLoader(CkanIdentifiersApi ckanIdentifiersApi, ObjectMapper objectMapper,
+            CkanSearchFacetsMapper ckanSearchFacetsMapper, ExecutorService executor,
+            CkanClientConfiguration ckanClientConfiguration, Clock clock) {
+        var idRestriction = ckanClientConfiguration.idRestriction();
+        this.ckanIdentifiersApi = ckanIdentifiersApi;
+        this.objectMapper = objectMapper;
+        this.ckanSearchFacetsMapper = ckanSearchFacetsMapper;
+        this.executor = executor;
+        this.strategy = idRestriction.strategy();
+        this.chunkSize = Math.clamp(idRestriction.chunkSize(), 1, CKAN_PAGINATION_MAX_SIZE);
+        this.parallelism = Math.max(1, idRestriction.parallelism());
+        this.cache = new StaleWhileRevalidateCache<>("CKAN ordered ids",
+                idRestriction.orderedIdsTtl(), idRestriction.orderedIdsTtl(),
+                idRestriction.orderedIdsMaxEntries(), executor, clock);
+    }
+
+    /**
+     * Orders the given identifiers by {@code sort}, or returns nothing when CKAN didn't return
+     * the fields to sort on, in which case only CKAN itself can sort the set.
+     */
+    public Optional<OrderedIds> load(Collection<String> datasetIds, String sort,
+            String preferredLanguage) {
+        var sortedIds = datasetIds.stream().sorted().toList();
+        var key = new OrderedIdsKey(Sha256.hash(sortedIds), sort, preferredLanguage);
+        return cache.get(key, () -> fetch(sortedIds, sort, preferredLanguage));
+    }
+
+    private Optional<OrderedIds> fetch(List<String> sortedIds, String sort,
+            String preferredLanguage) {
+        var effectiveSort = Objects.requireNonNullElse(sort, DEFAULT_SORT);
+        var sortClauses = SortClause.parse(effectiveSort);
+        var fieldList = Stream.concat(Stream.of(CKAN_IDENTIFIER_FIELD),
+                sortClauses.stream().map(SortClause::field))
+                .distinct()
+                .collect(Collectors.joining(","));
+
+        var limiter = new Semaphore(parallelism);
+        var chunks = IntStream.iterate(0, from -> from < sortedIds.size(), from -> from + chunkSize)
+                .mapToObj(from -> sortedIds.subList(from, Math.min(from + chunkSize,
+                        sortedIds.size())))
+                .map(chunk -> executor.submit(() -> fetchChunk(chunkRequest(chunk,
+                        effectiveSort, fieldList), preferredLanguage, limiter)))
+                .toList();
+
+        var rows = new ArrayList<OrderedRow>(sortedIds.size());
+        var facets = new FacetsAccumulator();
+        var count = 0;
+        try {
+            for (var chunk : chunks) {
+                var result = resultOf(chunk);
+                rows.addAll(result.rows());
+                facets.add(result.searchFacets(), result.stats());
+                count += result.count();
+            }
+        } finally {
+            chunks.forEach(chunk -> chunk.cancel(true));
+        }
+
+        if (!returnsSortFields(rows, sortClauses)) {
+            return Optional.empty();
+        }
+
+        // List.sort is stable, so ties keep the order CKAN returned within each chunk
+        rows.sort(Comparator.comparing(OrderedRow::fields, SortClause.comparator(sortClauses)));
+
+        return Optional.of(new OrderedIds(
+                rows.stream().map(OrderedRow::identifier).toList(),
+                facets.toResult(count)
+        ));
+    }
+
+    /**
+     * Solr leaves out fields a dataset has no value for, so a sort field is only known to be
+     * unstored when no dataset at all came with it.
+     */
+    private static boolean returnsSortFields(List<OrderedRow> rows, List<SortClause> clauses) {
+        return rows.isEmpty() || clauses.stream().allMatch(clause -> rows.stream()
+                .anyMatch(row -> row.fields().has(clause.field())));
+    }
+
+    private PackageSearchRequest chunkRequest(List<String> chunk, String sort, String fieldList) {
+        return ckanSearchFacetsMapper.applyStats(PackageSearchRequest.builder()
+                .fq(strategy.fq(chunk))
+                .fl(fieldList)
+                .sort(sort)
+                .rows(chunk.size())
+                .start(0)
+                .facetField(ckanSearchFacetsMapper.selectedFacetField())
+                .facetLimit(-1))
+                .build();
+    }
+
+    private ChunkResult fetchChunk(PackageSearchRequest request, String preferredLanguage,
+            Semaphore limiter) throws InterruptedException {
+        limiter.acquire();
+        try (var body = ckanIdentifiersApi.packageSearch(preferredLanguage, request)) {
+            return readChunk(body == null ? null : objectMapper.readTree(body));
+        } catch (IOException exception) {
+            throw new IllegalStateException("Could not read CKAN dataset identifiers", exception);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private ChunkResult readChunk(JsonNode response) {
+        var result = response == null ? null : response.get("result");
+        if (result == null || !result.isObject()) {
+            return new ChunkResult(List.of(), 0, Map.of(), null);
+        }
+
+        var rows = new ArrayList<OrderedRow>();
+        for (var row : result.path("results")) {
+            var identifier = row.path(CKAN_IDENTIFIER_FIELD);
+            if (identifier.isTextual()) {
+                rows.add(new OrderedRow(identifier.asText(), row));
+            }
+        }
+
+        var searchFacets = result.hasNonNull("search_facets")
+                ? objectMapper.convertValue(result.get("search_facets"), SEARCH_FACETS_TYPE)
+                : Map.<String, CkanFacet>of();
+        var stats = result.hasNonNull("stats")
+                ? objectMapper.convertValue(result.get("stats"), CkanStats.class)
+                : null;
+
+        return new ChunkResult(rows, result.path("count").asInt(rows.size()), searchFacets,
+                stats);
+    }
+
+    private ChunkResult resultOf(Future<ChunkResult> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while ordering CKAN dataset ids",
+                    exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    /**
+     * Picks the lower ({@code direction} -1) or higher (1) of two stats values, comparing
+     * numerically when both are numbers and as strings otherwise (ISO dates sort correctly
+     * that way); a missing value never wins over a present one.
+     */
+    static String pick(String left, String right, int direction) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        int comparison;
+        try {
+            comparison = new BigDecimal(left).compareTo(new BigDecimal(right));
+        } catch (NumberFormatException ignored) {
+            comparison = left.compareTo(right);
+        }
+        return comparison * direction >= 0 ? left : right;
+    }
+
+    /**
+     * The identifiers of a search in result order, together with its facets and stats as a
+     * single {@link PackagesSearchResult} without results.
+     */
+    public record OrderedIds(List<String> identifiers, PackagesSearchResult facets) {
+    }
+
+    private record OrderedIdsKey(String fingerprint, String sort, String preferredLanguage) {
+    }
+
+    private record OrderedRow(String identifier, JsonNode fields) {
+    }
+
+    private record ChunkResult(List<OrderedRow> rows, int count,
+            Map<String, CkanFacet> searchFacets, CkanStats stats) {
+    }
+
+    /**
+     * Sums facet item counts and widens stats ranges over disjoint chunks of the same search.
+     * Merged items are sorted the way Solr sorts the facets of a single search.
+     */
+    private static class FacetsAccumulator {
+
+        private final Map<String, String> titles = new LinkedHashMap<>();
+        private final Map<String, Map<String, CkanValueLabel>> items = new LinkedHashMap<>();
+        private final Map<String, CkanStatsField> statsFields = new LinkedHashMap<>();
+        private boolean hasStats;
+
+        void add(Map<String, CkanFacet> searchFacets, CkanStats stats) {
+            searchFacets.forEach((key, facet) -> {
+                titles.putIfAbsent(key, facet.getTitle());
+                var facetItems = items.computeIfAbsent(key, ignored -> new LinkedHashMap<>());
+                if (facet.getItems() != null) {
+                    facet.getItems().forEach(item -> facetItems.merge(item.getName(),
+                            copy(item), FacetsAccumulator::sum));
+                }
+            });
+
+            if (stats != null) {
+                hasStats = true;
+                if (stats.getStatsFields() != null) {
+                    stats.getStatsFields().forEach((key, field) -> {
+                        if (field != null) {
+                            statsFields.merge(key, field, FacetsAccumulator::widen);
+                        }
+                    });
+                }
+            }
+        }
+
+        PackagesSearchResult toResult(int count) {
+            var searchFacets = new LinkedHashMap<String, CkanFacet>();
+            items.forEach((key, facetItems) -> {
+                var sortedItems = new ArrayList<>(facetItems.values());
+                sortedItems.sort(CatalogueSnapshot.FACET_ORDER);
+                searchFacets.put(key, CkanFacet.builder()
+                        .title(titles.get(key))
+                        .items(sortedItems)
+                        .build());
+            });
+
+            return PackagesSearchResult.builder()
+                    .count(count)
+                    .results(List.of())
+                    .searchFacets(searchFacets)
+                    .stats(hasStats ? CkanStats.builder().statsFields(statsFields).build() : null)
+                    .build();
+        }
+
+        private static CkanValueLabel copy(CkanValueLabel item) {
+            return CkanValueLabel.builder()
+                    .name(item.getName())
+                    .displayName(item.getDisplayName())
+                    .count(item.getCount())
+                    .build();
+        }
+
+        private static CkanValueLabel sum(CkanValueLabel left, CkanValueLabel right) {
+            left.setCount(Objects.requireNonNullElse(left.getCount(), 0)
+                    + Objects.requireNonNullElse(right.getCount(), 0));
+            return left;
+        }
+
+        private static CkanStatsField widen(CkanStatsField left, CkanStatsField right) {
+            return CkanStatsField.builder()
+                    .min(pick(left.getMin(), right.getMin(), -1))
+                    .max(pick(left.getMax(), right.getMax(), 1))
+                    .build();
+        }
+    }
+}
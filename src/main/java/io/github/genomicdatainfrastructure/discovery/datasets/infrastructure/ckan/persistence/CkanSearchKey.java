@@ -0,0 +1,114 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CkanFacetsQueryBuilder.TemporalCoverageBounds;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.utils.CkanQueryOperatorMapper;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.Operator;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Canonical form of a CKAN-only search, used as the key of its result cache. Only what shapes the
+ * CKAN request is kept, exactly as {@link CkanFacetsQueryBuilder} sends it: CKAN facets with a
+ * value, deduplicated, with values sorted but not trimmed, as they are quoted as is; range facets
+ * (dates and numbers) trimmed but in request order, as the first bound given wins; the query
+ * operator as sent to Solr; blank text as absent; and the temporal coverage bounds as instants.
+ * Searches that differ only in value order, duplicates or equivalent notations share one key.
+ */
+record CkanSearchKey(
+        String query,
+        List<Facet> facets,
+        List<Facet> rangeFacets,
+        String operator,
+        String sort,
+        Integer rows,
+        Integer start,
+        String temporalMin,
+        String temporalMax,
+        String preferredLanguage
+) {
+
+    private static final String CKAN_FACET_GROUP = "ckan";
+    private static final String TEMPORAL_COVERAGE_KEY = "temporal_coverage";
+
+    private static final Comparator<Facet> FACET_ORDER = Comparator
+            .comparing(Facet::key)
+            .thenComparing(Facet::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Facet::operator, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Facet::value);
+
+    static CkanSearchKey of(DatasetSearchQuery query, TemporalCoverageBounds temporalBounds,
+            String preferredLanguage) {
+        var ckanFacets = ofNullable(query.getFacets())
+                .orElseGet(List::of)
+                .stream()
+                .filter(Objects::nonNull)
+                .filter(facet -> CKAN_FACET_GROUP.equals(facet.getSource()))
+                .filter(facet -> !isBlank(facet.getKey()) && !isBlank(facet.getValue()))
+                // temporal_coverage reaches CKAN as bounds only, which are part of the key
+                .filter(facet -> !TEMPORAL_COVERAGE_KEY.equals(facet.getKey()))
+                .toList();
+        var facets = ckanFacets.stream()
+                .filter(facet -> !isRange(facet.getType()))
+                .map(facet -> new Facet(facet.getKey(), facet.getType(), facet.getOperator(),
+                        facet.getValue()))
+                .distinct()
+                .sorted(FACET_ORDER)
+                .toList();
+        var rangeFacets = ckanFacets.stream()
+                .filter(facet -> isRange(facet.getType()))
+                .map(facet -> new Facet(facet.getKey(), facet.getType(), facet.getOperator(),
+                        facet.getValue().trim()))
+                .distinct()
+                .toList();
+
+        return new CkanSearchKey(
+                blankToNull(query.getQuery()),
+                facets,
+                rangeFacets,
+                CkanQueryOperatorMapper.getOperator(query.getOperator()),
+                blankToNull(query.getSort()),
+                query.getRows(),
+                query.getStart(),
+                toInstant(temporalBounds.min()),
+                toInstant(temporalBounds.max()),
+                preferredLanguage);
+    }
+
+    private static boolean isRange(FilterType type) {
+        return FilterType.DATETIME.equals(type) || FilterType.NUMBER.equals(type);
+    }
+
+    private static String toInstant(String dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(dateTime).toInstant().toString();
+        } catch (DateTimeParseException notAnOffsetDateTime) {
+            return dateTime;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value.trim();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    record Facet(String key, FilterType type, Operator operator, String value) {
+    }
+}
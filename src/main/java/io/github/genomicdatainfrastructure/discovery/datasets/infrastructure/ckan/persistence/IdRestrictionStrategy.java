@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+
+import java.util.Collection;
+
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_FILTER_SOURCE;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_IDENTIFIER_FIELD;
+
+/**
+ * How a set of dataset identifiers is turned into a Solr {@code fq} restricting a CKAN search.
+ */
+public enum IdRestrictionStrategy {
+
+    /**
+     * {@code identifier:("a" OR "b")}, understood by every CKAN, but each identifier costs a
+     * boolean clause.
+     */
+    BOOLEAN {
+        @Override
+        public String fq(Collection<String> datasetIds) {
+            var facets = datasetIds
+                    .stream()
+                    .map(id -> DatasetSearchQueryFacet
+                            .builder()
+                            .source(CKAN_FILTER_SOURCE)
+                            .key(CKAN_IDENTIFIER_FIELD)
+                            .value(id)
+                            .build())
+                    .toList();
+
+            return CkanFacetsQueryBuilder.buildFacetQuery(DatasetSearchQuery
+                    .builder()
+                    .facets(facets)
+                    .build());
+        }
+    },
+
+    /**
+     * {@code {!terms f=identifier}a,b}, a compact form with no boolean clause limit. CKAN must
+     * allow the parser ({@code ckan.search.solr_allowed_query_parsers = terms}).
+     */
+    TERMS {
+        private static final String TERMS_PATTERN = "{!terms f=%s}%s";
+        private static final String SEPARATOR = ",";
+
+        @Override
+        public String fq(Collection<String> datasetIds) {
+            if (datasetIds.stream().anyMatch(id -> id.contains(SEPARATOR))) {
+                // Identifiers containing the separator can't be expressed as terms
+                return BOOLEAN.fq(datasetIds);
+            }
+            return TERMS_PATTERN.formatted(CKAN_IDENTIFIER_FIELD, String.join(SEPARATOR,
+                    datasetIds));
+        }
+    };
+
+    public abstract String fq(Collection<String> datasetIds);
+}
@@ -0,0 +1,63 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One {@code field direction} clause of a Solr sort, applied locally to the fields CKAN returned
+ * for a dataset ({@code fl}). {@code score} is left out, as every dataset scores the same under a
+ * filter-only query.
+ */
+record SortClause(String field, boolean descending) {
+
+    private static final String SCORE_FIELD = "score";
+    private static final String DESCENDING = "desc";
+
+    private static final Comparator<JsonNode> VALUE_ORDER = (left, right) ->
+            left.isNumber() && right.isNumber()
+                    ? left.decimalValue().compareTo(right.decimalValue())
+                    : left.asText().compareTo(right.asText());
+
+    static List<SortClause> parse(String sort) {
+        return Arrays.stream(sort.split(","))
+                .map(String::trim)
+                .map(clause -> clause.split("\\s+"))
+                .filter(parts -> !parts[0].isEmpty() && !SCORE_FIELD.equals(parts[0]))
+                .map(parts -> new SortClause(parts[0], parts.length > 1
+                        && DESCENDING.equalsIgnoreCase(parts[1])))
+                .toList();
+    }
+
+    /**
+     * Whether the sort ranks by relevance, which only Solr can compute for a text query
+     */
+    static boolean ranksByScore(String sort) {
+        return Arrays.stream(sort.split(","))
+                .map(String::trim)
+                .anyMatch(clause -> clause.split("\\s+")[0].equals(SCORE_FIELD));
+    }
+
+    static Comparator<JsonNode> comparator(List<SortClause> clauses) {
+        Comparator<JsonNode> comparator = (left, right) -> 0;
+        for (var clause : clauses) {
+            var order = clause.descending() ? VALUE_ORDER.reversed() : VALUE_ORDER;
+            comparator = comparator.thenComparing(clause::value, Comparator.nullsLast(order));
+        }
+        return comparator;
+    }
+
+    private JsonNode value(JsonNode fields) {
+        var value = fields.get(field);
+        if (value != null && value.isArray()) {
+            value = value.isEmpty() ? null : value.get(0);
+        }
+        return value == null || value.isNull() ? null : value;
+    }
+}
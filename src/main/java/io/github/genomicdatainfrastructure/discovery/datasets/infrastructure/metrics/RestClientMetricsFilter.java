@@ -0,0 +1,112 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.reactive.client.impl.ClientRequestContextImpl;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Records every upstream call made through a REST client in
+ * {@code discovery.client.request.duration}, tagged by the client's config key (e.g.
+ * {@code ckan_yaml}, {@code keycloak_yaml}) and the response status, so the histogram count
+ * doubles as the per-client call counter. Calls that never get a response (connection failures,
+ * timeouts) are recorded with {@code error.type}, the class of the failure, instead of a status.
+ */
+@Provider
+public class RestClientMetricsFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    private static final String INVOKED_METHOD =
+            "org.eclipse.microprofile.rest.client.invokedMethod";
+    private static final String STARTED_AT = RestClientMetricsFilter.class.getName() + ".start";
+    private static final AttributeKey<String> CLIENT = AttributeKey.stringKey("client");
+    private static final AttributeKey<Long> STATUS =
+            AttributeKey.longKey("http.response.status_code");
+    private static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+
+    private static final ClassValue<String> CLIENT_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            var client = type.getAnnotation(RegisterRestClient.class);
+            return client != null && !client.configKey().isBlank()
+                    ? client.configKey()
+                    : type.getSimpleName();
+        }
+    };
+
+    private final DoubleHistogram requestDuration;
+
+    @Inject
+    public RestClientMetricsFilter(Meter meter) {
+        this.requestDuration = meter.histogramBuilder("discovery.client.request.duration")
+                .setDescription("Duration of calls to upstream services, per REST client")
+                .setUnit("s")
+                .build();
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        requestContext.setProperty(STARTED_AT, System.nanoTime());
+        // response filters don't run for calls that fail without a response
+        if (requestContext instanceof ClientRequestContextImpl context) {
+            context.getRestClientRequestContext().getResult()
+                    .whenComplete((response, failure) -> {
+                        if (failure != null) {
+                            recordFailure(requestContext, failure);
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext,
+            ClientResponseContext responseContext) {
+        record(requestContext, STATUS, (long) responseContext.getStatus());
+    }
+
+    void recordFailure(ClientRequestContext requestContext, Throwable failure) {
+        var cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof WebApplicationException exception
+                && exception.getResponse() != null) {
+            record(requestContext, STATUS, (long) exception.getResponse().getStatus());
+            return;
+        }
+        var error = cause instanceof ProcessingException && cause.getCause() != null
+                ? cause.getCause()
+                : cause;
+        record(requestContext, ERROR_TYPE, error.getClass().getName());
+    }
+
+    /**
+     * Records a call once, whichever of its response or its failure is seen first
+     */
+    private <T> void record(ClientRequestContext requestContext, AttributeKey<T> key, T value) {
+        if (!(requestContext.getProperty(STARTED_AT) instanceof Long startedAt)) {
+            return;
+        }
+        requestContext.removeProperty(STARTED_AT);
+        var client = requestContext.getProperty(INVOKED_METHOD) instanceof Method method
+                ? CLIENT_NAMES.get(method.getDeclaringClass())
+                : requestContext.getUri().getHost();
+        requestDuration.record((System.nanoTime() - startedAt) / 1e9,
+                Attributes.of(CLIENT, client, key, value));
+    }
+}
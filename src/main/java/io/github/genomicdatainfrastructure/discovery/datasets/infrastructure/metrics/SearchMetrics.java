@@ -0,0 +1,94 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * OpenTelemetry instruments for the dataset search pipeline. Every {@link Stage} records its
+ * duration in {@code discovery.search.stage.duration}, tagged by {@code stage} and
+ * {@code outcome}; the sizes of the collected id sets and the number of CKAN pages read to collect
+ * them are recorded as histograms as well.
+ */
+@ApplicationScoped
+public class SearchMetrics {
+
+    private static final AttributeKey<String> STAGE = AttributeKey.stringKey("stage");
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> SOURCE = AttributeKey.stringKey("source");
+
+    private final DoubleHistogram stageDuration;
+    private final LongHistogram idsCount;
+    private final LongHistogram ckanIdPages;
+
+    @Inject
+    public SearchMetrics(Meter meter) {
+        this.stageDuration = meter.histogramBuilder("discovery.search.stage.duration")
+                .setDescription("Duration of a dataset search stage")
+                .setUnit("s")
+                .build();
+        this.idsCount = meter.histogramBuilder("discovery.search.ids")
+                .setDescription("Number of dataset ids collected per source, and intersected")
+                .setUnit("{dataset}")
+                .ofLongs()
+                .build();
+        this.ckanIdPages = meter.histogramBuilder("discovery.search.ckan_ids.pages")
+                .setDescription("Number of CKAN pages read to collect the dataset ids of a query")
+                .setUnit("{page}")
+                .ofLongs()
+                .build();
+    }
+
+    public <T> T time(Stage stage, Supplier<T> action) {
+        var start = System.nanoTime();
+        var succeeded = false;
+        try {
+            var result = action.get();
+            succeeded = true;
+            return result;
+        } finally {
+            stageDuration.record((System.nanoTime() - start) / 1e9,
+                    succeeded ? stage.success : stage.error);
+        }
+    }
+
+    public void recordIds(String source, Map<String, Integer> datasetIds) {
+        if (datasetIds != null) {
+            idsCount.record(datasetIds.size(), Attributes.of(SOURCE, source));
+        }
+    }
+
+    public void recordCkanIdPages(int pages) {
+        ckanIdPages.record(pages);
+    }
+
+    public enum Stage {
+        CKAN_IDS("ckan_ids"),
+        TOKEN_EXCHANGE("token_exchange"),
+        BEACON_IDS("beacon_ids"),
+        CKAN_SEARCH("ckan_search"),
+        CKAN_RESTRICTED_SEARCH("ckan_restricted_search"),
+        FACET_MAPPING("facet_mapping"),
+        HELP_TEXTS("help_texts"),
+        SUPPLEMENTAL_FACETS("supplemental_facets");
+
+        private final Attributes success;
+        private final Attributes error;
+
+        Stage(String name) {
+            this.success = Attributes.of(STAGE, name, OUTCOME, "success");
+            this.error = Attributes.of(STAGE, name, OUTCOME, "error");
+        }
+    }
+}
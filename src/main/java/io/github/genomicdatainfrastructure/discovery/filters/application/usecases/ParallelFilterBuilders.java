@@ -0,0 +1,90 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.filters.application.usecases;
+
+import io.github.genomicdatainfrastructure.discovery.filters.application.ports.FilterBuilder;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
+import io.github.genomicdatainfrastructure.discovery.model.Filter;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import lombok.extern.java.Log;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Runs the {@link FilterBuilder}s concurrently, each bounded by
+ * {@code datasets.filter-builder-timeout}. A builder that fails or doesn't answer in time is
+ * logged and left out, so one slow source doesn't hold back the filters of the others. A late
+ * builder is not cancelled, so whatever it caches is ready for the next request. Filters are
+ * returned in builder order.
+ */
+@Log
+@ApplicationScoped
+public class ParallelFilterBuilders {
+
+    private final Instance<FilterBuilder> filterBuilders;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    @Inject
+    public ParallelFilterBuilders(Instance<FilterBuilder> filterBuilders,
+            @VirtualThreads ExecutorService executor,
+            DatasetsConfig datasetsConfig) {
+        this.filterBuilders = filterBuilders;
+        this.executor = executor;
+        this.timeout = datasetsConfig.filterBuilderTimeout();
+    }
+
+    public List<Filter> build(Predicate<FilterBuilder> selection, String accessToken,
+            String preferredLanguage) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var tasks = filterBuilders.stream()
+                .filter(selection)
+                .map(filterBuilder -> Map.entry(filterBuilder.source(), executor.submit(
+                        () -> filterBuilder.build(accessToken, preferredLanguage))))
+                .toList();
+
+        var filters = new ArrayList<Filter>();
+        try {
+            for (var task : tasks) {
+                filters.addAll(await(task.getKey(), task.getValue(), deadline));
+            }
+        } catch (InterruptedException exception) {
+            tasks.forEach(task -> task.getValue().cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building filters", exception);
+        }
+        return Collections.unmodifiableList(filters);
+    }
+
+    private List<Filter> await(String source, Future<List<Filter>> task, long deadline)
+            throws InterruptedException {
+        try {
+            var filters = task.get(Math.max(0, deadline - System.nanoTime()),
+                    TimeUnit.NANOSECONDS);
+            return filters != null ? filters : List.of();
+        } catch (TimeoutException exception) {
+            log.log(Level.WARNING, () -> "Leaving out %s filters, not built within %s"
+                    .formatted(source, timeout));
+        } catch (ExecutionException exception) {
+            log.log(Level.WARNING, exception.getCause(),
+                    () -> "Leaving out %s filters, they could not be built".formatted(source));
+        }
+        return List.of();
+    }
+}
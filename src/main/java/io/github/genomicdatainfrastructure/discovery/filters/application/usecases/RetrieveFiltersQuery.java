@@ -4,54 +4,67 @@
 
 package io.github.genomicdatainfrastructure.discovery.filters.application.usecases;
 
-import io.github.genomicdatainfrastructure.discovery.filters.application.ports.FilterBuilder;
 import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
 import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig.FilterGroup;
 import io.github.genomicdatainfrastructure.discovery.model.Filter;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
-import lombok.RequiredArgsConstructor;
 
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import static java.util.Optional.ofNullable;
 
+/**
+ * Collects the filters of every source, built concurrently by {@link ParallelFilterBuilders}, and
+ * assigns each its configured group. The key to group
+ * index is built once from {@link DatasetsConfig}, and grouped filters are returned as new
+ * instances, so the ones cached by the builders are shared between requests and never modified.
+ */
 @ApplicationScoped
-@RequiredArgsConstructor(onConstructor = @__(@Inject))
 public class RetrieveFiltersQuery {
 
-    private final Instance<FilterBuilder> filterBuilders;
-    private final DatasetsConfig datasetsConfig;
+    private final ParallelFilterBuilders filterBuilders;
+    private final Map<String, String> groupsByFilterKey;
+    private final String noGroupKey;
+
+    @Inject
+    public RetrieveFiltersQuery(ParallelFilterBuilders filterBuilders,
+            DatasetsConfig datasetsConfig) {
+        this.filterBuilders = filterBuilders;
+        this.groupsByFilterKey = indexGroups(datasetsConfig);
+        this.noGroupKey = datasetsConfig.noGroupKey();
+    }
 
     public List<Filter> execute(String accessToken, String preferredLanguage) {
         return filterBuilders
+                .build(filterBuilder -> true, accessToken, preferredLanguage)
                 .stream()
-                .map(filterBuilder -> filterBuilder.build(accessToken, preferredLanguage))
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
                 .map(this::mapGroup)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     private Filter mapGroup(Filter filter) {
-        var nonNullGroups = ofNullable(datasetsConfig.filterGroups())
-                .orElseGet(List::of);
-
-        var group = nonNullGroups.stream()
-                .filter(it -> ofNullable(it.filters()).orElseGet(java.util.Set::of)
-                        .stream()
-                        .anyMatch(configuredFilter -> filter.getKey().equals(configuredFilter
-                                .key())))
-                .map(FilterGroup::key)
-                .findFirst()
-                .orElse(datasetsConfig.noGroupKey());
-
-        filter.setGroup(group);
+        var group = groupsByFilterKey.getOrDefault(filter.getKey(), noGroupKey);
+        if (Objects.equals(group, filter.getGroup())) {
+            return filter;
+        }
+        return filter.toBuilder()
+                .group(group)
+                .build();
+    }
 
-        return filter;
+    private static Map<String, String> indexGroups(DatasetsConfig datasetsConfig) {
+        // the first group listing a filter wins, as filters are expected in one group only
+        var groupsByFilterKey = new HashMap<String, String>();
+        for (FilterGroup group : ofNullable(datasetsConfig.filterGroups()).orElseGet(List::of)) {
+            for (var filter : ofNullable(group.filters()).orElseGet(Set::of)) {
+                groupsByFilterKey.putIfAbsent(filter.key(), group.key());
+            }
+        }
+        return Map.copyOf(groupsByFilterKey);
     }
 }
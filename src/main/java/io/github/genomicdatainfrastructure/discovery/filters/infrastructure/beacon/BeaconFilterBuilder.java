@@ -4,21 +4,15 @@
 
 package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.beacon;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.auth.BeaconAuth;
 import io.github.genomicdatainfrastructure.discovery.filters.application.ports.FilterBuilder;
 import io.github.genomicdatainfrastructure.discovery.model.Filter;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import lombok.SneakyThrows;
 
-import java.io.IOException;
 import java.util.List;
 
-import static java.util.Optional.ofNullable;
-
 @ApplicationScoped
 @LookupIfProperty(name = "sources.beacon", stringValue = "true")
 public class BeaconFilterBuilder implements FilterBuilder {
@@ -26,13 +20,13 @@ public class BeaconFilterBuilder implements FilterBuilder {
     private static final String BEACON_FILTER_SOURCE = "beacon";
 
     private final BeaconAuth beaconAuth;
-    private final ObjectMapper objectMapper;
+    private final BeaconFilterCatalogue beaconFilterCatalogue;
 
     @Inject
     public BeaconFilterBuilder(BeaconAuth beaconAuth,
-            ObjectMapper objectMapper) {
+            BeaconFilterCatalogue beaconFilterCatalogue) {
         this.beaconAuth = beaconAuth;
-        this.objectMapper = objectMapper;
+        this.beaconFilterCatalogue = beaconFilterCatalogue;
     }
 
     @Override
@@ -40,21 +34,12 @@ public class BeaconFilterBuilder implements FilterBuilder {
         return BEACON_FILTER_SOURCE;
     }
 
-    @SneakyThrows
     @Override
     public List<Filter> build(final String accessToken, String preferredLanguage) {
         final var beaconAuthorization = beaconAuth.retrieveAuthorization(accessToken);
         if (beaconAuthorization == null) {
             return List.of();
         }
-        final var inputStream = ofNullable(getClass()
-                .getClassLoader()
-                .getResourceAsStream("META-INF/resources/beacon-filters.json"))
-                .orElseThrow(() -> new IOException(
-                        "Resource file 'beacon-filters.json' not found"));
-
-        return objectMapper.readValue(inputStream,
-                new TypeReference<>() {
-                });
+        return beaconFilterCatalogue.filters();
     }
 }
@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.beacon;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconConfiguration;
+import io.github.genomicdatainfrastructure.discovery.model.Filter;
+import io.quarkus.runtime.Startup;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * The static catalogue of Beacon filters, parsed once from the bundled
+ * {@code beacon-filters.json}, or from {@code sources.beacon-filters-location} when set. An
+ * external file is checked for changes at most every
+ * {@code sources.beacon-filters-reload-interval} and reloaded in place; a file that can't be read
+ * or parsed keeps the previous catalogue.
+ */
+@Log
+@Startup
+@ApplicationScoped
+public class BeaconFilterCatalogue {
+
+    private static final String CLASSPATH_LOCATION = "META-INF/resources/beacon-filters.json";
+    private static final TypeReference<List<Filter>> FILTERS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Optional<Path> externalLocation;
+    private final Duration reloadInterval;
+    private final Clock clock;
+    private final AtomicReference<Instant> nextCheck;
+    private volatile Catalogue catalogue;
+
+    @Inject
+    public BeaconFilterCatalogue(ObjectMapper objectMapper,
+            BeaconConfiguration beaconConfiguration) {
+        this(objectMapper, beaconConfiguration.beaconFiltersLocation().map(Path::of),
+                beaconConfiguration.beaconFiltersReloadInterval(), Clock.systemUTC());
+    }
+
+    BeaconFilterCatalogue(ObjectMapper objectMapper, Optional<Path> externalLocation,
+            Duration reloadInterval, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.externalLocation = externalLocation;
+        this.reloadInterval = reloadInterval;
+        this.clock = clock;
+        this.catalogue = externalLocation
+                .flatMap(this::readExternal)
+                .orElseGet(this::readClasspath);
+        this.nextCheck = new AtomicReference<>(clock.instant().plus(reloadInterval));
+    }
+
+    /**
+     * Returns copies of the catalogue filters, so callers may set per-request fields such as the
+     * group or help text; nested lists are shared, read-only views.
+     */
+    public List<Filter> filters() {
+        reloadIfChanged();
+        return catalogue.filters()
+                .stream()
+                .map(filter -> filter.toBuilder().build())
+                .toList();
+    }
+
+    private void reloadIfChanged() {
+        if (externalLocation.isEmpty()) {
+            return;
+        }
+
+        var now = clock.instant();
+        var scheduled = nextCheck.get();
+        if (now.isBefore(scheduled)
+                || !nextCheck.compareAndSet(scheduled, now.plus(reloadInterval))) {
+            return;
+        }
+
+        var location = externalLocation.get();
+        try {
+            if (Files.getLastModifiedTime(location).equals(catalogue.lastModified())) {
+                return;
+            }
+        } catch (IOException exception) {
+            log.log(Level.WARNING, "Could not check Beacon filter catalogue: " + location,
+                    exception);
+            return;
+        }
+        readExternal(location).ifPresent(reloaded -> catalogue = reloaded);
+    }
+
+    private Optional<Catalogue> readExternal(Path location) {
+        try {
+            var lastModified = Files.getLastModifiedTime(location);
+            try (var content = Files.newInputStream(location)) {
+                return Optional.of(new Catalogue(parse(content), lastModified));
+            }
+        } catch (IOException exception) {
+            log.log(Level.WARNING, "Could not read Beacon filter catalogue: " + location,
+                    exception);
+            return Optional.empty();
+        }
+    }
+
+    private Catalogue readClasspath() {
+        try (var content = getClass().getClassLoader().getResourceAsStream(CLASSPATH_LOCATION)) {
+            if (content == null) {
+                throw new IllegalStateException("Resource file 'beacon-filters.json' not found");
+            }
+            return new Catalogue(parse(content), null);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Could not read resource file 'beacon-filters.json'",
+                    exception);
+        }
+    }
+
+    private List<Filter> parse(InputStream content) throws IOException {
+        return objectMapper.readValue(content, FILTERS_TYPE)
+                .stream()
+                .map(filter -> filter.toBuilder()
+                        .values(readOnly(filter.getValues()))
+                        .operators(readOnly(filter.getOperators()))
+                        .entries(readOnly(filter.getEntries()))
+                        .build())
+                .toList();
+    }
+
+    private static <T> List<T> readOnly(List<T> values) {
+        return values == null ? null : Collections.unmodifiableList(values);
+    }
+
+    private record Catalogue(List<Filter> filters, FileTime lastModified) {
+    }
+}
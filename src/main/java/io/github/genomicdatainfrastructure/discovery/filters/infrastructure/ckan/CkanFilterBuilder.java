@@ -4,32 +4,52 @@
 
 package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan;
 
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
 import io.github.genomicdatainfrastructure.discovery.filters.application.ports.FilterBuilder;
 import io.github.genomicdatainfrastructure.discovery.model.Filter;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.github.genomicdatainfrastructure.discovery.utils.StaleWhileRevalidateCache;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.time.Clock;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 
 import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanConfiguration.CKAN_FILTER_SOURCE;
 
+/**
+ * Builds the CKAN filters from an unfiltered facet query. The facets only change when the catalogue
+ * is harvested, so the mapped filters are cached per language, see
+ * {@code ckan.facet-catalogue.*}.
+ */
 @ApplicationScoped
 public class CkanFilterBuilder implements FilterBuilder {
 
     private final CkanQueryApi ckanQueryApi;
     private final CkanSearchFacetsMapper ckanSearchFacetsMapper;
     private final FilterHelpTextService filterHelpTextService;
+    private final StaleWhileRevalidateCache<String, List<Filter>> filtersByLanguage;
 
+    @Inject
     public CkanFilterBuilder(
             @RestClient CkanQueryApi ckanQueryApi,
             CkanSearchFacetsMapper ckanSearchFacetsMapper,
-            FilterHelpTextService filterHelpTextService
+            FilterHelpTextService filterHelpTextService,
+            CkanClientConfiguration ckanClientConfiguration,
+            @VirtualThreads ExecutorService executor
     ) {
         this.ckanQueryApi = ckanQueryApi;
         this.ckanSearchFacetsMapper = ckanSearchFacetsMapper;
         this.filterHelpTextService = filterHelpTextService;
+        var facetCatalogue = ckanClientConfiguration.facetCatalogue();
+        this.filtersByLanguage = new StaleWhileRevalidateCache<>("CKAN filters",
+                facetCatalogue.ttl(), facetCatalogue.maxStale(), facetCatalogue.maxEntries(),
+                executor, Clock.systemUTC());
     }
 
     @Override
@@ -39,6 +59,17 @@ public class CkanFilterBuilder implements FilterBuilder {
 
     @Override
     public List<Filter> build(String accessToken, String preferredLanguage) {
+        // Callers set the group and help text, so each call works on its own copies
+        var filters = filtersByLanguage.get(Objects.requireNonNullElse(preferredLanguage, ""),
+                () -> fetchFilters(preferredLanguage))
+                .stream()
+                .map(filter -> filter.toBuilder().build())
+                .toList();
+
+        return filterHelpTextService.enrich(filters, preferredLanguage);
+    }
+
+    private List<Filter> fetchFilters(String preferredLanguage) {
         var request = ckanSearchFacetsMapper.applyStats(PackageSearchRequest.builder()
                 .rows(0)
                 .start(0)
@@ -51,9 +82,6 @@ public class CkanFilterBuilder implements FilterBuilder {
                 request
         );
 
-        return filterHelpTextService.enrich(
-                ckanSearchFacetsMapper.map(response.getResult()),
-                preferredLanguage
-        );
+        return ckanSearchFacetsMapper.map(response.getResult());
     }
 }
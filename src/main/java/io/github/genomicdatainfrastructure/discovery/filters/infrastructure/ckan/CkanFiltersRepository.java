@@ -4,16 +4,30 @@
 
 package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan;
 
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CkanCatalogueIndex;
 import io.github.genomicdatainfrastructure.discovery.filters.application.ports.FiltersRepository;
 import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.mapper.CkanFilterMapper;
 import io.github.genomicdatainfrastructure.discovery.model.ValueLabel;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+import io.github.genomicdatainfrastructure.discovery.utils.StaleWhileRevalidateCache;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.time.Clock;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
+/**
+ * Looks up the values of a single CKAN filter, cached per filter key and language like the
+ * filters themselves, see {@code ckan.facet-catalogue.*}. Filters mirrored by the
+ * {@link CkanCatalogueIndex} are answered from it instead.
+ */
 @ApplicationScoped
 public class CkanFiltersRepository implements FiltersRepository {
 
@@ -21,16 +35,38 @@ public class CkanFiltersRepository implements FiltersRepository {
 
     private final CkanQueryApi ckanQueryApi;
     private final CkanFilterMapper ckanFilterMapper;
+    private final CkanCatalogueIndex catalogueIndex;
+    private final StaleWhileRevalidateCache<ValuesKey, List<ValueLabel>> valuesByKey;
 
+    @Inject
     public CkanFiltersRepository(@RestClient CkanQueryApi ckanQueryApi,
-            CkanFilterMapper ckanFilterMapper) {
+            CkanFilterMapper ckanFilterMapper,
+            CkanCatalogueIndex catalogueIndex,
+            CkanClientConfiguration ckanClientConfiguration,
+            @VirtualThreads ExecutorService executor) {
         this.ckanQueryApi = ckanQueryApi;
 
         this.ckanFilterMapper = ckanFilterMapper;
+        this.catalogueIndex = catalogueIndex;
+        var facetCatalogue = ckanClientConfiguration.facetCatalogue();
+        this.valuesByKey = new StaleWhileRevalidateCache<>("CKAN filter values",
+                facetCatalogue.ttl(), facetCatalogue.maxStale(), facetCatalogue.maxEntries(),
+                executor, Clock.systemUTC());
     }
 
     @Override
     public List<ValueLabel> getValuesForFilter(final String key, String preferredLanguage) {
+        var indexed = catalogueIndex.catalogueFacets(preferredLanguage)
+                .map(PackagesSearchResult::getSearchFacets)
+                .filter(searchFacets -> searchFacets.containsKey(key));
+        if (indexed.isPresent()) {
+            return Collections.unmodifiableList(ckanFilterMapper.map(indexed.get(), key));
+        }
+        return valuesByKey.get(new ValuesKey(key, preferredLanguage),
+                () -> fetchValues(key, preferredLanguage));
+    }
+
+    private List<ValueLabel> fetchValues(final String key, String preferredLanguage) {
 
         final var facetField = SELECTED_FACETS_PATTERN.formatted(key);
 
@@ -44,6 +80,9 @@ public class CkanFiltersRepository implements FiltersRepository {
                 preferredLanguage,
                 request
         );
-        return ckanFilterMapper.map(response, key);
+        return Collections.unmodifiableList(ckanFilterMapper.map(response, key));
+    }
+
+    private record ValuesKey(String key, String preferredLanguage) {
     }
 }
@@ -23,6 +23,7 @@ import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -51,11 +52,17 @@ public class CkanSearchFacetsMapper {
     private final String selectedFacets;
     private final String statsFields;
     private final Map<String, FilterMetadata> filtersMetadata;
+    private final Map<String, String> compositeByComponent;
+    private final Map<String, FilterMetadata> rangeFiltersMetadata;
+    private final Map<String, FilterFactory> filterFactories;
 
     public CkanSearchFacetsMapper(DatasetsConfig datasetsConfig) {
         this.selectedFacets = formatFacetFieldList(
                 Arrays.stream(datasetsConfig.filters().split(",")).map(String::trim).toList());
         this.filtersMetadata = extractFiltersMetadata(datasetsConfig);
+        this.compositeByComponent = indexRangeComponents(filtersMetadata);
+        this.rangeFiltersMetadata = rangeFiltersMetadata(filtersMetadata);
+        this.filterFactories = filterFactories(filtersMetadata);
         this.statsFields = datasetsConfig.statsEnabled()
                 ? buildStatsFields(filtersMetadata)
                 : null;
@@ -86,65 +93,75 @@ public class CkanSearchFacetsMapper {
         return filters(nonNullSearchFacets, statsFieldValues);
     }
 
+    /**
+     * Maps the facets in a single pass: every facet is either a filter of its own or a range
+     * component folded, with its siblings, into the composite filter; the composite and components
+     * consumed that way are skipped when they come up later. Range filters without any facet are
+     * added from their stats, if any.
+     */
     private List<Filter> filters(Map<String, CkanFacet> facets,
             Map<String, CkanStatsField> statsFieldValues) {
         var filtersByKey = new LinkedHashMap<String, Filter>();
-        var processedKeys = new HashSet<String>();
+        var consumedKeys = new HashSet<String>();
 
-        facets.entrySet()
-                .stream()
-                .filter(entry -> !processedKeys.contains(entry.getKey()))
-                .map(f -> this.filter(f, facets, statsFieldValues, processedKeys))
-                .filter(Objects::nonNull)
-                .forEach(filter -> filtersByKey.put(filter.getKey(), filter));
+        for (var entry : facets.entrySet()) {
+            if (consumedKeys.contains(entry.getKey())) {
+                continue;
+            }
 
-        filtersMetadata.forEach((filterKey, metadata) -> {
-            if (FilterType.DATETIME.equals(metadata.type)) {
-                filtersByKey.putIfAbsent(filterKey,
-                        buildDateTimeFilter(filterKey, null, metadata, statsFieldValues));
-                return;
+            var key = entry.getKey();
+            var metadata = filtersMetadata.get(key);
+            if (metadata == null && compositeByComponent.containsKey(key)) {
+                key = compositeByComponent.get(key);
+                metadata = filtersMetadata.get(key);
             }
-            if (FilterType.NUMBER.equals(metadata.type)) {
-                filtersByKey.putIfAbsent(filterKey,
-                        buildNumberFilter(filterKey, null, metadata, statsFieldValues));
+
+            var facet = entry.getValue();
+            var items = facet.getItems();
+            if (metadata != null && !metadata.rangeComposite.isEmpty()) {
+                // the composite's own facet, when present, describes the filter better than
+                // whichever component came first
+                facet = facets.getOrDefault(key, facet);
+                items = rangeCompositeItems(facet, metadata, facets, consumedKeys);
+                consumedKeys.add(key);
             }
-        });
+
+            var factory = filterFactories.getOrDefault(key, this::buildDropdownFilter);
+            filtersByKey.put(key, factory.build(key, facet, items, metadata, statsFieldValues));
+        }
+
+        rangeFiltersMetadata.forEach((filterKey, metadata) -> filtersByKey.computeIfAbsent(
+                filterKey, absent -> filterFactories.get(filterKey)
+                        .build(filterKey, null, null, metadata, statsFieldValues)));
 
         return List.copyOf(filtersByKey.values());
     }
 
-    private Filter filter(Map.Entry<String, CkanFacet> entry, Map<String, CkanFacet> facets,
-            Map<String, CkanStatsField> statsFieldValues, Set<String> skipList) {
-        var key = entry.getKey();
-        var facet = entry.getValue();
-
-        var metadata = filtersMetadata.get(key);
-        if (metadata == null) {
-            // check if this is part of a range composite
-            var rangeComponentMatch = filtersMetadata.entrySet()
-                    .stream()
-                    .filter(e -> e.getValue().rangeComposite.contains(entry.getKey()))
-                    .findFirst();
-            if (rangeComponentMatch.isPresent()) {
-                var component = rangeComponentMatch.orElseThrow();
-                key = component.getKey();
-                metadata = component.getValue();
-            }
-        }
-
-        if (metadata != null && !metadata.rangeComposite.isEmpty()) {
-            mergeRangeComposite(facet, metadata, facets, skipList);
-        }
+    private List<CkanValueLabel> rangeCompositeItems(CkanFacet facet, FilterMetadata metadata,
+            Map<String, CkanFacet> facets, Set<String> consumedKeys) {
+        // Gather individual range components' items into the composite filter, keeping the
+        // composite facet's own title (e.g. "Age Range"/"Leeftijdsbereik", translated from the
+        // typical_age term) untouched rather than joining the components' titles
+        // (e.g. "Minimum Typical Age - Maximum Typical Age").
+        var items = new ArrayList<CkanValueLabel>();
 
-        if (metadata != null && FilterType.DATETIME.equals(metadata.type)) {
-            return buildDateTimeFilter(key, facet, metadata, statsFieldValues);
+        for (var component : metadata.rangeComposite) {
+            var componentFacet = facets.get(component);
+            if (componentFacet == null) {
+                continue;
+            }
+            if (componentFacet.getItems() != null) {
+                items.addAll(componentFacet.getItems());
+            }
+            consumedKeys.add(component);
         }
 
-        if (metadata != null && FilterType.NUMBER.equals(metadata.type)) {
-            return buildNumberFilter(key, facet, metadata, statsFieldValues);
-        }
+        return items.isEmpty() ? facet.getItems() : items;
+    }
 
-        var values = ofNullable(facet.getItems())
+    private Filter buildDropdownFilter(String key, CkanFacet facet, List<CkanValueLabel> items,
+            FilterMetadata metadata, Map<String, CkanStatsField> statsFieldValues) {
+        var values = ofNullable(items)
                 .orElseGet(List::of)
                 .stream()
                 .map(value -> ValueLabel.builder()
@@ -168,35 +185,10 @@ public class CkanSearchFacetsMapper {
                 .build();
     }
 
-    private void mergeRangeComposite(CkanFacet facet, FilterMetadata metadata,
-            Map<String, CkanFacet> facets,
-            Set<String> skipList) {
-        // Gather individual range components' items into the composite facet, keeping the
-        // composite facet's own title (e.g. "Age Range"/"Leeftijdsbereik", translated from the
-        // typical_age term) untouched rather than joining the components' titles
-        // (e.g. "Minimum Typical Age - Maximum Typical Age").
-        var items = new ArrayList<CkanValueLabel>();
-
-        for (var component : metadata.rangeComposite) {
-            if (!facets.containsKey(component)) {
-                continue;
-            }
-            var componentFacet = facets.get(component);
-            items.addAll(componentFacet.getItems());
-
-            // skip processing the individual components
-            skipList.add(component);
-        }
-
-        if (!items.isEmpty()) {
-            facet.items(items);
-        }
-    }
-
-    private Filter buildDateTimeFilter(String key, CkanFacet facet, FilterMetadata metadata,
-            Map<String, CkanStatsField> statsFieldValues) {
+    private Filter buildDateTimeFilter(String key, CkanFacet facet, List<CkanValueLabel> items,
+            FilterMetadata metadata, Map<String, CkanStatsField> statsFieldValues) {
         var range = resolveStatsRange(metadata, statsFieldValues)
-                .orElseGet(() -> extractDateTimeRange(facet));
+                .orElseGet(() -> extractDateTimeRange(items));
         return Filter.builder()
                 .source(CKAN_FILTER_SOURCE)
                 .type(FilterType.DATETIME)
@@ -208,10 +200,10 @@ public class CkanSearchFacetsMapper {
                 .build();
     }
 
-    private Filter buildNumberFilter(String key, CkanFacet facet, FilterMetadata metadata,
-            Map<String, CkanStatsField> statsFieldValues) {
+    private Filter buildNumberFilter(String key, CkanFacet facet, List<CkanValueLabel> items,
+            FilterMetadata metadata, Map<String, CkanStatsField> statsFieldValues) {
         var range = resolveStatsRange(metadata, statsFieldValues)
-                .orElseGet(() -> extractNumberRange(facet));
+                .orElseGet(() -> extractNumberRange(items));
         return Filter.builder()
                 .source(CKAN_FILTER_SOURCE)
                 .type(FilterType.NUMBER)
@@ -257,12 +249,12 @@ public class CkanSearchFacetsMapper {
                 .build());
     }
 
-    private FilterRange extractDateTimeRange(CkanFacet facet) {
-        if (facet == null || facet.getItems() == null || facet.getItems().isEmpty()) {
+    private FilterRange extractDateTimeRange(List<CkanValueLabel> items) {
+        if (items == null || items.isEmpty()) {
             return null;
         }
 
-        var bounds = facet.getItems().stream()
+        var bounds = items.stream()
                 .map(CkanValueLabel::getName)
                 .map(this::parseOffsetDateTime)
                 .flatMap(Optional::stream)
@@ -281,15 +273,15 @@ public class CkanSearchFacetsMapper {
                 .build();
     }
 
-    private FilterRange extractNumberRange(CkanFacet facet) {
-        if (facet == null || facet.getItems() == null || facet.getItems().isEmpty()) {
+    private FilterRange extractNumberRange(List<CkanValueLabel> items) {
+        if (items == null || items.isEmpty()) {
             return null;
         }
 
         NumericBound min = null;
         NumericBound max = null;
 
-        for (var item : facet.getItems()) {
+        for (var item : items) {
             var bound = parseNumericValue(item.getName()).orElse(null);
             if (bound == null) {
                 continue;
@@ -366,6 +358,37 @@ public class CkanSearchFacetsMapper {
                         (left, right) -> right, LinkedHashMap::new));
     }
 
+    private Map<String, String> indexRangeComponents(Map<String, FilterMetadata> filtersMetadata) {
+        var compositeByComponent = new LinkedHashMap<String, String>();
+        filtersMetadata.forEach((filterKey, metadata) -> metadata.rangeComposite
+                .forEach(component -> compositeByComponent.putIfAbsent(component, filterKey)));
+        return Collections.unmodifiableMap(compositeByComponent);
+    }
+
+    private Map<String, FilterMetadata> rangeFiltersMetadata(
+            Map<String, FilterMetadata> filtersMetadata) {
+        var rangeFilters = new LinkedHashMap<String, FilterMetadata>();
+        filtersMetadata.forEach((filterKey, metadata) -> {
+            if (FilterType.DATETIME.equals(metadata.type)
+                    || FilterType.NUMBER.equals(metadata.type)) {
+                rangeFilters.put(filterKey, metadata);
+            }
+        });
+        return Collections.unmodifiableMap(rangeFilters);
+    }
+
+    private Map<String, FilterFactory> filterFactories(
+            Map<String, FilterMetadata> filtersMetadata) {
+        var factories = new LinkedHashMap<String, FilterFactory>();
+        filtersMetadata.forEach((filterKey, metadata) -> factories.put(filterKey,
+                switch (metadata.type) {
+                    case DATETIME -> this::buildDateTimeFilter;
+                    case NUMBER -> this::buildNumberFilter;
+                    default -> this::buildDropdownFilter;
+                }));
+        return Collections.unmodifiableMap(factories);
+    }
+
     private String buildStatsFields(Map<String, FilterMetadata> filtersMetadata) {
         var fields = filtersMetadata.values()
                 .stream()
@@ -387,4 +410,10 @@ public class CkanSearchFacetsMapper {
 
     private record NumericBound(BigDecimal numeric, String raw) {
     }
+
+    @FunctionalInterface
+    private interface FilterFactory {
+        Filter build(String key, CkanFacet facet, List<CkanValueLabel> items,
+                FilterMetadata metadata, Map<String, CkanStatsField> statsFieldValues);
+    }
 }
@@ -6,6 +6,7 @@ package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.cka
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.HelpTexts;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.quarkus.HelpTextConfig;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.yaml.YamlHelpTextLoader;
@@ -13,18 +14,33 @@ import io.github.genomicdatainfrastructure.discovery.model.Filter;
 import io.github.genomicdatainfrastructure.discovery.model.HelpText;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
 import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanFilterHelpTextsResponse;
+import io.github.genomicdatainfrastructure.discovery.utils.StaleWhileRevalidateCache;
+import io.quarkus.virtual.threads.VirtualThreads;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.ProcessingException;
-import jakarta.ws.rs.WebApplicationException;
+import jakarta.inject.Inject;
 import lombok.extern.java.Log;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
+/**
+ * Sets the help texts of filters. The CKAN help texts are cached per (language, filter keys), see
+ * {@code ckan.help-texts.*}. A search never waits longer than {@code ckan.help-texts.max-wait}
+ * for them: past that, the filters are returned without help texts while the pending load still
+ * fills the cache, and stale help texts are served while they are refreshed in the background.
+ */
 @Log
 @ApplicationScoped
 public class FilterHelpTextService {
@@ -33,14 +49,24 @@ public class FilterHelpTextService {
     private final ObjectMapper objectMapper;
     private final HelpTextConfig helpTextConfig;
     private final YamlHelpTextLoader yamlHelpTextLoader;
+    private final Duration maxWait;
+    private final StaleWhileRevalidateCache<HelpTextsKey, Map<String, String>> helpTexts;
 
+    @Inject
     public FilterHelpTextService(@RestClient CkanQueryApi ckanQueryApi,
             ObjectMapper objectMapper, HelpTextConfig helpTextConfig,
-            YamlHelpTextLoader yamlHelpTextLoader) {
+            YamlHelpTextLoader yamlHelpTextLoader,
+            CkanClientConfiguration ckanClientConfiguration,
+            @VirtualThreads ExecutorService executor) {
         this.ckanQueryApi = ckanQueryApi;
         this.objectMapper = objectMapper;
         this.helpTextConfig = helpTextConfig;
         this.yamlHelpTextLoader = yamlHelpTextLoader;
+        var configuration = ckanClientConfiguration.helpTexts();
+        this.maxWait = configuration.maxWait();
+        this.helpTexts = new StaleWhileRevalidateCache<>("CKAN filter help texts",
+                configuration.ttl(), configuration.maxStale(), configuration.maxEntries(),
+                executor, Clock.systemUTC());
     }
 
     public List<Filter> enrich(List<Filter> filters, String preferredLanguage) {
@@ -73,20 +99,33 @@ public class FilterHelpTextService {
     }
 
     private Map<String, String> retrieveHelpTexts(List<Filter> filters, String preferredLanguage) {
+        var keys = toJsonArray(filters);
+        var pending = helpTexts.getAsync(new HelpTextsKey(preferredLanguage, keys),
+                () -> fetchHelpTexts(preferredLanguage, keys));
         try {
-            var keys = toJsonArray(filters);
-            return Optional.ofNullable(ckanQueryApi.gdiFilterHelpTextsShow(
-                    preferredLanguage,
-                    keys
-            ))
-                    .map(CkanFilterHelpTextsResponse::getResult)
-                    .orElseGet(Map::of);
-        } catch (WebApplicationException | ProcessingException exception) {
-            log.log(Level.WARNING, "Could not retrieve CKAN filter help texts", exception);
+            return pending.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            log.log(Level.INFO, "CKAN filter help texts not ready after {0}, skipping them",
+                    maxWait);
+            return Map.of();
+        } catch (ExecutionException exception) {
+            log.log(Level.WARNING, "Could not retrieve CKAN filter help texts",
+                    exception.getCause());
+            return Map.of();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
             return Map.of();
         }
     }
 
+    private Map<String, String> fetchHelpTexts(String preferredLanguage, String keys) {
+        return Optional.ofNullable(ckanQueryApi.gdiFilterHelpTextsShow(preferredLanguage, keys))
+                .map(CkanFilterHelpTextsResponse::getResult)
+                .<Map<String, String>>map(result -> Collections.unmodifiableMap(
+                        new LinkedHashMap<>(result)))
+                .orElseGet(Map::of);
+    }
+
     private String toJsonArray(List<Filter> filters) {
         var keys = Optional.ofNullable(filters)
                 .orElseGet(List::of)
@@ -115,4 +154,7 @@ public class FilterHelpTextService {
         var normalizedHelpText = StringUtils.normalizeSpace(helpText);
         return StringUtils.isBlank(normalizedHelpText) ? null : normalizedHelpText;
     }
+
+    private record HelpTextsKey(String preferredLanguage, String keys) {
+    }
 }
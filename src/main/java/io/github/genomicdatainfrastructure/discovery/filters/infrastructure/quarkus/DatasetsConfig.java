@@ -7,6 +7,7 @@ package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.qua
 import io.github.genomicdatainfrastructure.discovery.model.FilterType;
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -27,6 +28,13 @@ public interface DatasetsConfig {
     @WithDefault("false")
     boolean statsEnabled();
 
+    /**
+     * How long each filter builder (CKAN facets, Beacon catalogue) may take before its filters
+     * are left out of the response.
+     */
+    @WithDefault("PT5S")
+    Duration filterBuilderTimeout();
+
     List<FilterGroup> filterGroups();
 
     interface FilterGroup {
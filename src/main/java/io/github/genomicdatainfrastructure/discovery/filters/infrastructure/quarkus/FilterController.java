@@ -4,25 +4,31 @@
 
 package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.api.ConditionalResponses;
 import io.github.genomicdatainfrastructure.discovery.api.FiltersQueryApi;
 import io.github.genomicdatainfrastructure.discovery.filters.application.usecases.RetrieveFiltersQuery;
 import io.github.genomicdatainfrastructure.discovery.filters.application.usecases.RetrieveFiltersValuesQuery;
 import io.quarkus.oidc.runtime.OidcJwtCallerPrincipal;
 import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import lombok.RequiredArgsConstructor;
 
 import static io.github.genomicdatainfrastructure.discovery.api.DatasetQueryApiImpl.getString;
 
+@RunOnVirtualThread
 @RequiredArgsConstructor
 public class FilterController implements FiltersQueryApi {
 
     private final SecurityIdentity identity;
     private final RetrieveFiltersQuery query;
     private final RetrieveFiltersValuesQuery valuesQuery;
+    private final ObjectMapper objectMapper;
 
     @ConfigProperty(name = "app.accept-language.default", defaultValue = "")
     String defaultAcceptLanguage;
@@ -30,11 +36,15 @@ public class FilterController implements FiltersQueryApi {
     @Context
     HttpHeaders headers;
 
+    @Context
+    Request request;
+
     @Override
     public Response retrieveFilters(String acceptLanguage) {
         var preferredLanguage = preferredLanguage();
         var facets = query.execute(accessToken(), preferredLanguage);
-        return Response.ok(facets).build();
+        return ConditionalResponses.json(request, objectMapper, facets, null,
+                identity.isAnonymous());
     }
 
     private String accessToken() {
@@ -49,7 +59,8 @@ public class FilterController implements FiltersQueryApi {
     public Response retrieveFilterValues(String key, String acceptLanguage) {
         var preferredLanguage = preferredLanguage();
         var values = valuesQuery.execute(key, preferredLanguage);
-        return Response.ok(values).build();
+        return ConditionalResponses.json(request, objectMapper, values, null,
+                identity.isAnonymous());
     }
 
     private String preferredLanguage() {
@@ -0,0 +1,49 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hex-encoded SHA-256 hashes, used to key caches by access tokens or large identifier sets
+ * without keeping them in memory, and to tag response bodies.
+ */
+@UtilityClass
+public class Sha256 {
+
+    public String hash(String value) {
+        return hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String hash(byte[] value) {
+        return HexFormat.of().formatHex(digest().digest(value));
+    }
+
+    /**
+     * Hashes the values in iteration order, each terminated by a NUL byte so that no two
+     * different sequences share the same input.
+     */
+    public String hash(Iterable<String> values) {
+        var digest = digest();
+        values.forEach(value -> {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
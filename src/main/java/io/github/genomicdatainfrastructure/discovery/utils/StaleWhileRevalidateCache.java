@@ -0,0 +1,204 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.utils;
+
+import lombok.extern.java.Log;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * In-memory cache for slowly changing upstream responses. A value younger than {@code ttl} is
+ * served as is; an older one is still served while a single background refresh replaces it, so
+ * callers only wait for the upstream on a cold key or once a value is older than
+ * {@code maxStale}. Concurrent misses for the same key share one load, failed loads are not
+ * cached, and a failed refresh keeps serving the stale value and is retried after another
+ * {@code ttl}. At most {@code maxEntries} keys are kept, the least recently used one making room
+ * for a new one; 0 disables caching.
+ */
+@Log
+public class StaleWhileRevalidateCache<K, V> {
+
+    private final String name;
+    private final Duration ttl;
+    private final Duration maxStale;
+    private final int maxEntries;
+    private final Executor executor;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Entry<V>> entries;
+
+    public StaleWhileRevalidateCache(String name, Duration ttl, Duration maxStale,
+            int maxEntries, Executor executor, Clock clock) {
+        this.name = name;
+        this.ttl = ttl;
+        this.maxStale = maxStale.compareTo(ttl) < 0 ? ttl : maxStale;
+        this.maxEntries = maxEntries;
+        this.executor = executor;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+
+        var candidate = newEntry();
+        var entry = claim(key, candidate);
+        if (entry == candidate) {
+            load(key, candidate, loader);
+        }
+
+        var value = join(entry.value());
+        refreshIfStale(key, entry, loader);
+        return value;
+    }
+
+    /**
+     * Like {@link #get}, but a cold key is loaded on the executor instead of the caller thread, so
+     * callers can bound how long they wait for it while the load still fills the cache.
+     */
+    public CompletableFuture<V> getAsync(K key, Supplier<V> loader) {
+        if (maxEntries <= 0) {
+            return CompletableFuture.supplyAsync(loader, executor);
+        }
+
+        var candidate = newEntry();
+        var entry = claim(key, candidate);
+        if (entry == candidate) {
+            executor.execute(() -> load(key, candidate, loader));
+        } else {
+            refreshIfStale(key, entry, loader);
+        }
+        return entry.value().copy();
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry<V> newEntry() {
+        var now = clock.instant();
+        return new Entry<>(new CompletableFuture<>(), now, new AtomicReference<>(now.plus(ttl)));
+    }
+
+    private Entry<V> claim(K key, Entry<V> candidate) {
+        lock.lock();
+        try {
+            return entries.merge(key, candidate,
+                    (existing, created) -> isUsable(existing) ? existing : created);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whatever the loader throws, errors included, fails the entry, so that callers waiting for it
+     * never hang, and removes it, so that the next caller loads again.
+     */
+    private void load(K key, Entry<V> entry, Supplier<V> loader) {
+        try {
+            entry.value().complete(loader.get());
+        } catch (Throwable throwable) {
+            forget(key, entry);
+            entry.value().completeExceptionally(throwable);
+        }
+    }
+
+    private void forget(K key, Entry<V> entry) {
+        lock.lock();
+        try {
+            entries.remove(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshIfStale(K key, Entry<V> entry, Supplier<V> loader) {
+        var now = clock.instant();
+        var nextRefresh = entry.nextRefresh().get();
+        if (now.isBefore(nextRefresh)
+                || !entry.nextRefresh().compareAndSet(nextRefresh, now.plus(ttl))) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                var refreshedAt = clock.instant();
+                var refreshed = new Entry<>(CompletableFuture.completedFuture(loader.get()),
+                        refreshedAt, new AtomicReference<>(refreshedAt.plus(ttl)));
+                replace(key, entry, refreshed);
+            } catch (Throwable throwable) {
+                log.log(Level.WARNING, throwable, () -> "Could not refresh %s cache entry %s"
+                        .formatted(name, key));
+            }
+        });
+    }
+
+    private void replace(K key, Entry<V> entry, Entry<V> refreshed) {
+        lock.lock();
+        try {
+            entries.replace(key, entry, refreshed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isUsable(Entry<V> entry) {
+        if (!entry.value().isDone()) {
+            return true;
+        }
+        return !entry.value().isCompletedExceptionally()
+                && clock.instant().isBefore(entry.loadedAt().plus(maxStale));
+    }
+
+    private V join(CompletableFuture<V> value) {
+        try {
+            return value.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private record Entry<V>(CompletableFuture<V> value, Instant loadedAt,
+            AtomicReference<Instant> nextRefresh) {
+    }
+}
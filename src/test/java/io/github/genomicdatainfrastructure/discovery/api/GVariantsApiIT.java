@@ -12,6 +12,7 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static io.restassured.http.ContentType.JSON;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.everyItem;
@@ -19,6 +20,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.matchesPattern;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 
 @QuarkusTest
 class GVariantsApiIT extends BaseTest {
@@ -130,6 +132,28 @@ class GVariantsApiIT extends BaseTest {
                 .body("population", not(hasItem("FR_M")));
     }
 
+    @Test
+    void givenNdjsonAccept_whenSearchGenomicVariants_thenStreamsOneVariantPerLine() {
+        GVariantSearchQuery query = buildQuery();
+        var body = given()
+                .contentType(JSON)
+                .accept("application/x-ndjson")
+                .body(query)
+                .when()
+                .post("/api/v1/g_variants")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .extract()
+                .asString();
+
+        assertThat(body.lines().toList())
+                .hasSize(2)
+                .satisfiesExactly(
+                        line -> assertThat(line).contains("\"population\":\"FR_M\""),
+                        line -> assertThat(line).contains("\"population\":\"FR_F\""));
+    }
+
     @Test
     void givenNoAssemblyId_whenSearchGenomicVariants_thenReturnsResultsAcrossAllAssemblies() {
         GVariantSearchQuery query = buildQueryWithAssemblyId(null);
@@ -8,11 +8,17 @@ import org.junit.jupiter.api.Test;
 
 import io.github.genomicdatainfrastructure.discovery.BaseTest;
 import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit5.virtual.ShouldNotPin;
+import io.quarkus.test.junit5.virtual.VirtualThreadUnit;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 
 @QuarkusTest
+@VirtualThreadUnit
+@ShouldNotPin
 class RetrieveDatasetTest extends BaseTest {
 
     @Test
@@ -144,6 +150,45 @@ class RetrieveDatasetTest extends BaseTest {
                 ));
     }
 
+    @Test
+    void retrieves_304_when_dataset_is_not_modified() {
+        var url = "/api/v1/datasets/e1b3eff9-13eb-48b0-b180-7ecb76b84454";
+        given().when().get(url).then().statusCode(200);
+
+        var etag = given()
+                .when()
+                .get(url)
+                .then()
+                .statusCode(200)
+                .header("Cache-Control", equalTo("no-cache"))
+                .header("Vary", equalTo("Accept-Language, Authorization"))
+                .header("Last-Modified", notNullValue())
+                .extract()
+                .header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get(url)
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag))
+                .body(emptyString());
+    }
+
+    @Test
+    void retrieves_private_dataset_responses_for_authenticated_callers() {
+        given()
+                .auth()
+                .oauth2(getAccessToken("alice"))
+                .when()
+                .get("/api/v1/datasets/e1b3eff9-13eb-48b0-b180-7ecb76b84454")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .header("Cache-Control", equalTo("private, no-cache"));
+    }
+
     @Test
     void can_anonymously_retrieve_dataset_in_format() {
         given()
@@ -190,7 +235,7 @@ class RetrieveDatasetTest extends BaseTest {
                 .body("title", equalTo("Not expected exception"))
                 .body("status", equalTo(500))
                 .body("detail", equalTo(
-                        "Received: 'Server Error, status code 500' when invoking REST Client method: 'io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi#retrieveDatasetInFormat'"
+                        "Received: 'Server Error, status code 500' when invoking REST Client method: 'io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CkanDatasetExportApi#retrieveDatasetInFormat'"
                 ));
     }
 
@@ -0,0 +1,74 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.application.usecases;
+
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.Operator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatasetIdsKeyTest {
+
+    @Test
+    void equalKeys_forReorderedAndDuplicatedFacets() {
+        var first = DatasetSearchQuery.builder()
+                .facets(List.of(facet("tags", "b"), facet("theme", "x"), facet("tags", "a")))
+                .build();
+        var second = DatasetSearchQuery.builder()
+                .facets(List.of(facet("theme", "x"), facet("tags", "a"), facet("tags", "b"),
+                        facet("tags", "a")))
+                .build();
+
+        assertThat(DatasetIdsKey.of(first, "token"))
+                .isEqualTo(DatasetIdsKey.of(second, "token"));
+    }
+
+    @Test
+    void differentKeys_forRangeFacetsInDifferentOrder() {
+        var lowFirst = DatasetSearchQuery.builder()
+                .facets(List.of(range("10"), range("20")))
+                .build();
+        var highFirst = DatasetSearchQuery.builder()
+                .facets(List.of(range("20"), range("10")))
+                .build();
+
+        assertThat(DatasetIdsKey.of(lowFirst, "token"))
+                .isNotEqualTo(DatasetIdsKey.of(highFirst, "token"));
+    }
+
+    @Test
+    void differentKeys_forDifferentUsers() {
+        var query = DatasetSearchQuery.builder()
+                .facets(List.of(facet("tags", "a")))
+                .build();
+
+        assertThat(DatasetIdsKey.of(query, "token"))
+                .isNotEqualTo(DatasetIdsKey.of(query, "other-token"));
+    }
+
+    private DatasetSearchQueryFacet facet(String key, String value) {
+        return DatasetSearchQueryFacet.builder()
+                .source("ckan")
+                .type(FilterType.DROPDOWN)
+                .key(key)
+                .value(value)
+                .build();
+    }
+
+    private DatasetSearchQueryFacet range(String lowerBound) {
+        return DatasetSearchQueryFacet.builder()
+                .source("ckan")
+                .type(FilterType.NUMBER)
+                .key("number_of_records")
+                .operator(Operator.GREATER_THAN_SYMBOL)
+                .value(lowerBound)
+                .build();
+    }
+}
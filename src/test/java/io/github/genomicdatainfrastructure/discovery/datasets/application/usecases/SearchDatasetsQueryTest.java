@@ -5,22 +5,36 @@
 package io.github.genomicdatainfrastructure.discovery.datasets.application.usecases;
 
 import io.github.genomicdatainfrastructure.discovery.datasets.application.ports.DatasetsRepository;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.auth.BeaconAuth;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconResilienceConfiguration;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence.BeaconDatasetIdsCollector;
 import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CkanDatasetIdsCollector;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
+import io.github.genomicdatainfrastructure.discovery.filters.application.usecases.ParallelFilterBuilders;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetsSearchResponse;
 import io.github.genomicdatainfrastructure.discovery.model.Filter;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
 import io.github.genomicdatainfrastructure.discovery.model.SearchedDataset;
+import io.github.genomicdatainfrastructure.discovery.remote.beacon.individuals.api.BeaconQueryApi;
+import io.opentelemetry.api.OpenTelemetry;
 import jakarta.enterprise.inject.Instance;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,6 +56,8 @@ class SearchDatasetsQueryTest {
 
     private Instance<FilterBuilder> filterBuilders;
 
+    private ExecutorService executor;
+
     private SearchDatasetsQuery underTest;
 
     @BeforeEach
@@ -50,14 +66,26 @@ class SearchDatasetsQueryTest {
         repository = mock(DatasetsRepository.class);
         beaconConfig = mock(BeaconConfiguration.class);
         when(beaconConfig.beacon()).thenReturn(true);
+        when(beaconConfig.beaconIdsTtl()).thenReturn(Duration.ofMinutes(1));
+        when(beaconConfig.beaconIdsMaxEntries()).thenReturn(100);
         beaconCollector = mock(BeaconDatasetIdsCollector.class);
         ckanCollector = mock(CkanDatasetIdsCollector.class);
         filterBuilders = mock(Instance.class);
-        when(filterBuilders.stream()).thenReturn(Stream.empty());
+        when(filterBuilders.stream()).thenAnswer(invocation -> Stream.empty());
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        underTest = searchDatasetsQuery(beaconCollector);
+    }
 
-        underTest = new SearchDatasetsQuery(repository, beaconConfig, beaconCollector,
+    private SearchDatasetsQuery searchDatasetsQuery(BeaconDatasetIdsCollector beaconCollector) {
+        var datasetsConfig = mock(DatasetsConfig.class);
+        when(datasetsConfig.filterBuilderTimeout()).thenReturn(Duration.ofSeconds(5));
+
+        return new SearchDatasetsQuery(repository, beaconConfig, beaconCollector,
                 ckanCollector,
-                filterBuilders);
+                new ParallelFilterBuilders(filterBuilders, executor, datasetsConfig),
+                executor,
+                new SearchMetrics(OpenTelemetry.noop().getMeter("test")));
     }
 
     @Test
@@ -254,6 +282,226 @@ class SearchDatasetsQueryTest {
         assertTrue(response.getBeaconError().contains("unexpected remote exception"));
     }
 
+    @Test
+    void testExecute_whenBeaconIsSlowerThanAdaptiveTimeout_fallsBackToCkan() {
+        var beaconQueryApi = mock(BeaconQueryApi.class);
+        var beaconAuth = mock(BeaconAuth.class);
+        when(beaconAuth.retrieveAuthorization("token")).thenReturn("Bearer beacon-token");
+        var guardedCollector = new BeaconDatasetIdsCollector(beaconQueryApi, beaconAuth,
+                resilienceConfiguration(Duration.ofMillis(200), Duration.ofSeconds(30)),
+                executor);
+        var query = DatasetSearchQuery.builder()
+                .includeBeacon(true)
+                .facets(List.of(DatasetSearchQueryFacet.builder()
+                        .source("beacon")
+                        .type(FilterType.DROPDOWN)
+                        .key("sex")
+                        .value("female")
+                        .build()))
+                .build();
+
+        // a run of fast answers brings the timeout down to its floor, far below the maximum
+        for (var call = 0; call < 20; call++) {
+            guardedCollector.collect(query, "token");
+        }
+        when(beaconQueryApi.listIndividuals(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(Duration.ofSeconds(30));
+            return null;
+        });
+        when(ckanCollector.collect(any(), any())).thenReturn(Map.of("id1", 10));
+        when(repository.search(any(), any(), any(), any(), any(), any())).thenReturn(searchResponse(
+                1,
+                List.of(mockDataset("id1"))));
+
+        var start = System.nanoTime();
+        var response = searchDatasetsQuery(guardedCollector).execute(query, "token", "en");
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5))
+                < 0);
+        assertEquals("id1", response.getResults().get(0).getIdentifier());
+        assertTrue(response.getBeaconError().contains("unexpected remote exception"));
+        verify(repository).search(eq(Set.of("id1")), any(), any(), any(), eq("token"), eq("en"));
+    }
+
+    @Test
+    void testExecute_inParallelMode_shouldIntersectBothCollectors() {
+        when(beaconConfig.beaconParallel()).thenReturn(true);
+        when(ckanCollector.collect(any(), any())).thenReturn(Map.of("id1", 10, "id2", 20));
+        when(beaconCollector.collect(any(), any())).thenReturn(Map.of("id1", 15, "id3", 30));
+        when(repository.search(any(), any(), any(), any(), any(), any())).thenReturn(searchResponse(
+                1,
+                List.of(mockDataset("id1"))));
+
+        var response = underTest.execute(DatasetSearchQuery.builder().includeBeacon(true).build(),
+                "token", "en");
+
+        assertEquals(1, response.getCount());
+        assertEquals(10, response.getResults().get(0).getRecordsCount());
+        assertNull(response.getBeaconError());
+        verify(repository).search(eq(Set.of("id1")), any(), any(), any(), eq("token"), eq("en"));
+    }
+
+    @Test
+    void testExecute_inParallelMode_whenBeaconFails_fallsBackToCkan() {
+        when(beaconConfig.beaconParallel()).thenReturn(true);
+        when(ckanCollector.collect(any(), any())).thenReturn(Map.of("id1", 10));
+        var mockResponse = mock(Response.class);
+        when(mockResponse.getStatus()).thenReturn(401);
+        when(beaconCollector.collect(any(), any())).thenThrow(new WebApplicationException(
+                "Unauthorized", mockResponse));
+        when(repository.search(any(), any(), any(), any(), any(), any())).thenReturn(searchResponse(
+                1,
+                List.of(mockDataset("id1"))));
+
+        var response = underTest.execute(DatasetSearchQuery.builder().includeBeacon(true).build(),
+                "token", "en");
+
+        assertEquals("id1", response.getResults().get(0).getIdentifier());
+        assertTrue(response.getBeaconError().contains("not recognised as a Researcher"));
+        verify(repository).search(eq(Set.of("id1")), any(), any(), any(), eq("token"), eq("en"));
+    }
+
+    @Test
+    void testExecute_inParallelMode_whenCkanFails_cancelsBeacon() throws InterruptedException {
+        when(beaconConfig.beaconParallel()).thenReturn(true);
+        var beaconInterrupted = new CountDownLatch(1);
+        when(ckanCollector.collect(any(), any())).thenThrow(new IllegalStateException("CKAN down"));
+        when(beaconCollector.collect(any(), any())).thenAnswer(invocation -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException exception) {
+                beaconInterrupted.countDown();
+            }
+            return Map.of();
+        });
+
+        var query = DatasetSearchQuery.builder().includeBeacon(true).build();
+        var exception = assertThrows(IllegalStateException.class,
+                () -> underTest.execute(query, "token", "en"));
+
+        assertEquals("CKAN down", exception.getMessage());
+        assertTrue(beaconInterrupted.await(5, TimeUnit.SECONDS));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testExecute_inParallelMode_whenBeaconIsEmpty_skipsCkanScan() {
+        when(beaconConfig.beaconParallel()).thenReturn(true);
+        when(ckanCollector.collect(any(), any())).thenAnswer(invocation -> {
+            new CountDownLatch(1).await();
+            return Map.of("id1", 10);
+        });
+        when(beaconCollector.collect(any(), any())).thenReturn(Map.of());
+        when(repository.search(any(), any(), any(), any(), any(), any())).thenReturn(searchResponse(
+                0,
+                List.of()));
+
+        var response = underTest.execute(DatasetSearchQuery.builder().includeBeacon(true).build(),
+                "token", "en");
+
+        assertEquals(0, response.getCount());
+        verify(repository).search(eq(Set.of()), any(), any(), any(), eq("token"), eq("en"));
+    }
+
+    @Test
+    void testExecute_whenPaging_reusesIntersectedIdsOfSameUser() {
+        when(ckanCollector.collect(any(), any())).thenReturn(Map.of("id1", 10, "id2", 20));
+        when(beaconCollector.collect(any(), any())).thenReturn(Map.of("id1", 15, "id2", 30));
+        when(repository.search(any(), any(), any(), any(), any(), any())).thenReturn(searchResponse(
+                2,
+                List.of(mockDataset("id1"))));
+        var firstPage = DatasetSearchQuery.builder().includeBeacon(true).start(0).rows(1).build();
+        var secondPage = firstPage.toBuilder().start(1).sort("title asc").build();
+
+        underTest.execute(firstPage, "token", "en");
+        var response = underTest.execute(secondPage, "token", "en");
+        underTest.execute(firstPage, "other-token", "en");
+
+        assertEquals(10, response.getResults().get(0).getRecordsCount());
+        verify(repository).search(eq(Set.of("id1", "id2")), eq("title asc"), eq(1), eq(1),
+                eq("token"), eq("en"));
+        verify(ckanCollector, times(2)).collect(any(), any());
+        verify(beaconCollector, times(2)).collect(any(), any());
+        verify(beaconCollector).collect(any(), eq("other-token"));
+    }
+
+    @Test
+    void testExecute_whenBeaconFails_doesNotReuseCkanOnlyFallback() {
+        when(ckanCollector.collect(any(), any())).thenReturn(Map.of("id1", 10));
+        var mockResponse = mock(Response.class);
+        when(mockResponse.getStatus()).thenReturn(500);
+        when(beaconCollector.collect(any(), any()))
+                .thenThrow(new WebApplicationException("Internal error", mockResponse))
+                .thenReturn(Map.of("id1", 15));
+        when(repository.search(any(), any(), any(), any(), any(), any())).thenReturn(searchResponse(
+                1,
+                List.of(mockDataset("id1"))));
+        var query = DatasetSearchQuery.builder().includeBeacon(true).build();
+
+        var failed = underTest.execute(query, "token", "en");
+        var retried = underTest.execute(query, "token", "en");
+
+        assertNotNull(failed.getBeaconError());
+        assertNull(retried.getBeaconError());
+        verify(beaconCollector, times(2)).collect(any(), any());
+    }
+
+    @Test
+    void testExecute_whenIdenticalSearchesOverlap_sharesOneCallPerAccessToken()
+            throws Exception {
+        var entered = new CountDownLatch(2);
+        var release = new CountDownLatch(1);
+        when(repository.search(any(DatasetSearchQuery.class), any(), any())).thenAnswer(
+                invocation -> {
+                    entered.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return searchResponse(1, List.of(mockDataset("id1")));
+                });
+        var query = DatasetSearchQuery.builder().includeBeacon(false).build();
+
+        var first = runSearch(query, "token");
+        var otherUser = runSearch(query, "other-token");
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        var second = runSearch(query, "token");
+        awaitWaiting(second);
+        release.countDown();
+
+        for (var search : List.of(first, otherUser, second)) {
+            search.join(5_000);
+            assertFalse(search.isAlive());
+        }
+        verify(repository).search(any(DatasetSearchQuery.class), eq("token"), eq("en"));
+        verify(repository).search(any(DatasetSearchQuery.class), eq("other-token"), eq("en"));
+    }
+
+    private BeaconResilienceConfiguration resilienceConfiguration(Duration minTimeout,
+            Duration maxTimeout) {
+        var guard = mock(BeaconResilienceConfiguration.Guard.class);
+        when(guard.maxConcurrent()).thenReturn(20);
+        when(guard.requestVolume()).thenReturn(20);
+        when(guard.failureRatio()).thenReturn(0.5);
+        when(guard.openDelay()).thenReturn(Duration.ofSeconds(30));
+        when(guard.timeoutPercentile()).thenReturn(99);
+        when(guard.timeoutMultiplier()).thenReturn(2.0);
+        when(guard.minTimeout()).thenReturn(minTimeout);
+        when(guard.maxTimeout()).thenReturn(maxTimeout);
+        var configuration = mock(BeaconResilienceConfiguration.class);
+        when(configuration.individuals()).thenReturn(guard);
+        return configuration;
+    }
+
+    private Thread runSearch(DatasetSearchQuery query, String accessToken) {
+        return Thread.ofVirtual().start(() -> underTest.execute(query, accessToken, "en"));
+    }
+
+    private void awaitWaiting(Thread thread) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
     private SearchedDataset mockDataset(String id) {
         return SearchedDataset.builder()
                 .identifier(id)
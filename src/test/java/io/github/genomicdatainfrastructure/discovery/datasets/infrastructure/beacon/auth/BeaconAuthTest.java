@@ -0,0 +1,187 @@
+// SPDX-FileCopyrightText: 2024 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.MutableClock;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
+import io.github.genomicdatainfrastructure.discovery.remote.keycloak.api.KeycloakQueryApi;
+import io.github.genomicdatainfrastructure.discovery.remote.keycloak.model.KeycloakTokenResponse;
+import io.opentelemetry.api.OpenTelemetry;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BeaconAuthTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private KeycloakQueryApi keycloakQueryApi;
+    private MutableClock clock;
+    private BeaconAuth underTest;
+
+    @BeforeEach
+    void setUp() {
+        keycloakQueryApi = mock(KeycloakQueryApi.class);
+        clock = new MutableClock(NOW);
+        underTest = new BeaconAuth(keycloakQueryApi, "LSAAI", Duration.ofSeconds(30),
+                new ObjectMapper(), new SearchMetrics(OpenTelemetry.noop().getMeter("test")),
+                clock);
+    }
+
+    @Test
+    void returnsNull_whenAccessTokenIsNull() {
+        assertThat(underTest.retrieveAuthorization(null)).isNull();
+    }
+
+    @Test
+    void reusesExchangedToken_untilExpiresIn() {
+        when(keycloakQueryApi.retriveIdpTokens("LSAAI", "Bearer user-token"))
+                .thenReturn(tokenResponse("beacon-token", 300));
+
+        assertThat(underTest.retrieveAuthorization("user-token")).isEqualTo("Bearer beacon-token");
+        clock.advance(Duration.ofSeconds(200));
+        assertThat(underTest.retrieveAuthorization("user-token")).isEqualTo("Bearer beacon-token");
+        verify(keycloakQueryApi, times(1)).retriveIdpTokens(anyString(), anyString());
+
+        clock.advance(Duration.ofSeconds(100));
+        underTest.retrieveAuthorization("user-token");
+        verify(keycloakQueryApi, times(2)).retriveIdpTokens(anyString(), anyString());
+    }
+
+    @Test
+    void fallsBackToJwtExpiry_whenExpiresInIsMissing() {
+        var jwt = jwt(NOW.plusSeconds(120).getEpochSecond());
+        when(keycloakQueryApi.retriveIdpTokens("LSAAI", "Bearer user-token"))
+                .thenReturn(tokenResponse(jwt, null));
+
+        underTest.retrieveAuthorization("user-token");
+        clock.advance(Duration.ofSeconds(60));
+        underTest.retrieveAuthorization("user-token");
+        verify(keycloakQueryApi, times(1)).retriveIdpTokens(anyString(), anyString());
+
+        clock.advance(Duration.ofSeconds(60));
+        underTest.retrieveAuthorization("user-token");
+        verify(keycloakQueryApi, times(2)).retriveIdpTokens(anyString(), anyString());
+    }
+
+    @Test
+    void doesNotShareTokens_betweenUsers() {
+        when(keycloakQueryApi.retriveIdpTokens("LSAAI", "Bearer alice"))
+                .thenReturn(tokenResponse("alice-beacon", 300));
+        when(keycloakQueryApi.retriveIdpTokens("LSAAI", "Bearer bob"))
+                .thenReturn(tokenResponse("bob-beacon", 300));
+
+        assertThat(underTest.retrieveAuthorization("alice")).isEqualTo("Bearer alice-beacon");
+        assertThat(underTest.retrieveAuthorization("bob")).isEqualTo("Bearer bob-beacon");
+    }
+
+    @Test
+    void cachesRejectedExchanges_forNegativeTtl() {
+        var rejected = webApplicationException(403);
+        when(keycloakQueryApi.retriveIdpTokens(anyString(), anyString())).thenThrow(rejected);
+
+        assertThat(underTest.retrieveAuthorization("user-token")).isNull();
+        assertThat(underTest.retrieveAuthorization("user-token")).isNull();
+        verify(keycloakQueryApi, times(1)).retriveIdpTokens(anyString(), anyString());
+
+        clock.advance(Duration.ofSeconds(30));
+        underTest.retrieveAuthorization("user-token");
+        verify(keycloakQueryApi, times(2)).retriveIdpTokens(anyString(), anyString());
+    }
+
+    @Test
+    void doesNotCacheUnexpectedFailures() {
+        var failure = webApplicationException(500);
+        when(keycloakQueryApi.retriveIdpTokens(anyString(), anyString()))
+                .thenThrow(failure)
+                .thenReturn(tokenResponse("beacon-token", 300));
+
+        assertThatThrownBy(() -> underTest.retrieveAuthorization("user-token"))
+                .isInstanceOf(WebApplicationException.class);
+        assertThat(underTest.retrieveAuthorization("user-token")).isEqualTo("Bearer beacon-token");
+    }
+
+    @Test
+    void evictsLeastRecentlySeenUser_onceFull() {
+        when(keycloakQueryApi.retriveIdpTokens(anyString(), anyString()))
+                .thenReturn(tokenResponse("beacon-token", 300));
+
+        underTest.retrieveAuthorization("first-user");
+        underTest.retrieveAuthorization("second-user");
+        for (var user = 2; user < BeaconAuth.MAX_ENTRIES; user++) {
+            underTest.retrieveAuthorization("user-" + user);
+        }
+        // seen again, so second-user is the least recently seen when the cache overflows
+        underTest.retrieveAuthorization("first-user");
+        underTest.retrieveAuthorization("one-user-too-many");
+        underTest.retrieveAuthorization("second-user");
+
+        verify(keycloakQueryApi, times(1)).retriveIdpTokens("LSAAI", "Bearer first-user");
+        verify(keycloakQueryApi, times(2)).retriveIdpTokens("LSAAI", "Bearer second-user");
+    }
+
+    @Test
+    void sharesOneKeycloakCall_betweenConcurrentMisses() throws Exception {
+        var release = new CountDownLatch(1);
+        when(keycloakQueryApi.retriveIdpTokens(anyString(), eq("Bearer user-token")))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return tokenResponse("beacon-token", 300);
+                });
+
+        var second = new AtomicReference<String>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> underTest.retrieveAuthorization("user-token"));
+            executor.submit(() -> second.set(underTest.retrieveAuthorization("user-token")));
+            Thread.sleep(100);
+            release.countDown();
+            assertThat(first.get()).isEqualTo("Bearer beacon-token");
+        }
+
+        assertThat(second.get()).isEqualTo("Bearer beacon-token");
+        verify(keycloakQueryApi, times(1)).retriveIdpTokens(anyString(), anyString());
+    }
+
+    private KeycloakTokenResponse tokenResponse(String accessToken, Integer expiresIn) {
+        return KeycloakTokenResponse.builder()
+                .accessToken(accessToken)
+                .expiresIn(expiresIn)
+                .build();
+    }
+
+    private String jwt(long exp) {
+        var encoder = Base64.getUrlEncoder().withoutPadding();
+        var header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        var payload = encoder.encodeToString("{\"exp\":%d}".formatted(exp)
+                .getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".signature";
+    }
+
+    private WebApplicationException webApplicationException(int status) {
+        var response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        return new WebApplicationException("Keycloak error", response);
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -228,6 +229,32 @@ class BeaconGVariantsRequestMapperTest {
         assertEquals("F", variant.getPopulation());
     }
 
+    @Test
+    @DisplayName("map(BeaconResponse, filter) should only map frequencies of accepted populations")
+    void map_BeaconResponse_WithPopulationFilter_SkipsExcludedFrequencies() {
+        var beaconResponse = buildBeaconsResponseWithPopulation("FR_M");
+        var frequencies = new ArrayList<>(beaconResponse.getResponse()
+                .getResultSets().getFirst()
+                .getResults().getFirst()
+                .getFrequencyInPopulations().getFirst()
+                .getFrequencies());
+        var excluded = new Frequency();
+        excluded.setPopulation("NL_F");
+        frequencies.add(excluded);
+        beaconResponse.getResponse()
+                .getResultSets().getFirst()
+                .getResults().getFirst()
+                .getFrequencyInPopulations().getFirst()
+                .setFrequencies(frequencies);
+
+        var result = BeaconGVariantsRequestMapper.map(beaconResponse,
+                population -> population.startsWith("FR"));
+
+        assertThat(result)
+                .extracting(GVariantsSearchResponse::getPopulation)
+                .containsExactly("FR_M");
+    }
+
     @Test
     void map_BeaconResponse_MapsMatchedVariantDetails() {
         BeaconResponse beaconResponse = buildBeaconsResponseWithVariantDetails("1", 123456, 123457,
@@ -0,0 +1,94 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.model.GVariantsSearchResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BeaconGVariantsResponseReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void decodesAcceptedFrequenciesOfEveryResultSet() throws IOException {
+        var body = """
+                {"meta": {"apiVersion": "v2.0.0"},
+                 "responseSummary": {"exists": true},
+                 "response": {"resultSets": [
+                   {"beaconId": "beacon-a", "exists": true, "id": "dataset-a", "results": [
+                     %s, %s
+                   ]},
+                   {"beaconId": "beacon-b", "id": "dataset-b", "results": [%s]}
+                 ]}}
+                """.formatted(result("FR_M", "NL_F"), result("FR_F"), result("FR_M"));
+
+        var variants = read(body, population -> population.startsWith("FR"));
+
+        assertThat(variants)
+                .extracting(GVariantsSearchResponse::getDatasetId,
+                        GVariantsSearchResponse::getPopulation)
+                .containsExactly(
+                        tuple("dataset-a", "FR_M"),
+                        tuple("dataset-a", "FR_F"),
+                        tuple("dataset-b", "FR_M"));
+        assertThat(variants)
+                .extracting(GVariantsSearchResponse::getReferenceName)
+                .containsOnly("11");
+    }
+
+    @Test
+    void mapsResultsListedBeforeTheResultSetIdentifiers() throws IOException {
+        var body = """
+                {"response": {"resultSets": [
+                  {"results": [%s], "id": "dataset-a", "beaconId": "beacon-a"}
+                ]}}
+                """.formatted(result("FR_M"));
+
+        var variants = read(body, population -> true);
+
+        assertThat(variants)
+                .extracting(GVariantsSearchResponse::getBeacon,
+                        GVariantsSearchResponse::getDatasetId)
+                .containsExactly(tuple("beacon-a", "dataset-a"));
+    }
+
+    @Test
+    void returnsNothing_whenResponseHasNoResultSets() throws IOException {
+        assertThat(read("{\"meta\": {}, \"response\": null}", population -> true)).isEmpty();
+        assertThat(read("{\"response\": {\"resultSets\": []}}", population -> true)).isEmpty();
+    }
+
+    private List<GVariantsSearchResponse> read(String body,
+            Predicate<String> populationFilter) throws IOException {
+        var content = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        try (var variants = new BeaconGVariantsResponseReader(objectMapper, content,
+                populationFilter).stream()) {
+            return variants.toList();
+        }
+    }
+
+    private static String result(String... populations) {
+        var frequencies = Arrays.stream(populations)
+                .map("{\"population\": \"%s\", \"alleleFrequency\": 0.1}"::formatted)
+                .collect(Collectors.joining(", "));
+        return """
+                {"frequencyInPopulations": [{"frequencies": [%s]}],
+                 "variation": {"referenceBases": "G", "alternateBases": "T",
+                   "location": {"sequence_id": "HGVSid:11:g.87202G>T"}}}
+                """.formatted(frequencies);
+    }
+}
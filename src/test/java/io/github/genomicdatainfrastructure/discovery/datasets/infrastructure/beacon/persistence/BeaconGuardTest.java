@@ -0,0 +1,214 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.MutableClock;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.beacon.config.BeaconResilienceConfiguration.Guard;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BeaconGuardTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void opensCircuit_andFailsFastWhileOpen() {
+        var underTest = guard(new TestGuard(Duration.ofSeconds(5)), clock);
+        failTimes(underTest, 4, 500);
+
+        var calls = new AtomicInteger();
+        assertThatThrownBy(() -> underTest.call(calls::incrementAndGet))
+                .hasMessageContaining("circuit is open")
+                .isInstanceOfSatisfying(WebApplicationException.class, exception -> assertThat(
+                        exception.getResponse().getStatus()).isEqualTo(503));
+        assertThat(calls).hasValue(0);
+        assertThat(underTest.isOpen()).isTrue();
+    }
+
+    @Test
+    void doesNotCountClientErrors() {
+        var underTest = guard(new TestGuard(Duration.ofSeconds(5)), clock);
+        failTimes(underTest, 4, 401);
+
+        assertThat(underTest.isOpen()).isFalse();
+        assertThat(underTest.call(() -> "answer")).isEqualTo("answer");
+    }
+
+    @Test
+    void closesCircuit_whenTrialCallSucceedsAfterDelay() {
+        var underTest = guard(new TestGuard(Duration.ofSeconds(5)), clock);
+        failTimes(underTest, 4, 500);
+
+        clock.advance(Duration.ofSeconds(29));
+        assertThatThrownBy(() -> underTest.call(() -> "too early"))
+                .hasMessageContaining("circuit is open");
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(underTest.call(() -> "trial")).isEqualTo("trial");
+        assertThat(underTest.isOpen()).isFalse();
+    }
+
+    @Test
+    void keepsCircuitOpen_whenCallFromBeforeItOpenedAnswersLate() throws Exception {
+        var underTest = guard(new TestGuard(2, Duration.ofSeconds(5)), clock);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var late = CompletableFuture.supplyAsync(() -> underTest.call(() -> {
+            started.countDown();
+            await(release);
+            return "late";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        failTimes(underTest, 4, 500);
+
+        release.countDown();
+        assertThat(late.get(5, TimeUnit.SECONDS)).isEqualTo("late");
+
+        assertThat(underTest.isOpen()).isTrue();
+        assertThatThrownBy(() -> underTest.call(() -> "rejected"))
+                .hasMessageContaining("circuit is open");
+    }
+
+    @Test
+    void holdsPermit_untilTimedOutCallFinishes() throws Exception {
+        var underTest = guard(new TestGuard(1, Duration.ofMillis(200)), clock);
+        var release = new CountDownLatch(1);
+        var finished = new CountDownLatch(1);
+        assertThatThrownBy(() -> underTest.call(() -> {
+            try {
+                awaitUninterruptibly(release);
+                return "slow";
+            } finally {
+                finished.countDown();
+            }
+        })).hasMessageContaining("did not answer within");
+
+        // the abandoned call is still talking to Beacon, so it still counts
+        assertThatThrownBy(() -> underTest.call(() -> "second"))
+                .hasMessageContaining("too many concurrent");
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        // the permit comes back once the task wrapping the call completes
+        assertThat(eventuallySucceeds(underTest)).isTrue();
+    }
+
+    @Test
+    void rejectsCalls_beyondMaxConcurrent() throws Exception {
+        var underTest = guard(new TestGuard(Duration.ofSeconds(5)), clock);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var running = CompletableFuture.runAsync(() -> underTest.call(() -> {
+            started.countDown();
+            await(release);
+            return null;
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> underTest.call(() -> "second"))
+                .hasMessageContaining("too many concurrent");
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void adaptsTimeout_toRecentCallDurations() {
+        var underTest = guard(new TestGuard(Duration.ofSeconds(5)), clock);
+        assertThat(underTest.timeout()).isEqualTo(Duration.ofSeconds(5));
+
+        for (var call = 0; call < 20; call++) {
+            underTest.call(() -> "fast");
+        }
+        var timeout = underTest.timeout();
+        assertThat(timeout).isBetween(Duration.ofMillis(100), Duration.ofSeconds(1));
+
+        var slow = new CountDownLatch(1);
+        assertThatThrownBy(() -> underTest.call(() -> {
+            await(slow);
+            return "slow";
+        })).hasMessageContaining("did not answer within " + timeout);
+
+        // the timed out call joins the samples, so the timeout grows again
+        assertThat(underTest.timeout()).isGreaterThan(timeout);
+        slow.countDown();
+    }
+
+    static BeaconGuard guard(Guard config) {
+        return guard(config, Clock.systemUTC());
+    }
+
+    private static BeaconGuard guard(Guard config, Clock clock) {
+        return new BeaconGuard("test", config, Executors.newVirtualThreadPerTaskExecutor(), clock);
+    }
+
+    private void failTimes(BeaconGuard underTest, int times, int status) {
+        for (var call = 0; call < times; call++) {
+            assertThatThrownBy(() -> underTest.call(() -> {
+                throw new WebApplicationException(status);
+            })).isInstanceOf(WebApplicationException.class);
+        }
+    }
+
+    private static boolean eventuallySucceeds(BeaconGuard underTest)
+            throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            try {
+                return "answer".equals(underTest.call(() -> "answer"));
+            } catch (WebApplicationException rejected) {
+                Thread.sleep(10);
+            }
+        }
+        return false;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+                // the guard interrupts abandoned calls, which keep running like HTTP requests do
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record TestGuard(int maxConcurrent, int requestVolume, double failureRatio,
+            Duration openDelay, int timeoutPercentile, double timeoutMultiplier,
+            Duration minTimeout, Duration maxTimeout) implements Guard {
+
+        TestGuard(Duration maxTimeout) {
+            this(1, maxTimeout);
+        }
+
+        TestGuard(int maxConcurrent, Duration maxTimeout) {
+            this(maxConcurrent, 4, 0.5, Duration.ofSeconds(30), 99, 2.0, Duration.ofMillis(100),
+                    maxTimeout);
+        }
+    }
+}
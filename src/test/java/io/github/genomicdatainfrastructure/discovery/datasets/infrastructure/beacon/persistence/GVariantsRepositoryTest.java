@@ -14,13 +14,14 @@ import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.mod
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.model.Frequency;
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.model.FrequencyInPopulations;
 import io.github.genomicdatainfrastructure.discovery.remote.beacon.gvariants.model.Result;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -36,9 +37,14 @@ class GVariantsRepositoryTest {
     @Mock
     private GVariantsApi gVariantsApi;
 
-    @InjectMocks
     private GVariantsRepository gVariantsRepository;
 
+    @BeforeEach
+    void setUp() {
+        gVariantsRepository = new GVariantsRepository(gVariantsApi, null, null,
+                BeaconGuardTest.guard(new BeaconGuardTest.TestGuard(Duration.ofSeconds(5))));
+    }
+
     @Test
     void givenNonEmptyQueryParams_whenSearch_thenReturnsMappedResponse() {
         var query = createQuery("21:9411448:G:T", "GRCh37", null, null);
@@ -7,9 +7,12 @@ package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ck
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.quarkus.HelpTextConfig;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.yaml.YamlHelpTextLoader;
 import io.github.genomicdatainfrastructure.discovery.model.HelpText;
@@ -25,6 +28,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
 
 class DatasetHelpTextServiceTest {
 
@@ -37,7 +41,18 @@ class DatasetHelpTextServiceTest {
 
     private static DatasetHelpTextService newService(CkanQueryApi ckanQueryApi) {
         return new DatasetHelpTextService(ckanQueryApi, new ObjectMapper(),
-                mock(HelpTextConfig.class), mock(YamlHelpTextLoader.class));
+                mock(HelpTextConfig.class), mock(YamlHelpTextLoader.class),
+                ckanClientConfiguration(), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    private static CkanClientConfiguration ckanClientConfiguration() {
+        var configuration = mock(CkanClientConfiguration.class);
+        var helpTexts = mock(CkanClientConfiguration.HelpTexts.class);
+        when(configuration.helpTexts()).thenReturn(helpTexts);
+        when(helpTexts.ttl()).thenReturn(Duration.ofMinutes(30));
+        when(helpTexts.maxStale()).thenReturn(Duration.ofHours(6));
+        when(helpTexts.maxEntries()).thenReturn(10);
+        return configuration;
     }
 
     @Test
@@ -297,7 +312,8 @@ class DatasetHelpTextServiceTest {
         var helpTextConfig = mock(HelpTextConfig.class);
         var yamlHelpTextLoader = mock(YamlHelpTextLoader.class);
         var service = new DatasetHelpTextService(ckanQueryApi, new ObjectMapper(),
-                helpTextConfig, yamlHelpTextLoader);
+                helpTextConfig, yamlHelpTextLoader, ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
         var dataset = RetrievedDataset.builder().id("dataset-1").build();
 
         when(helpTextConfig.datasetSource()).thenReturn(Optional.of("detail-view.yaml"));
@@ -318,4 +334,27 @@ class DatasetHelpTextServiceTest {
         assertThat(dataset.getHelpText()).containsEntry("title", titleHelpText);
         org.mockito.Mockito.verifyNoInteractions(ckanQueryApi);
     }
+
+    @Test
+    void enrichReusesCkanHelpTextsPerLanguageAndSchemingType() {
+        var ckanQueryApi = mock(CkanQueryApi.class);
+        var service = newService(ckanQueryApi);
+        when(ckanQueryApi.gdiDatasetHelpTextsShow(anyString(), anyString(), anyString()))
+                .thenReturn(CkanFilterHelpTextsResponse.builder()
+                        .result(Map.of("title_translated", "A descriptive title."))
+                        .build());
+
+        var first = RetrievedDataset.builder().id("dataset-1").build();
+        var second = RetrievedDataset.builder().id("dataset-2").build();
+        service.enrich(first, CkanPackage.builder().build(), "en");
+        service.enrich(second, CkanPackage.builder().build(), "en");
+
+        assertThat(second.getHelpText()).containsEntry("title", textOnly("A descriptive title."));
+        verify(ckanQueryApi, times(1)).gdiDatasetHelpTextsShow(anyString(), anyString(),
+                anyString());
+
+        service.enrich(RetrievedDataset.builder().build(), CkanPackage.builder().build(), "nl");
+        verify(ckanQueryApi, times(2)).gdiDatasetHelpTextsShow(anyString(), anyString(),
+                anyString());
+    }
 }
@@ -0,0 +1,79 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config;
+
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import jakarta.ws.rs.ProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CkanConnectionPrewarmerTest {
+
+    private CkanQueryApi ckanQueryApi;
+    private CkanClientConfiguration.Prewarm prewarm;
+    private CkanClientConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        ckanQueryApi = mock(CkanQueryApi.class);
+        configuration = mock(CkanClientConfiguration.class);
+        prewarm = mock(CkanClientConfiguration.Prewarm.class);
+        when(configuration.prewarm()).thenReturn(prewarm);
+        when(prewarm.connections()).thenReturn(3);
+    }
+
+    @Test
+    void opensConfiguredNumberOfConnections_withEmptySearches() {
+        when(prewarm.enabled()).thenReturn(true);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            new CkanConnectionPrewarmer(ckanQueryApi, executor, configuration).onStart(null);
+        }
+
+        var requests = ArgumentCaptor.forClass(PackageSearchRequest.class);
+        verify(ckanQueryApi, times(3)).packageSearch(isNull(), requests.capture());
+        assertThat(requests.getAllValues())
+                .allSatisfy(request -> assertThat(request.getRows()).isZero());
+    }
+
+    @Test
+    void doesNothing_whenDisabled() {
+        when(prewarm.enabled()).thenReturn(false);
+        var executor = mock(ExecutorService.class);
+
+        new CkanConnectionPrewarmer(ckanQueryApi, executor, configuration).onStart(null);
+
+        verifyNoInteractions(executor, ckanQueryApi);
+    }
+
+    @Test
+    void neverFails_whenCkanIsUnreachable() {
+        when(prewarm.enabled()).thenReturn(true);
+        when(ckanQueryApi.packageSearch(any(), any()))
+                .thenThrow(new ProcessingException("Connection refused"));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var underTest = new CkanConnectionPrewarmer(ckanQueryApi, executor, configuration);
+            assertThatCode(() -> underTest.onStart(null)).doesNotThrowAnyException();
+        }
+
+        verify(ckanQueryApi, times(3)).packageSearch(any(), any());
+    }
+}
@@ -0,0 +1,238 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CatalogueSnapshot.IndexedDataset;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CatalogueSnapshot.IndexedPage;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CatalogueSnapshot.Schema;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.QueryOperator;
+import io.github.genomicdatainfrastructure.discovery.model.SearchedDataset;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanFacet;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanValueLabel;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueSnapshotTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Schema SCHEMA = new Schema(List.of("tags", "access_rights"), List.of(),
+            Set.of("title_string", "metadata_created", "metadata_modified"), false);
+
+    private static final List<IndexedDataset> DATASETS = List.of(
+            dataset("first", "[\"a\", \"b\"]", "public", "Beta", "2026-01-03T00:00:00"),
+            dataset("second", "[\"a\"]", "restricted", "Alpha", "2026-01-02T00:00:00"),
+            dataset("third", "[\"c\"]", "public", "Gamma", "2026-01-01T00:00:00"));
+
+    @Test
+    void combinesValuesWithOr_andKeysWithAnd() {
+        var underTest = snapshot(template(3));
+
+        var page = search(underTest, QueryOperator.OR, ckanFacet("tags", "b"),
+                ckanFacet("tags", "c"), ckanFacet("access_rights", "public"));
+
+        assertThat(identifiers(page)).containsExactly("first", "third");
+        assertThat(page.facets().getCount()).isEqualTo(2);
+        assertThat(counts(page, "tags")).containsExactly(
+                Map.entry("a", 1), Map.entry("b", 1), Map.entry("c", 1));
+        assertThat(counts(page, "access_rights")).containsExactly(Map.entry("public", 2));
+        assertThat(page.facets().getSearchFacets().get("tags").getItems().getFirst()
+                .getDisplayName()).isEqualTo("Tag A");
+    }
+
+    @Test
+    void ordersFacetItems_byCountThenValue_likeSolr() {
+        var underTest = snapshot(template(3));
+
+        var page = search(underTest, QueryOperator.OR);
+        var filtered = search(underTest, QueryOperator.OR, ckanFacet("tags", "c"),
+                ckanFacet("tags", "b"));
+
+        assertThat(counts(page, "tags")).containsExactly(
+                Map.entry("a", 2), Map.entry("b", 1), Map.entry("c", 1));
+        assertThat(counts(filtered, "access_rights")).containsExactly(Map.entry("public", 2));
+        assertThat(counts(filtered, "tags")).containsExactly(
+                Map.entry("a", 1), Map.entry("b", 1), Map.entry("c", 1));
+    }
+
+    @Test
+    void combinesValuesWithAnd_whenOperatorIsAnd() {
+        var underTest = snapshot(template(3));
+
+        var page = search(underTest, QueryOperator.AND, ckanFacet("tags", "a"),
+                ckanFacet("tags", "b"));
+
+        assertThat(identifiers(page)).containsExactly("first");
+    }
+
+    @Test
+    void sortsAndPages_likeCkan() {
+        var underTest = snapshot(template(3));
+
+        var page = underTest.search(DatasetSearchQuery.builder()
+                .sort("title_string asc")
+                .rows(2)
+                .start(1)
+                .build(), "en")
+                .orElseThrow();
+
+        assertThat(identifiers(page)).containsExactly("first", "third");
+        assertThat(page.facets().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void restrictsToGivenIdentifiers_inDefaultOrder() {
+        var underTest = snapshot(template(3));
+
+        var page = underTest.search(List.of("third", "first", "unknown"), null, null, null, "en")
+                .orElseThrow();
+
+        assertThat(identifiers(page)).containsExactly("first", "third");
+        assertThat(counts(page, "access_rights")).containsExactly(Map.entry("public", 2));
+    }
+
+    @Test
+    void leavesSearchesItCannotAnswerToCkan() {
+        var underTest = snapshot(template(3));
+
+        assertThat(underTest.search(DatasetSearchQuery.builder().query("cancer").build(), "en"))
+                .isEmpty();
+        assertThat(underTest.search(DatasetSearchQuery.builder().sort("views desc").build(),
+                "en")).isEmpty();
+        assertThat(underTest.search(DatasetSearchQuery.builder()
+                .facets(List.of(ckanFacet("publisher_name", "PNED")))
+                .build(), "en")).isEmpty();
+        assertThat(underTest.search(DatasetSearchQuery.builder()
+                .facets(List.of(ckanFacet("modified", "2026-01-01").toBuilder()
+                        .type(FilterType.DATETIME)
+                        .build()))
+                .build(), "en")).isEmpty();
+        assertThat(underTest.search(DatasetSearchQuery.builder().build(), "nl")).isEmpty();
+    }
+
+    @Test
+    void leavesSortsOnFieldsSolrDidNotReturn_toCkan() {
+        var underTest = snapshot(template(3));
+
+        // metadata_created is configured, but none of the mirrored datasets came with it
+        assertThat(underTest.search(DatasetSearchQuery.builder()
+                .sort("metadata_created desc")
+                .build(), "en")).isEmpty();
+    }
+
+    @Test
+    void servesNothing_whenItDisagreesWithCkan() {
+        var underTest = snapshot(template(4));
+
+        assertThat(underTest.inconsistency()).contains("4 datasets");
+        assertThat(underTest.search(DatasetSearchQuery.builder().build(), "en")).isEmpty();
+        assertThat(underTest.catalogueFacets("en")).isEmpty();
+    }
+
+    @Test
+    void textSearch_onlyApproximatesCkan() {
+        var textSchema = new Schema(SCHEMA.facetFields(), SCHEMA.statsFields(),
+                SCHEMA.sortFields(), true);
+        var underTest = CatalogueSnapshot.of(DATASETS, textSchema, Map.of("en", template(3)),
+                Instant.parse("2026-01-01T00:00:00Z"));
+
+        assertThat(identifiers(textSearch(underTest, "BETA"))).containsExactly("first");
+        // CKAN's stemmed text field would match "Beta" and the "a" tag; whole title words don't
+        assertThat(identifiers(textSearch(underTest, "betas"))).isEmpty();
+        assertThat(identifiers(textSearch(underTest, "a"))).isEmpty();
+    }
+
+    @Test
+    void tracksLatestModification() {
+        assertThat(snapshot(template(3)).lastModified()).isEqualTo("2026-01-03T00:00:00");
+    }
+
+    private static CatalogueSnapshot snapshot(PackagesSearchResult template) {
+        return CatalogueSnapshot.of(DATASETS, SCHEMA, Map.of("en", template),
+                Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    private static IndexedPage search(CatalogueSnapshot underTest, QueryOperator operator,
+            DatasetSearchQueryFacet... facets) {
+        return underTest.search(DatasetSearchQuery.builder()
+                .operator(operator)
+                .facets(List.of(facets))
+                .build(), "en")
+                .orElseThrow();
+    }
+
+    private static IndexedPage textSearch(CatalogueSnapshot underTest, String text) {
+        return underTest.search(DatasetSearchQuery.builder()
+                .query(text)
+                .sort("title_string asc")
+                .build(), "en")
+                .orElseThrow();
+    }
+
+    private static List<String> identifiers(IndexedPage page) {
+        return page.results().stream().map(SearchedDataset::getIdentifier).toList();
+    }
+
+    private static Map<String, Integer> counts(IndexedPage page, String field) {
+        var counts = new LinkedHashMap<String, Integer>();
+        page.facets().getSearchFacets().get(field).getItems()
+                .forEach(item -> counts.put(item.getName(), item.getCount()));
+        return counts;
+    }
+
+    private static PackagesSearchResult template(int count) {
+        var searchFacets = new LinkedHashMap<String, CkanFacet>();
+        searchFacets.put("tags", facet("Tags", item("c", "Tag C", 1), item("b", "Tag B", 1),
+                item("a", "Tag A", 2)));
+        searchFacets.put("access_rights", facet("Access rights", item("public", "Public", 2),
+                item("restricted", "Restricted", 1)));
+        return PackagesSearchResult.builder()
+                .count(count)
+                .searchFacets(searchFacets)
+                .build();
+    }
+
+    private static CkanFacet facet(String title, CkanValueLabel... items) {
+        return CkanFacet.builder().title(title).items(List.of(items)).build();
+    }
+
+    private static CkanValueLabel item(String name, String displayName, int count) {
+        return CkanValueLabel.builder().name(name).displayName(displayName).count(count).build();
+    }
+
+    private static DatasetSearchQueryFacet ckanFacet(String key, String value) {
+        return DatasetSearchQueryFacet.builder()
+                .source("ckan")
+                .type(FilterType.DROPDOWN)
+                .key(key)
+                .value(value)
+                .build();
+    }
+
+    private static IndexedDataset dataset(String identifier, String tags, String accessRights,
+            String title, String modified) {
+        try {
+            var fields = OBJECT_MAPPER.readTree("""
+                    {"identifier": "%s", "tags": %s, "access_rights": "%s", "title": "%s",
+                     "title_string": "%s", "metadata_modified": "%s"}
+                    """.formatted(identifier, tags, accessRights, title, title, modified));
+            return new IndexedDataset(identifier, fields, Map.of("en",
+                    SearchedDataset.builder().identifier(identifier).title(title).build()));
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
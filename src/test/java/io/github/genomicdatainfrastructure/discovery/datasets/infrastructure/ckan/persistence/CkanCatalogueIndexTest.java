@@ -0,0 +1,204 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.MutableClock;
+import io.github.genomicdatainfrastructure.discovery.api.DatasetQueryApiImpl;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.mapper.CkanDatasetsMapper;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.CkanSearchFacetsMapper;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.SearchedDataset;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanFacet;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanPackage;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanValueLabel;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResponse;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CkanCatalogueIndexTest {
+
+    private static final String FIELDS = """
+            {"result": {"count": 2, "results": [
+              {"identifier": "first", "tags": ["a"], "metadata_modified": "2026-01-02T00:00:00"},
+              {"identifier": "second", "tags": ["b"], "metadata_modified": "2026-01-01T00:00:00"}
+            ]}}
+            """;
+
+    private CkanQueryApi ckanQueryApi;
+    private CkanIdentifiersApi ckanIdentifiersApi;
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-03T00:00:00Z"));
+    private CkanCatalogueIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        ckanQueryApi = mock(CkanQueryApi.class);
+        ckanIdentifiersApi = mock(CkanIdentifiersApi.class);
+        var ckanDatasetsMapper = mock(CkanDatasetsMapper.class);
+        var ckanSearchFacetsMapper = mock(CkanSearchFacetsMapper.class);
+        when(ckanSearchFacetsMapper.applyStats(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(ckanSearchFacetsMapper.selectedFacetField()).thenReturn("[\"tags\"]");
+
+        var configuration = mock(CkanClientConfiguration.class);
+        var idRestriction = mock(CkanClientConfiguration.IdRestriction.class);
+        var localIndex = mock(CkanClientConfiguration.LocalIndex.class);
+        when(configuration.idRestriction()).thenReturn(idRestriction);
+        when(configuration.localIndex()).thenReturn(localIndex);
+        when(idRestriction.strategy()).thenReturn(IdRestrictionStrategy.BOOLEAN);
+        when(localIndex.languages()).thenReturn(List.of("en"));
+        when(localIndex.fullRebuildInterval()).thenReturn(Duration.ofHours(1));
+        when(localIndex.pageSize()).thenReturn(500);
+        when(localIndex.sortFields()).thenReturn(List.of("title_string"));
+
+        var datasetsConfig = mock(DatasetsConfig.class);
+        when(datasetsConfig.filters()).thenReturn("tags");
+
+        givenCatalogueCount(2);
+        var page = PackagesSearchResult.builder()
+                .count(2)
+                .results(List.of(CkanPackage.builder().build(), CkanPackage.builder().build()))
+                .build();
+        when(ckanQueryApi.packageSearch(eq("en"), argThat(request -> request != null
+                && !Integer.valueOf(0).equals(request.getRows()))))
+                .thenReturn(PackagesSearchResponse.builder().result(page).build());
+        when(ckanDatasetsMapper.map(page)).thenReturn(List.of(
+                SearchedDataset.builder().identifier("first").build(),
+                SearchedDataset.builder().identifier("second").build()));
+        when(ckanIdentifiersApi.packageSearch(any(PackageSearchRequest.class)))
+                .thenAnswer(invocation -> new ByteArrayInputStream(
+                        FIELDS.getBytes(StandardCharsets.UTF_8)));
+
+        underTest = new CkanCatalogueIndex(ckanQueryApi, ckanIdentifiersApi, ckanDatasetsMapper,
+                ckanSearchFacetsMapper, new ObjectMapper(), configuration, datasetsConfig, clock);
+    }
+
+    @Test
+    void servesNothing_untilCatalogueIsMirrored() {
+        assertThat(underTest.catalogueFacets("en")).isEmpty();
+        assertThat(underTest.search(DatasetSearchQuery.builder().build(), "en")).isEmpty();
+    }
+
+    @Test
+    void mirrorsCatalogue_andServesFilterOnlySearches() {
+        underTest.refresh();
+
+        var page = underTest.search(DatasetSearchQuery.builder()
+                .facets(List.of(DatasetSearchQueryFacet.builder()
+                        .source("ckan")
+                        .type(FilterType.DROPDOWN)
+                        .key("tags")
+                        .value("b")
+                        .build()))
+                .build(), "en")
+                .orElseThrow();
+
+        assertThat(page.results()).extracting(SearchedDataset::getIdentifier)
+                .containsExactly("second");
+        assertThat(underTest.catalogueFacets("en")).isPresent();
+    }
+
+    @Test
+    void answersRequests_inRegionalVariantsOfMirroredLanguage() {
+        underTest.refresh();
+        var headers = mock(HttpHeaders.class);
+        when(headers.getAcceptableLanguages()).thenReturn(
+                Locale.LanguageRange.parse("en-GB,en;q=0.9,nl;q=0.8")
+                        .stream()
+                        .map(range -> Locale.forLanguageTag(range.getRange()))
+                        .toList());
+
+        var fromHeader = DatasetQueryApiImpl.getString(headers, "en-GB");
+        when(headers.getAcceptableLanguages()).thenReturn(List.of());
+        var fromDefault = DatasetQueryApiImpl.getString(headers, "en-GB");
+
+        assertThat(fromHeader).isEqualTo("en-gb");
+        assertThat(underTest.search(DatasetSearchQuery.builder().build(), fromHeader))
+                .isPresent();
+        assertThat(underTest.search(DatasetSearchQuery.builder().build(), fromDefault))
+                .isPresent();
+        assertThat(underTest.catalogueFacets("EN")).isPresent();
+        assertThat(underTest.catalogueFacets("nl-be")).isEmpty();
+    }
+
+    @Test
+    void backsOffRebuilds_whileIndexDisagreesWithCkan() {
+        givenCatalogueCount(3);
+
+        underTest.refresh();
+        clock.advance(Duration.ofMinutes(59));
+        underTest.refresh();
+        clock.advance(Duration.ofMinutes(1));
+        underTest.refresh();
+        // the second rebuild still disagreed, so the next one waits twice as long
+        clock.advance(Duration.ofMinutes(90));
+        underTest.refresh();
+        clock.advance(Duration.ofMinutes(30));
+        underTest.refresh();
+
+        verify(ckanIdentifiersApi, times(3)).packageSearch(any(PackageSearchRequest.class));
+        assertThat(underTest.catalogueFacets("en")).isEmpty();
+    }
+
+    @Test
+    void onlyAsksForChanges_onLaterRefreshes() {
+        underTest.refresh();
+        underTest.refresh();
+
+        var requests = ArgumentCaptor.forClass(PackageSearchRequest.class);
+        verify(ckanIdentifiersApi, times(2)).packageSearch(requests.capture());
+        assertThat(requests.getAllValues().get(0).getFq()).isNull();
+        assertThat(requests.getAllValues().get(1).getFq())
+                .isEqualTo("metadata_modified:[\"2026-01-02T00:00:00\" TO *]");
+        assertThat(requests.getAllValues().get(1).getFl())
+                .isEqualTo("identifier,metadata_modified,tags,title_string");
+        // Nothing changed, so the datasets themselves are not fetched again
+        verify(ckanQueryApi, times(1)).packageSearch(eq("en"), argThat(request -> request != null
+                && !Integer.valueOf(0).equals(request.getRows())));
+    }
+
+    private void givenCatalogueCount(int count) {
+        var template = PackagesSearchResult.builder()
+                .count(count)
+                .searchFacets(Map.of("tags", CkanFacet.builder()
+                        .title("Tags")
+                        .items(List.of(item("a"), item("b")))
+                        .build()))
+                .build();
+        when(ckanQueryApi.packageSearch(eq("en"), argThat(request -> request != null
+                && Integer.valueOf(0).equals(request.getRows()))))
+                .thenReturn(PackagesSearchResponse.builder().result(template).build());
+    }
+
+    private static CkanValueLabel item(String name) {
+        return CkanValueLabel.builder().name(name).displayName(name).count(1).build();
+    }
+}
@@ -0,0 +1,155 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CkanDatasetIdsCollectorTest {
+
+    private CkanIdentifiersApi ckanIdentifiersApi;
+    private CkanDatasetIdsCollector underTest;
+
+    @BeforeEach
+    void setUp() {
+        ckanIdentifiersApi = mock(CkanIdentifiersApi.class);
+        var configuration = mock(CkanClientConfiguration.class);
+        var idsCollector = mock(CkanClientConfiguration.IdsCollector.class);
+        when(configuration.idsCollector()).thenReturn(idsCollector);
+        when(idsCollector.parallelism()).thenReturn(2);
+
+        underTest = new CkanDatasetIdsCollector(ckanIdentifiersApi, new ObjectMapper(),
+                Executors.newVirtualThreadPerTaskExecutor(), configuration,
+                new SearchMetrics(OpenTelemetry.noop().getMeter("test")));
+    }
+
+    @Test
+    void requestsOnlyTheIdentifierField() {
+        when(ckanIdentifiersApi.packageSearch(any())).thenReturn(page(1, "a"));
+
+        var result = underTest.collect(DatasetSearchQuery.builder().query("cancer").build(), null);
+
+        var request = ArgumentCaptor.forClass(PackageSearchRequest.class);
+        verify(ckanIdentifiersApi).packageSearch(request.capture());
+        assertThat(request.getValue().getFl()).isEqualTo("identifier");
+        assertThat(request.getValue().getQ()).isEqualTo("cancer");
+        assertThat(request.getValue().getStart()).isZero();
+        assertThat(result).containsOnlyKeys("a");
+    }
+
+    @Test
+    void fetchesRemainingPages_usingFirstPageSizeAsStride() {
+        when(ckanIdentifiersApi.packageSearch(argThat(r -> r != null && r.getStart() == 0)))
+                .thenReturn(page(5, "a", "b"));
+        when(ckanIdentifiersApi.packageSearch(argThat(r -> r != null && r.getStart() == 2)))
+                .thenReturn(page(5, "c", "d"));
+        when(ckanIdentifiersApi.packageSearch(argThat(r -> r != null && r.getStart() == 4)))
+                .thenReturn(page(5, "e"));
+
+        var result = underTest.collect(new DatasetSearchQuery(), null);
+
+        assertThat(result).containsOnlyKeys("a", "b", "c", "d", "e");
+        assertThat(result.values()).containsOnlyNulls();
+        verify(ckanIdentifiersApi, times(3)).packageSearch(any());
+    }
+
+    @Test
+    void skipsFullPackageFields_andRowsWithoutIdentifier() {
+        var body = """
+                {"help": "...", "success": true, "result": {
+                  "facets": {"tags": {"x": 1}},
+                  "results": [
+                    {"name": "first", "tags": [{"name": "x"}], "identifier": "a",
+                     "extras": {"identifier": {"nested": true}}},
+                    {"name": "no-identifier"},
+                    {"identifier": null},
+                    {"identifier": "b", "resources": [[1, 2], {"identifier": "ignored"}]}
+                  ],
+                  "count": 4
+                }}
+                """;
+        when(ckanIdentifiersApi.packageSearch(any())).thenReturn(stream(body));
+
+        var result = underTest.collect(new DatasetSearchQuery(), null);
+
+        assertThat(result).containsOnlyKeys("a", "b");
+        verify(ckanIdentifiersApi, times(1)).packageSearch(any());
+    }
+
+    @Test
+    void returnsEmpty_whenNoResults() {
+        when(ckanIdentifiersApi.packageSearch(any())).thenReturn(page(0));
+
+        assertThat(underTest.collect(new DatasetSearchQuery(), null)).isEmpty();
+    }
+
+    @Test
+    void propagatesPageFailures() {
+        when(ckanIdentifiersApi.packageSearch(argThat(r -> r != null && r.getStart() == 0)))
+                .thenReturn(page(4, "a", "b"));
+        when(ckanIdentifiersApi.packageSearch(argThat(r -> r != null && r.getStart() == 2)))
+                .thenThrow(new IllegalStateException("CKAN down"));
+
+        var query = new DatasetSearchQuery();
+        assertThatThrownBy(() -> underTest.collect(query, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("CKAN down");
+    }
+
+    @Test
+    void collectsLargeResultSets() {
+        var total = 7_500;
+        when(ckanIdentifiersApi.packageSearch(any())).thenAnswer(invocation -> {
+            PackageSearchRequest request = invocation.getArgument(0);
+            var ids = IntStream.range(request.getStart(), Math.min(request.getStart() + 1000,
+                    total))
+                    .mapToObj(i -> "id-" + i)
+                    .toArray(String[]::new);
+            return page(total, ids);
+        });
+
+        var result = underTest.collect(new DatasetSearchQuery(), null);
+
+        assertThat(result).hasSize(total);
+        verify(ckanIdentifiersApi, times(8)).packageSearch(any());
+    }
+
+    private InputStream page(int count, String... identifiers) {
+        var results = List.of(identifiers)
+                .stream()
+                .map("{\"identifier\":\"%s\"}"::formatted)
+                .collect(Collectors.joining(","));
+        return stream("{\"success\":true,\"result\":{\"count\":%d,\"results\":[%s]}}"
+                .formatted(count, results));
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,273 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.datasets.domain.exceptions.DatasetNotFoundException;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.DatasetHelpTextService;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.mapper.CkanDatasetsMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.CkanSearchFacetsMapper;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.FilterHelpTextService;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSeries;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.QueryOperator;
+import io.github.genomicdatainfrastructure.discovery.model.RetrievedDataset;
+import io.github.genomicdatainfrastructure.discovery.model.SearchedDataset;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.api.CkanQueryApi;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanPackage;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanPackageShowResponse;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResponse;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesSearchResult;
+import io.opentelemetry.api.OpenTelemetry;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CkanDatasetsRepositoryTest {
+
+    private CkanQueryApi ckanQueryApi;
+    private CkanDatasetExportApi ckanDatasetExportApi;
+    private CkanDatasetsMapper ckanDatasetsMapper;
+    private CkanSearchFacetsMapper ckanSearchFacetsMapper;
+    private CkanCatalogueIndex catalogueIndex;
+    private CkanDatasetsRepository underTest;
+
+    @BeforeEach
+    void setUp() {
+        ckanQueryApi = mock(CkanQueryApi.class);
+        ckanDatasetExportApi = mock(CkanDatasetExportApi.class);
+        ckanDatasetsMapper = mock(CkanDatasetsMapper.class);
+        ckanSearchFacetsMapper = mock(CkanSearchFacetsMapper.class);
+        catalogueIndex = mock(CkanCatalogueIndex.class);
+        when(ckanSearchFacetsMapper.applyStats(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        var configuration = mock(CkanClientConfiguration.class);
+        var idRestriction = mock(CkanClientConfiguration.IdRestriction.class);
+        var series = mock(CkanClientConfiguration.Series.class);
+        var searchResults = mock(CkanClientConfiguration.SearchResults.class);
+        when(configuration.idRestriction()).thenReturn(idRestriction);
+        when(configuration.series()).thenReturn(series);
+        when(configuration.searchResults()).thenReturn(searchResults);
+        when(idRestriction.strategy()).thenReturn(IdRestrictionStrategy.BOOLEAN);
+        when(idRestriction.localPagingThreshold()).thenReturn(500);
+        when(series.parallelism()).thenReturn(2);
+        when(series.ttl()).thenReturn(Duration.ofMinutes(10));
+        when(series.maxStale()).thenReturn(Duration.ofHours(1));
+        when(series.maxEntries()).thenReturn(100);
+        when(searchResults.ttl()).thenReturn(Duration.ofSeconds(30));
+        when(searchResults.maxEntries()).thenReturn(100);
+
+        underTest = new CkanDatasetsRepository(ckanQueryApi, ckanDatasetExportApi,
+                ckanDatasetsMapper, ckanSearchFacetsMapper,
+                mock(FilterHelpTextService.class), mock(DatasetHelpTextService.class),
+                mock(CkanOrderedIdsLoader.class), catalogueIndex, configuration,
+                Executors.newVirtualThreadPerTaskExecutor(),
+                new SearchMetrics(OpenTelemetry.noop().getMeter("test")));
+    }
+
+    @Test
+    void resolvesSeriesInOrder_andCachesThemPerLanguage() {
+        givenDataset("dataset", List.of("series-a", "series-b", "series-c"));
+        givenSeries("series-a");
+        givenSeries("series-b");
+        givenSeries("series-c");
+
+        var first = underTest.findById("dataset", null, "en");
+        var second = underTest.findById("dataset", null, "en");
+
+        assertThat(first.getInSeries())
+                .extracting(DatasetSeries::getId)
+                .containsExactly("series-a", "series-b", "series-c");
+        assertThat(second.getInSeries())
+                .extracting(DatasetSeries::getId)
+                .containsExactly("series-a", "series-b", "series-c");
+        verify(ckanQueryApi, times(1)).packageShow("series-a", "en");
+        verify(ckanQueryApi, times(1)).packageShow("series-b", "en");
+
+        underTest.findById("dataset", null, "nl");
+        verify(ckanQueryApi, times(1)).packageShow("series-a", "nl");
+    }
+
+    @Test
+    void fallsBackToIdentifier_andRetries_whenSeriesCannotBeResolved() {
+        givenDataset("dataset", List.of("series-a", "missing"));
+        givenSeries("series-a");
+        var notFound = notFound();
+        when(ckanQueryApi.packageShow("missing", "en")).thenThrow(notFound);
+
+        var result = underTest.findById("dataset", null, "en");
+        underTest.findById("dataset", null, "en");
+
+        assertThat(result.getInSeries())
+                .extracting(DatasetSeries::getTitle)
+                .containsExactly("Series series-a", "missing");
+        verify(ckanQueryApi, times(2)).packageShow("missing", "en");
+    }
+
+    @Test
+    void reusesCkanOnlyResults_forEquivalentQueries() {
+        when(ckanQueryApi.packageSearch(any(), any()))
+                .thenReturn(PackagesSearchResponse.builder()
+                        .result(PackagesSearchResult.builder().count(1).build())
+                        .build());
+
+        var first = underTest.search(DatasetSearchQuery.builder()
+                .query("cancer")
+                .facets(List.of(ckanFacet("tags", "b"), ckanFacet("tags", "a")))
+                .build(), null, "en");
+        var second = underTest.search(DatasetSearchQuery.builder()
+                .query(" cancer ")
+                .operator(QueryOperator.OR)
+                .facets(List.of(ckanFacet("tags", "a"), ckanFacet("tags", "b"),
+                        ckanFacet("tags", "a")))
+                .build(), "token", "en");
+        underTest.search(DatasetSearchQuery.builder()
+                .query("cancer")
+                .facets(List.of(ckanFacet("tags", "a"), ckanFacet("tags", "b")))
+                .build(), null, "nl");
+
+        assertThat(second).isSameAs(first);
+        verify(ckanQueryApi, times(1)).packageSearch(eq("en"), any());
+        verify(ckanQueryApi, times(1)).packageSearch(eq("nl"), any());
+    }
+
+    @Test
+    void servesSearches_fromCatalogueIndex_withoutAskingCkan() {
+        var query = DatasetSearchQuery.builder()
+                .facets(List.of(ckanFacet("tags", "a")))
+                .build();
+        var dataset = SearchedDataset.builder().identifier("dataset").build();
+        when(catalogueIndex.search(query, "en")).thenReturn(Optional.of(
+                new CatalogueSnapshot.IndexedPage(List.of(dataset),
+                        PackagesSearchResult.builder().count(3).build())));
+
+        var response = underTest.search(query, null, "en");
+
+        assertThat(response.getCount()).isEqualTo(3);
+        assertThat(response.getResults()).containsExactly(dataset);
+        verify(ckanQueryApi, never()).packageSearch(any(), any());
+    }
+
+    @Test
+    void passesExportThrough_withUpstreamLengthAndEncoding() throws IOException {
+        var content = new ByteArrayInputStream(new byte[] {0x1f, (byte) 0x8b, 0x08});
+        @SuppressWarnings("unchecked")
+        RestResponse<InputStream> response = mock(RestResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getEntity()).thenReturn(content);
+        when(response.getHeaderString(HttpHeaders.CONTENT_LENGTH)).thenReturn("3");
+        when(response.getHeaderString(HttpHeaders.CONTENT_ENCODING)).thenReturn("gzip");
+        when(ckanDatasetExportApi.retrieveDatasetInFormat("dataset", "ttl", "token", "gzip", null,
+                null)).thenReturn(response);
+
+        try (var result = underTest.retrieveDatasetInFormat("dataset", "ttl", "token", "gzip",
+                null, null)) {
+            assertThat(result.content()).isSameAs(content);
+            assertThat(result.contentLength()).isEqualTo(3L);
+            assertThat(result.contentEncoding()).isEqualTo("gzip");
+        }
+    }
+
+    @Test
+    void leavesLengthAndEncodingOut_whenUpstreamDoesNotSendThem() {
+        @SuppressWarnings("unchecked")
+        RestResponse<InputStream> response = mock(RestResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getEntity()).thenReturn(InputStream.nullInputStream());
+        when(ckanDatasetExportApi.retrieveDatasetInFormat("dataset", "rdf", null, null, null,
+                null)).thenReturn(response);
+
+        var result = underTest.retrieveDatasetInFormat("dataset", "rdf", null, null, null, null);
+
+        assertThat(result.contentLength()).isNull();
+        assertThat(result.contentEncoding()).isNull();
+    }
+
+    @Test
+    void reportsNotModified_andReleasesUpstreamBody_whenCkanAnswers304() {
+        @SuppressWarnings("unchecked")
+        RestResponse<InputStream> response = mock(RestResponse.class);
+        when(response.getStatus()).thenReturn(304);
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn("\"v1\"");
+        when(ckanDatasetExportApi.retrieveDatasetInFormat("dataset", "ttl", null, null, "\"v1\"",
+                null)).thenReturn(response);
+
+        var result = underTest.retrieveDatasetInFormat("dataset", "ttl", null, null, "\"v1\"",
+                null);
+
+        assertThat(result.notModified()).isTrue();
+        assertThat(result.entityTag()).isEqualTo("\"v1\"");
+        assertThat(result.contentLength()).isNull();
+        verify(response).close();
+    }
+
+    @Test
+    void throwsDatasetNotFound_whenExportIsNotFound() {
+        var notFound = notFound();
+        when(ckanDatasetExportApi.retrieveDatasetInFormat("missing", "jsonld", null, null, null,
+                null)).thenThrow(notFound);
+
+        assertThatThrownBy(() -> underTest.retrieveDatasetInFormat("missing", "jsonld", null,
+                null, null, null))
+                .isInstanceOf(DatasetNotFoundException.class)
+                .hasMessage("Dataset missing not found");
+    }
+
+    private void givenDataset(String id, List<String> inSeries) {
+        var ckanPackage = CkanPackage.builder().id(id).inSeries(inSeries).build();
+        when(ckanQueryApi.packageShow(eq(id), any()))
+                .thenReturn(CkanPackageShowResponse.builder().result(ckanPackage).build());
+        when(ckanDatasetsMapper.map(ckanPackage))
+                .thenAnswer(invocation -> RetrievedDataset.builder().id(id).build());
+    }
+
+    private void givenSeries(String id) {
+        var ckanPackage = CkanPackage.builder().id(id).build();
+        when(ckanQueryApi.packageShow(eq(id), any()))
+                .thenReturn(CkanPackageShowResponse.builder().result(ckanPackage).build());
+        when(ckanDatasetsMapper.mapToDatasetSeries(ckanPackage))
+                .thenReturn(DatasetSeries.builder().id(id).title("Series " + id).build());
+    }
+
+    private DatasetSearchQueryFacet ckanFacet(String key, String value) {
+        return DatasetSearchQueryFacet.builder()
+                .source("ckan")
+                .type(FilterType.DROPDOWN)
+                .key(key)
+                .value(value)
+                .build();
+    }
+
+    private WebApplicationException notFound() {
+        var response = mock(Response.class);
+        when(response.getStatus()).thenReturn(404);
+        return new WebApplicationException("Not found", response);
+    }
+}
@@ -0,0 +1,184 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.ckan.CkanSearchFacetsMapper;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.CkanValueLabel;
+import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackageSearchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CkanOrderedIdsLoaderTest {
+
+    private static final Pattern QUOTED_ID = Pattern.compile("\"([^\"]+)\"");
+    private static final Map<String, String> MODIFIED = Map.of(
+            "a", "2024-01-03T00:00:00",
+            "b", "2024-01-05T00:00:00",
+            "c", "2024-01-01T00:00:00",
+            "d", "2024-01-04T00:00:00",
+            "e", "2024-01-02T00:00:00");
+
+    private CkanIdentifiersApi ckanIdentifiersApi;
+    private CkanOrderedIdsLoader underTest;
+
+    @BeforeEach
+    void setUp() {
+        ckanIdentifiersApi = mock(CkanIdentifiersApi.class);
+        var ckanSearchFacetsMapper = mock(CkanSearchFacetsMapper.class);
+        when(ckanSearchFacetsMapper.applyStats(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        var configuration = mock(CkanClientConfiguration.class);
+        var idRestriction = mock(CkanClientConfiguration.IdRestriction.class);
+        when(configuration.idRestriction()).thenReturn(idRestriction);
+        when(idRestriction.strategy()).thenReturn(IdRestrictionStrategy.BOOLEAN);
+        when(idRestriction.chunkSize()).thenReturn(2);
+        when(idRestriction.parallelism()).thenReturn(2);
+        when(idRestriction.orderedIdsTtl()).thenReturn(Duration.ofMinutes(2));
+        when(idRestriction.orderedIdsMaxEntries()).thenReturn(10);
+
+        when(ckanIdentifiersApi.packageSearch(anyString(), any()))
+                .thenAnswer(invocation -> chunk(invocation.getArgument(1)));
+
+        underTest = new CkanOrderedIdsLoader(ckanIdentifiersApi, new ObjectMapper(),
+                ckanSearchFacetsMapper, Executors.newVirtualThreadPerTaskExecutor(),
+                configuration, Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"),
+                        ZoneOffset.UTC));
+    }
+
+    @Test
+    void ordersAcrossChunks_bySortFields() {
+        var result = underTest.load(Set.of("a", "b", "c", "d", "e"),
+                "score desc, metadata_modified desc", "en").orElseThrow();
+
+        assertThat(result.identifiers()).containsExactly("b", "d", "a", "e", "c");
+        verify(ckanIdentifiersApi, times(3)).packageSearch(anyString(), any());
+    }
+
+    @Test
+    void requestsOnlyIdentifierAndSortFields_perChunk() {
+        underTest.load(Set.of("a", "b", "c"), "title_string asc", "en");
+
+        var requests = ArgumentCaptor.forClass(PackageSearchRequest.class);
+        verify(ckanIdentifiersApi, times(2)).packageSearch(anyString(), requests.capture());
+        assertThat(requests.getAllValues())
+                .extracting(PackageSearchRequest::getFl)
+                .containsOnly("identifier,title_string");
+        assertThat(requests.getAllValues())
+                .extracting(PackageSearchRequest::getFq)
+                .containsExactlyInAnyOrder("identifier:(\"a\" OR \"b\")", "identifier:(\"c\")");
+    }
+
+    @Test
+    void leavesSortToCkan_whenSortFieldsAreNotReturned() {
+        // title_string is indexed but not stored, so Solr leaves it out of fl
+        var result = underTest.load(Set.of("a", "b", "c"), "title_string asc", "en");
+        underTest.load(Set.of("a", "b", "c"), "title_string asc", "en");
+
+        assertThat(result).isEmpty();
+        verify(ckanIdentifiersApi, times(2)).packageSearch(anyString(), any());
+    }
+
+    @Test
+    void sumsFacetCounts_andWidensStats() {
+        var result = underTest.load(Set.of("a", "b", "c", "d", "e"), null, "en").orElseThrow();
+
+        var facets = result.facets();
+        assertThat(facets.getCount()).isEqualTo(5);
+        assertThat(facets.getSearchFacets().get("tags").getItems())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getCount()).isEqualTo(5));
+        var modified = facets.getStats().getStatsFields().get("metadata_modified");
+        assertThat(modified.getMin()).isEqualTo("2024-01-01T00:00:00");
+        assertThat(modified.getMax()).isEqualTo("2024-01-05T00:00:00");
+    }
+
+    @Test
+    void sortsMergedFacetItems_byCountThenName() {
+        // "y" only shows up in the chunk holding "e", yet outnumbers "x" once counts are summed
+        when(ckanIdentifiersApi.packageSearch(anyString(), any()))
+                .thenAnswer(invocation -> chunk(invocation.getArgument(1), ids -> ids.contains("e")
+                        ? "{\"name\": \"y\", \"count\": 9}, {\"name\": \"w\", \"count\": 1}, "
+                                + "{\"name\": \"v\", \"count\": 1}"
+                        : "{\"name\": \"x\", \"count\": 2}"));
+
+        var result = underTest.load(Set.of("a", "b", "c", "d", "e"), null, "en").orElseThrow();
+
+        assertThat(result.facets().getSearchFacets().get("tags").getItems())
+                .extracting(CkanValueLabel::getName, CkanValueLabel::getCount)
+                .containsExactly(tuple("y", 9), tuple("x", 4), tuple("v", 1), tuple("w", 1));
+    }
+
+    @Test
+    void reusesOrderedIds_forSameSetSortAndLanguage() {
+        underTest.load(Set.of("a", "b", "c"), null, "en");
+        underTest.load(Set.of("c", "b", "a"), null, "en");
+        verify(ckanIdentifiersApi, times(2)).packageSearch(anyString(), any());
+
+        underTest.load(Set.of("a", "b", "c"), null, "nl");
+        verify(ckanIdentifiersApi, times(4)).packageSearch(anyString(), any());
+    }
+
+    @Test
+    void termsStrategy_usesCompactForm_unlessIdsContainSeparator() {
+        assertThat(IdRestrictionStrategy.TERMS.fq(List.of("a", "b")))
+                .isEqualTo("{!terms f=identifier}a,b");
+        assertThat(IdRestrictionStrategy.TERMS.fq(List.of("a,1", "b")))
+                .isEqualTo(IdRestrictionStrategy.BOOLEAN.fq(List.of("a,1", "b")));
+    }
+
+    private InputStream chunk(PackageSearchRequest request) {
+        return chunk(request, ids -> "{\"name\": \"x\", \"display_name\": \"X\", \"count\": %d}"
+                .formatted(ids.size()));
+    }
+
+    private InputStream chunk(PackageSearchRequest request,
+            Function<List<String>, String> tagItems) {
+        var matcher = QUOTED_ID.matcher(request.getFq());
+        var ids = matcher.results().map(match -> match.group(1)).toList();
+        var results = ids.stream()
+                .map(id -> "{\"identifier\":\"%s\",\"metadata_modified\":\"%s\"}"
+                        .formatted(id, MODIFIED.get(id)))
+                .collect(Collectors.joining(","));
+        var modified = ids.stream().map(MODIFIED::get).sorted().toList();
+        var body = """
+                {"success": true, "result": {
+                  "count": %d,
+                  "results": [%s],
+                  "search_facets": {"tags": {"title": "tags", "items": [%s]}},
+                  "stats": {"stats_fields": {"metadata_modified": {"min": "%s", "max": "%s"}}}
+                }}
+                """.formatted(ids.size(), results, tagItems.apply(ids), modified.getFirst(),
+                modified.getLast());
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
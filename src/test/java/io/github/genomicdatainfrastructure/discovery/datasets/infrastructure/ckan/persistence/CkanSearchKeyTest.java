@@ -0,0 +1,122 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence;
+
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.persistence.CkanFacetsQueryBuilder.TemporalCoverageBounds;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
+import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
+import io.github.genomicdatainfrastructure.discovery.model.FilterType;
+import io.github.genomicdatainfrastructure.discovery.model.Operator;
+import io.github.genomicdatainfrastructure.discovery.model.QueryOperator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CkanSearchKeyTest {
+
+    private static final TemporalCoverageBounds NO_BOUNDS = new TemporalCoverageBounds(null,
+            null);
+
+    @Test
+    void equalKeys_forReorderedAndDuplicatedFacets() {
+        var first = DatasetSearchQuery.builder()
+                .query("cancer ")
+                .facets(List.of(facet("ckan", "tags", "b"), facet("ckan", "theme", "x"),
+                        facet("ckan", "tags", "a")))
+                .build();
+        var second = DatasetSearchQuery.builder()
+                .query("cancer")
+                .operator(QueryOperator.OR)
+                .facets(List.of(facet("ckan", "theme", "x"), facet("ckan", "tags", "a"),
+                        facet("ckan", "tags", "b"), facet("ckan", "tags", "a")))
+                .build();
+
+        assertThat(CkanSearchKey.of(first, NO_BOUNDS, "en"))
+                .isEqualTo(CkanSearchKey.of(second, NO_BOUNDS, "en"));
+    }
+
+    @Test
+    void differentKeys_forValuesCkanQuotesDifferently() {
+        var trimmed = DatasetSearchQuery.builder()
+                .facets(List.of(facet("ckan", "tags", "a")))
+                .build();
+        var padded = DatasetSearchQuery.builder()
+                .facets(List.of(facet("ckan", "tags", " a")))
+                .build();
+
+        assertThat(CkanSearchKey.of(trimmed, NO_BOUNDS, "en"))
+                .isNotEqualTo(CkanSearchKey.of(padded, NO_BOUNDS, "en"));
+    }
+
+    @Test
+    void differentKeys_forRangeFacetsInDifferentOrder() {
+        var lowFirst = DatasetSearchQuery.builder()
+                .facets(List.of(range("10"), range("20")))
+                .build();
+        var highFirst = DatasetSearchQuery.builder()
+                .facets(List.of(range("20"), range("10")))
+                .build();
+
+        // only the first lower bound reaches CKAN
+        assertThat(CkanSearchKey.of(lowFirst, NO_BOUNDS, "en"))
+                .isNotEqualTo(CkanSearchKey.of(highFirst, NO_BOUNDS, "en"));
+    }
+
+    @Test
+    void ignoresFacetsThatNeverReachCkan() {
+        var plain = DatasetSearchQuery.builder().query("cancer").build();
+        var withIgnoredFacets = DatasetSearchQuery.builder()
+                .query("cancer")
+                .facets(List.of(facet("beacon", "sex", "female"), facet("ckan", "tags", " "),
+                        facet("ckan", "temporal_coverage", "2020")))
+                .build();
+
+        assertThat(CkanSearchKey.of(plain, NO_BOUNDS, "en"))
+                .isEqualTo(CkanSearchKey.of(withIgnoredFacets, NO_BOUNDS, "en"));
+    }
+
+    @Test
+    void equalKeys_forSameTemporalInstantInDifferentOffsets() {
+        var query = DatasetSearchQuery.builder().build();
+
+        var utc = new TemporalCoverageBounds("2020-01-01T00:00:00Z", null);
+        var cet = new TemporalCoverageBounds("2020-01-01T01:00:00+01:00", null);
+
+        assertThat(CkanSearchKey.of(query, utc, "en"))
+                .isEqualTo(CkanSearchKey.of(query, cet, "en"));
+    }
+
+    @Test
+    void differentKeys_forDifferentLanguageOrPage() {
+        var query = DatasetSearchQuery.builder().query("cancer").start(0).build();
+        var nextPage = query.toBuilder().start(10).build();
+
+        var key = CkanSearchKey.of(query, NO_BOUNDS, "en");
+
+        assertThat(key).isNotEqualTo(CkanSearchKey.of(query, NO_BOUNDS, "nl"));
+        assertThat(key).isNotEqualTo(CkanSearchKey.of(nextPage, NO_BOUNDS, "en"));
+    }
+
+    private DatasetSearchQueryFacet range(String lowerBound) {
+        return DatasetSearchQueryFacet.builder()
+                .source("ckan")
+                .type(FilterType.NUMBER)
+                .operator(Operator.GREATER_THAN_OR_EQUAL_TO_SYMBOL)
+                .key("number_of_participants")
+                .value(lowerBound)
+                .build();
+    }
+
+    private DatasetSearchQueryFacet facet(String source, String key, String value) {
+        return DatasetSearchQueryFacet.builder()
+                .source(source)
+                .type(FilterType.DROPDOWN)
+                .key(key)
+                .value(value)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestClientMetricsFilterTest {
+
+    private static final AttributeKey<String> CLIENT = AttributeKey.stringKey("client");
+    private static final AttributeKey<Long> STATUS =
+            AttributeKey.longKey("http.response.status_code");
+    private static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+
+    private DoubleHistogram requestDuration;
+    private RestClientMetricsFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        var meter = mock(Meter.class);
+        var builder = mock(DoubleHistogramBuilder.class, RETURNS_SELF);
+        requestDuration = mock(DoubleHistogram.class);
+        when(meter.histogramBuilder(anyString())).thenReturn(builder);
+        when(builder.build()).thenReturn(requestDuration);
+        underTest = new RestClientMetricsFilter(meter);
+    }
+
+    @Test
+    void recordsStatus_perClientConfigKey() throws Exception {
+        var request = request();
+        request.setProperty("org.eclipse.microprofile.rest.client.invokedMethod",
+                TestApi.class.getMethod("search"));
+        var response = mock(ClientResponseContext.class);
+        when(response.getStatus()).thenReturn(200);
+
+        underTest.filter(request);
+        underTest.filter(request, response);
+
+        var attributes = recorded();
+        assertThat(attributes.get(CLIENT)).isEqualTo("test_yaml");
+        assertThat(attributes.get(STATUS)).isEqualTo(200L);
+        assertThat(attributes.get(ERROR_TYPE)).isNull();
+    }
+
+    @Test
+    void recordsErrorType_whenCallFailsWithoutResponse() {
+        var request = request();
+
+        underTest.filter(request);
+        underTest.recordFailure(request, new CompletionException(
+                new ProcessingException(new ConnectException("Connection refused"))));
+
+        var attributes = recorded();
+        assertThat(attributes.get(CLIENT)).isEqualTo("ckan.example.org");
+        assertThat(attributes.get(ERROR_TYPE)).isEqualTo("java.net.ConnectException");
+        assertThat(attributes.get(STATUS)).isNull();
+    }
+
+    @Test
+    void recordsStatus_whenResponseIsTurnedIntoFailure() {
+        var request = request();
+
+        underTest.filter(request);
+        underTest.recordFailure(request, webApplicationException(503));
+
+        assertThat(recorded().get(STATUS)).isEqualTo(503L);
+    }
+
+    @Test
+    void recordsEachCallOnce() {
+        var request = request();
+        var response = mock(ClientResponseContext.class);
+        when(response.getStatus()).thenReturn(500);
+
+        underTest.filter(request);
+        underTest.filter(request, response);
+        underTest.recordFailure(request, webApplicationException(500));
+
+        verify(requestDuration, times(1)).record(anyDouble(), any(Attributes.class));
+    }
+
+    private Attributes recorded() {
+        var attributes = ArgumentCaptor.forClass(Attributes.class);
+        verify(requestDuration).record(anyDouble(), attributes.capture());
+        return attributes.getValue();
+    }
+
+    private static WebApplicationException webApplicationException(int status) {
+        var response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        return new WebApplicationException("Upstream error", response);
+    }
+
+    private static ClientRequestContext request() {
+        var properties = new HashMap<String, Object>();
+        var request = mock(ClientRequestContext.class);
+        when(request.getUri()).thenReturn(URI.create("https://ckan.example.org/api/3/action"));
+        when(request.getProperty(anyString()))
+                .thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> properties.put(invocation.getArgument(0),
+                invocation.getArgument(1)))
+                .when(request).setProperty(anyString(), any());
+        doAnswer(invocation -> properties.remove(invocation.<String>getArgument(0)))
+                .when(request).removeProperty(anyString());
+        return request;
+    }
+
+    @RegisterRestClient(configKey = "test_yaml")
+    interface TestApi {
+
+        String search();
+    }
+}
@@ -0,0 +1,110 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.LongHistogramBuilder;
+import io.opentelemetry.api.metrics.Meter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
+
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.BEACON_IDS;
+import static io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.metrics.SearchMetrics.Stage.CKAN_IDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchMetricsTest {
+
+    private static final AttributeKey<String> STAGE = AttributeKey.stringKey("stage");
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> SOURCE = AttributeKey.stringKey("source");
+
+    private DoubleHistogram stageDuration;
+    private LongHistogram idsCount;
+    private LongHistogram ckanIdPages;
+    private SearchMetrics underTest;
+
+    @BeforeEach
+    void setUp() {
+        var meter = mock(Meter.class);
+        stageDuration = doubleHistogram(meter, "discovery.search.stage.duration");
+        idsCount = longHistogram(meter, "discovery.search.ids");
+        ckanIdPages = longHistogram(meter, "discovery.search.ckan_ids.pages");
+        underTest = new SearchMetrics(meter);
+    }
+
+    @Test
+    void recordsStageDuration_withSuccessOutcome() {
+        var result = underTest.time(CKAN_IDS, () -> "ids");
+
+        assertThat(result).isEqualTo("ids");
+        var attributes = ArgumentCaptor.forClass(Attributes.class);
+        verify(stageDuration).record(anyDouble(), attributes.capture());
+        assertThat(attributes.getValue().get(STAGE)).isEqualTo("ckan_ids");
+        assertThat(attributes.getValue().get(OUTCOME)).isEqualTo("success");
+    }
+
+    @Test
+    void recordsStageDuration_withErrorOutcome_andRethrows() {
+        var failure = new IllegalStateException("Beacon is down");
+
+        assertThatThrownBy(() -> underTest.time(BEACON_IDS, () -> {
+            throw failure;
+        })).isSameAs(failure);
+
+        var attributes = ArgumentCaptor.forClass(Attributes.class);
+        verify(stageDuration).record(anyDouble(), attributes.capture());
+        assertThat(attributes.getValue().get(STAGE)).isEqualTo("beacon_ids");
+        assertThat(attributes.getValue().get(OUTCOME)).isEqualTo("error");
+    }
+
+    @Test
+    void recordsIdCounts_perSource_unlessNothingWasCollected() {
+        underTest.recordIds("beacon", Map.of("a", 1, "b", 2));
+        underTest.recordIds("ckan", null);
+
+        var attributes = ArgumentCaptor.forClass(Attributes.class);
+        verify(idsCount).record(eq(2L), attributes.capture());
+        assertThat(attributes.getValue().get(SOURCE)).isEqualTo("beacon");
+    }
+
+    @Test
+    void recordsCkanIdPages() {
+        underTest.recordCkanIdPages(3);
+
+        verify(ckanIdPages).record(3L);
+    }
+
+    private static DoubleHistogram doubleHistogram(Meter meter, String name) {
+        var builder = mock(DoubleHistogramBuilder.class, RETURNS_SELF);
+        var histogram = mock(DoubleHistogram.class);
+        when(meter.histogramBuilder(name)).thenReturn(builder);
+        when(builder.build()).thenReturn(histogram);
+        return histogram;
+    }
+
+    private static LongHistogram longHistogram(Meter meter, String name) {
+        var builder = mock(DoubleHistogramBuilder.class, RETURNS_SELF);
+        var longBuilder = mock(LongHistogramBuilder.class, RETURNS_SELF);
+        var histogram = mock(LongHistogram.class);
+        when(meter.histogramBuilder(name)).thenReturn(builder);
+        when(builder.ofLongs()).thenReturn(longBuilder);
+        when(longBuilder.build()).thenReturn(histogram);
+        return histogram;
+    }
+}
@@ -15,11 +15,15 @@ import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQuery;
 import io.github.genomicdatainfrastructure.discovery.model.DatasetSearchQueryFacet;
 import io.github.genomicdatainfrastructure.discovery.model.FilterType;
 import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit5.virtual.ShouldNotPin;
+import io.quarkus.test.junit5.virtual.VirtualThreadUnit;
 
 import org.junit.jupiter.api.Test;
 import java.util.List;
 
 @QuarkusTest
+@VirtualThreadUnit
+@ShouldNotPin
 class DatasetSearchTest extends BaseTest {
 
     @Test
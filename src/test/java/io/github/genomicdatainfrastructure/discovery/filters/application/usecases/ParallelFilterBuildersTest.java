@@ -0,0 +1,126 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.filters.application.usecases;
+
+import io.github.genomicdatainfrastructure.discovery.filters.application.ports.FilterBuilder;
+import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
+import io.github.genomicdatainfrastructure.discovery.model.Filter;
+import jakarta.enterprise.inject.Instance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelFilterBuildersTest {
+
+    private Instance<FilterBuilder> filterBuilders;
+    private ParallelFilterBuilders underTest;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        filterBuilders = mock(Instance.class);
+        var datasetsConfig = mock(DatasetsConfig.class);
+        when(datasetsConfig.filterBuilderTimeout()).thenReturn(Duration.ofMillis(200));
+
+        underTest = new ParallelFilterBuilders(filterBuilders,
+                Executors.newVirtualThreadPerTaskExecutor(), datasetsConfig);
+    }
+
+    @Test
+    void runsBuildersConcurrently_andKeepsTheirOrder() {
+        var bothStarted = new CountDownLatch(2);
+        givenBuilders(
+                builder("ckan", () -> awaitOther(bothStarted, "tags")),
+                builder("beacon", () -> awaitOther(bothStarted, "sex")));
+
+        var filters = underTest.build(filterBuilder -> true, "token", "en");
+
+        assertThat(filters).extracting(Filter::getKey).containsExactly("tags", "sex");
+    }
+
+    @Test
+    void leavesOutSlowAndFailingBuilders() {
+        givenBuilders(
+                builder("ckan", () -> {
+                    throw new IllegalStateException("CKAN down");
+                }),
+                builder("slow", () -> {
+                    sleep(Duration.ofSeconds(5));
+                    return List.of(filter("late"));
+                }),
+                builder("beacon", () -> List.of(filter("sex"))),
+                builder("empty", () -> null));
+
+        var filters = underTest.build(filterBuilder -> true, "token", "en");
+
+        assertThat(filters).extracting(Filter::getKey).containsExactly("sex");
+    }
+
+    @Test
+    void onlyRunsSelectedBuilders() {
+        givenBuilders(
+                builder("ckan", () -> List.of(filter("tags"))),
+                builder("beacon", () -> List.of(filter("sex"))));
+
+        var filters = underTest.build(filterBuilder -> !"ckan".equals(filterBuilder.source()),
+                null, "en");
+
+        assertThat(filters).extracting(Filter::getKey).containsExactly("sex");
+    }
+
+    private void givenBuilders(FilterBuilder... builders) {
+        when(filterBuilders.stream()).thenAnswer(invocation -> Stream.of(builders));
+    }
+
+    private List<Filter> awaitOther(CountDownLatch bothStarted, String key) {
+        bothStarted.countDown();
+        try {
+            bothStarted.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return List.of(filter(key));
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Filter filter(String key) {
+        return Filter.builder()
+                .key(key)
+                .label(key)
+                .build();
+    }
+
+    private FilterBuilder builder(String source, Supplier<List<Filter>> filters) {
+        return new FilterBuilder() {
+
+            @Override
+            public String source() {
+                return source;
+            }
+
+            @Override
+            public List<Filter> build(String accessToken, String preferredLanguage) {
+                return filters.get();
+            }
+        };
+    }
+}
@@ -12,17 +12,18 @@ import io.github.genomicdatainfrastructure.discovery.model.FilterType;
 import io.github.genomicdatainfrastructure.discovery.model.ValueLabel;
 import jakarta.enterprise.inject.Instance;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
@@ -42,13 +43,11 @@ class RetrieveFiltersQueryTest {
     @Mock
     private DatasetsConfig datasetsConfig;
 
-    @InjectMocks
-    private RetrieveFiltersQuery query;
-
     @BeforeEach
     public void setUp() {
         when(filterBuilders.stream()).thenReturn(Stream.of(filterBuilderCkan, filterBuilderBeacon));
         when(datasetsConfig.noGroupKey()).thenReturn("NO_GROUP");
+        when(datasetsConfig.filterBuilderTimeout()).thenReturn(Duration.ofSeconds(5));
     }
 
     @Test
@@ -84,7 +83,7 @@ class RetrieveFiltersQueryTest {
                         .build());
         when(filterBuilderBeacon.build(anyString(), any())).thenReturn(mockBeaconFilters);
 
-        var actual = query.execute("token", "en");
+        var actual = newQuery().execute("token", "en");
 
         Assertions.assertThat(actual)
                 .containsExactlyInAnyOrder(Filter.builder()
@@ -136,7 +135,7 @@ class RetrieveFiltersQueryTest {
 
         when(filterBuilderBeacon.build(anyString(), any())).thenReturn(null);
 
-        var actual = query.execute("token", null);
+        var actual = newQuery().execute("token", null);
 
         Assertions.assertThat(actual)
                 .containsExactly(Filter.builder()
@@ -194,7 +193,7 @@ class RetrieveFiltersQueryTest {
                         .build());
         when(filterBuilderBeacon.build(anyString(), any())).thenReturn(mockBeaconFilters);
 
-        var actual = query.execute("token", "en");
+        var actual = newQuery().execute("token", "en");
 
         Assertions.assertThat(actual)
                 .containsExactlyInAnyOrder(Filter.builder()
@@ -226,6 +225,34 @@ class RetrieveFiltersQueryTest {
                 );
     }
 
+    @Test
+    void shouldLeaveBuiltFiltersUntouched() {
+        when(datasetsConfig.filterGroups()).thenReturn(List.of(
+                new MockFilterGroup("CKAN_GROUP", Set.of(new MockFilter("tags")))));
+        var cachedFilter = Filter.builder()
+                .source("ckan")
+                .type(FilterType.DROPDOWN)
+                .key("tags")
+                .label("tags")
+                .build();
+        when(filterBuilderCkan.build(anyString(), any())).thenReturn(List.of(cachedFilter));
+        when(filterBuilderBeacon.build(anyString(), any())).thenReturn(List.of());
+
+        var actual = newQuery().execute("token", "en");
+
+        Assertions.assertThat(actual)
+                .extracting(Filter::getGroup)
+                .containsExactly("CKAN_GROUP");
+        Assertions.assertThat(cachedFilter.getGroup()).isNull();
+        Assertions.assertThatThrownBy(() -> actual.add(cachedFilter))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private RetrieveFiltersQuery newQuery() {
+        return new RetrieveFiltersQuery(new ParallelFilterBuilders(filterBuilders,
+                Executors.newVirtualThreadPerTaskExecutor(), datasetsConfig), datasetsConfig);
+    }
+
     record MockFilterGroup(String key, Set<DatasetsConfig.Filter> filters) implements FilterGroup {
     }
 
@@ -0,0 +1,105 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.beacon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.MutableClock;
+import io.github.genomicdatainfrastructure.discovery.model.Filter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BeaconFilterCatalogueTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static final Duration RELOAD_INTERVAL = Duration.ofMinutes(1);
+
+    @TempDir
+    Path directory;
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void loadsBundledCatalogue() {
+        var underTest = new BeaconFilterCatalogue(new ObjectMapper(), Optional.empty(),
+                RELOAD_INTERVAL, clock);
+
+        assertThat(underTest.filters())
+                .isNotEmpty()
+                .extracting(Filter::getSource)
+                .containsOnly("beacon");
+    }
+
+    @Test
+    void servesCopies_soCallerChangesDoNotLeak() {
+        var underTest = new BeaconFilterCatalogue(new ObjectMapper(), Optional.empty(),
+                RELOAD_INTERVAL, clock);
+
+        var first = underTest.filters().getFirst();
+        first.setGroup("mutated");
+
+        assertThat(underTest.filters().getFirst().getGroup()).isNull();
+        assertThatThrownBy(() -> first.getValues().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void reloadsExternalCatalogue_whenModifiedAfterInterval() throws IOException {
+        var location = write(catalogue("diseases"), NOW);
+        var underTest = new BeaconFilterCatalogue(new ObjectMapper(), Optional.of(location),
+                RELOAD_INTERVAL, clock);
+        assertThat(underTest.filters()).extracting(Filter::getKey).containsExactly("diseases");
+
+        write(catalogue("sex"), NOW.plusSeconds(10));
+        assertThat(underTest.filters()).extracting(Filter::getKey).containsExactly("diseases");
+
+        clock.advance(RELOAD_INTERVAL);
+        assertThat(underTest.filters()).extracting(Filter::getKey).containsExactly("sex");
+    }
+
+    @Test
+    void keepsPreviousCatalogue_whenReloadFails() throws IOException {
+        var location = write(catalogue("diseases"), NOW);
+        var underTest = new BeaconFilterCatalogue(new ObjectMapper(), Optional.of(location),
+                RELOAD_INTERVAL, clock);
+
+        write("not json", NOW.plusSeconds(10));
+        clock.advance(RELOAD_INTERVAL);
+
+        assertThat(underTest.filters()).extracting(Filter::getKey).containsExactly("diseases");
+    }
+
+    @Test
+    void fallsBackToBundledCatalogue_whenExternalFileIsMissing() {
+        var underTest = new BeaconFilterCatalogue(new ObjectMapper(),
+                Optional.of(directory.resolve("missing.json")), RELOAD_INTERVAL, clock);
+
+        assertThat(underTest.filters()).isNotEmpty();
+    }
+
+    private Path write(String content, Instant modified) throws IOException {
+        var location = directory.resolve("beacon-filters.json");
+        Files.writeString(location, content);
+        Files.setLastModifiedTime(location, FileTime.from(modified));
+        return location;
+    }
+
+    private String catalogue(String key) {
+        return """
+                [{"source": "beacon", "type": "DROPDOWN", "key": "%s", "label": "%s",
+                  "values": [{"value": "v", "label": "V"}]}]
+                """.formatted(key, key);
+    }
+}
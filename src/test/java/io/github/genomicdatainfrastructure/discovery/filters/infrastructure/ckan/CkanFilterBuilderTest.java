@@ -6,8 +6,10 @@ package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.cka
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
 import io.github.genomicdatainfrastructure.discovery.filters.infrastructure.quarkus.DatasetsConfig;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.quarkus.HelpTextConfig;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.yaml.YamlHelpTextLoader;
@@ -25,11 +27,13 @@ import io.github.genomicdatainfrastructure.discovery.remote.ckan.model.PackagesS
 import jakarta.enterprise.inject.Vetoed;
 import jakarta.ws.rs.ProcessingException;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Test;
 
@@ -41,7 +45,24 @@ class CkanFilterBuilderTest {
     private static FilterHelpTextService helpTextService(CkanQueryApi ckanQueryApi,
             ObjectMapper objectMapper) {
         return new FilterHelpTextService(ckanQueryApi, objectMapper,
-                mock(HelpTextConfig.class), mock(YamlHelpTextLoader.class));
+                mock(HelpTextConfig.class), mock(YamlHelpTextLoader.class),
+                ckanClientConfiguration(), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    private static CkanClientConfiguration ckanClientConfiguration() {
+        var configuration = mock(CkanClientConfiguration.class);
+        var facetCatalogue = mock(CkanClientConfiguration.FacetCatalogue.class);
+        when(configuration.facetCatalogue()).thenReturn(facetCatalogue);
+        when(facetCatalogue.ttl()).thenReturn(Duration.ofMinutes(5));
+        when(facetCatalogue.maxStale()).thenReturn(Duration.ofHours(1));
+        when(facetCatalogue.maxEntries()).thenReturn(10);
+        var helpTexts = mock(CkanClientConfiguration.HelpTexts.class);
+        when(configuration.helpTexts()).thenReturn(helpTexts);
+        when(helpTexts.ttl()).thenReturn(Duration.ofMinutes(30));
+        when(helpTexts.maxStale()).thenReturn(Duration.ofHours(6));
+        when(helpTexts.maxEntries()).thenReturn(10);
+        when(helpTexts.maxWait()).thenReturn(Duration.ofSeconds(5));
+        return configuration;
     }
 
     @Test
@@ -92,7 +113,8 @@ class CkanFilterBuilderTest {
         var ckanQueryApi = new StubCkanQueryApi(response);
         var builder = new CkanFilterBuilder(ckanQueryApi,
                 new CkanSearchFacetsMapper(datasetsConfig),
-                helpTextService(ckanQueryApi, objectMapper));
+                helpTextService(ckanQueryApi, objectMapper), ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
         var filters = builder.build(null, "en");
 
         var modified = findFilter(filters, "modified");
@@ -176,7 +198,8 @@ class CkanFilterBuilderTest {
         var ckanQueryApi = new StubCkanQueryApi(response);
         var builder = new CkanFilterBuilder(ckanQueryApi,
                 new CkanSearchFacetsMapper(datasetsConfig),
-                helpTextService(ckanQueryApi, objectMapper));
+                helpTextService(ckanQueryApi, objectMapper), ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
         var filters = builder.build(null, "en");
 
         var typicalAge = findFilter(filters, "typical_age");
@@ -198,6 +221,11 @@ class CkanFilterBuilderTest {
                 .extracting(Filter::getKey)
                 .contains("typical_age")
                 .doesNotContain("min_typical_age", "max_typical_age");
+
+        // the upstream facets are left as CKAN returned them
+        assertThat(searchFacets.get("min_typical_age").getItems())
+                .extracting(CkanValueLabel::getName)
+                .containsExactly("0", "10");
     }
 
     @Test
@@ -218,7 +246,8 @@ class CkanFilterBuilderTest {
         var ckanQueryApi = new StubCkanQueryApi(response);
         var builder = new CkanFilterBuilder(ckanQueryApi,
                 new CkanSearchFacetsMapper(datasetsConfig),
-                helpTextService(ckanQueryApi, objectMapper));
+                helpTextService(ckanQueryApi, objectMapper), ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
         var filters = builder.build(null, "en");
 
         var number = findFilter(filters, "number_of_records");
@@ -246,7 +275,8 @@ class CkanFilterBuilderTest {
         var ckanQueryApi = new StubCkanQueryApi(response);
         var builder = new CkanFilterBuilder(ckanQueryApi,
                 new CkanSearchFacetsMapper(config),
-                helpTextService(ckanQueryApi, objectMapper));
+                helpTextService(ckanQueryApi, objectMapper), ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
         var filters = builder.build(null, "en");
 
         var tags = findFilter(filters, "tags");
@@ -276,7 +306,8 @@ class CkanFilterBuilderTest {
 
         var builder = new CkanFilterBuilder(ckanQueryApi,
                 new CkanSearchFacetsMapper(new TitleDatasetsConfig()),
-                helpTextService(ckanQueryApi, objectMapper));
+                helpTextService(ckanQueryApi, objectMapper), ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
         var filters = builder.build(null, "en");
 
         assertThat(findFilter(filters, "title").getHelpText().getText())
@@ -300,12 +331,39 @@ class CkanFilterBuilderTest {
         var ckanQueryApi = new StubCkanQueryApi(response, true);
         var builder = new CkanFilterBuilder(ckanQueryApi,
                 new CkanSearchFacetsMapper(new TitleDatasetsConfig()),
-                helpTextService(ckanQueryApi, objectMapper));
+                helpTextService(ckanQueryApi, objectMapper), ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
         var filters = builder.build(null, "en");
 
         assertThat(findFilter(filters, "title").getHelpText()).isNull();
     }
 
+    @Test
+    void servesFiltersFromCachePerLanguage_asIndependentCopies() {
+        var response = PackagesSearchResponse.builder()
+                .result(PackagesSearchResult.builder()
+                        .searchFacets(Map.of("tags", CkanFacet.builder()
+                                .title("Tags")
+                                .items(List.of())
+                                .build()))
+                        .build())
+                .build();
+
+        var ckanQueryApi = new StubCkanQueryApi(response);
+        var builder = new CkanFilterBuilder(ckanQueryApi,
+                new CkanSearchFacetsMapper(datasetsConfig),
+                helpTextService(ckanQueryApi, objectMapper), ckanClientConfiguration(),
+                Executors.newVirtualThreadPerTaskExecutor());
+
+        findFilter(builder.build(null, "en"), "tags").setGroup("mutated");
+        var filters = builder.build(null, "en");
+        assertThat(ckanQueryApi.packageSearchCalls).isEqualTo(1);
+        assertThat(findFilter(filters, "tags").getGroup()).isEqualTo("DEFAULT");
+
+        builder.build(null, "nl");
+        assertThat(ckanQueryApi.packageSearchCalls).isEqualTo(2);
+    }
+
     private Filter findFilter(List<Filter> filters, String key) {
         return filters.stream()
                 .filter(filter -> key.equals(filter.getKey()))
@@ -319,6 +377,7 @@ class CkanFilterBuilderTest {
         private final PackagesSearchResponse response;
         private final CkanFilterHelpTextsResponse helpTextsResponse;
         private final boolean failHelpTextsRequest;
+        private int packageSearchCalls;
 
         private StubCkanQueryApi(PackagesSearchResponse response) {
             this(response, CkanFilterHelpTextsResponse.builder().result(Map.of()).build());
@@ -340,6 +399,7 @@ class CkanFilterBuilderTest {
         @Override
         public PackagesSearchResponse packageSearch(String acceptLanguage,
                 PackageSearchRequest packageSearchRequest) {
+            packageSearchCalls++;
             return response;
         }
 
@@ -397,6 +457,11 @@ class CkanFilterBuilderTest {
             return false;
         }
 
+        @Override
+        public Duration filterBuilderTimeout() {
+            return Duration.ofSeconds(5);
+        }
+
         @Override
         public List<FilterGroup> filterGroups() {
             return List.of(new TestFilterGroup("DEFAULT", FILTERS));
@@ -421,6 +486,11 @@ class CkanFilterBuilderTest {
             return false;
         }
 
+        @Override
+        public Duration filterBuilderTimeout() {
+            return Duration.ofSeconds(5);
+        }
+
         @Override
         public List<FilterGroup> filterGroups() {
             return List.of(new TestFilterGroup("DEFAULT",
@@ -451,6 +521,11 @@ class CkanFilterBuilderTest {
             return false;
         }
 
+        @Override
+        public Duration filterBuilderTimeout() {
+            return Duration.ofSeconds(5);
+        }
+
         @Override
         public List<FilterGroup> filterGroups() {
             return List.of(new TestFilterGroup("DEFAULT", FILTERS));
@@ -7,9 +7,12 @@ package io.github.genomicdatainfrastructure.discovery.filters.infrastructure.cka
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.genomicdatainfrastructure.discovery.datasets.infrastructure.ckan.config.CkanClientConfiguration;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.quarkus.HelpTextConfig;
 import io.github.genomicdatainfrastructure.discovery.helptext.infrastructure.yaml.YamlHelpTextLoader;
 import io.github.genomicdatainfrastructure.discovery.model.Filter;
@@ -24,6 +27,9 @@ import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 class FilterHelpTextServiceTest {
 
@@ -34,12 +40,25 @@ class FilterHelpTextServiceTest {
                 .build();
     }
 
+    static CkanClientConfiguration ckanClientConfiguration(Duration maxWait) {
+        var configuration = mock(CkanClientConfiguration.class);
+        var helpTexts = mock(CkanClientConfiguration.HelpTexts.class);
+        when(configuration.helpTexts()).thenReturn(helpTexts);
+        when(helpTexts.ttl()).thenReturn(Duration.ofMinutes(30));
+        when(helpTexts.maxStale()).thenReturn(Duration.ofHours(6));
+        when(helpTexts.maxEntries()).thenReturn(10);
+        when(helpTexts.maxWait()).thenReturn(maxWait);
+        return configuration;
+    }
+
     @Test
     void enrichUsesRequestedFilterKeysWhenCallingCkan() {
         var ckanQueryApi = mock(CkanQueryApi.class);
         var helpTextConfig = mock(HelpTextConfig.class);
         var service = new FilterHelpTextService(ckanQueryApi, new ObjectMapper(),
-                helpTextConfig, mock(YamlHelpTextLoader.class));
+                helpTextConfig, mock(YamlHelpTextLoader.class),
+                ckanClientConfiguration(Duration.ofSeconds(5)),
+                Executors.newVirtualThreadPerTaskExecutor());
         var capturedKeys = new String[1];
 
         when(ckanQueryApi.gdiFilterHelpTextsShow(anyString(), anyString())).thenAnswer(
@@ -66,7 +85,9 @@ class FilterHelpTextServiceTest {
         var ckanQueryApi = mock(CkanQueryApi.class);
         var helpTextConfig = mock(HelpTextConfig.class);
         var service = new FilterHelpTextService(ckanQueryApi, new ObjectMapper(),
-                helpTextConfig, mock(YamlHelpTextLoader.class));
+                helpTextConfig, mock(YamlHelpTextLoader.class),
+                ckanClientConfiguration(Duration.ofSeconds(5)),
+                Executors.newVirtualThreadPerTaskExecutor());
 
         when(ckanQueryApi.gdiFilterHelpTextsShow(anyString(), anyString())).thenReturn(
                 CkanFilterHelpTextsResponse.builder()
@@ -97,7 +118,9 @@ class FilterHelpTextServiceTest {
         var ckanQueryApi = mock(CkanQueryApi.class);
         var helpTextConfig = mock(HelpTextConfig.class);
         var service = new FilterHelpTextService(ckanQueryApi, new ObjectMapper(),
-                helpTextConfig, mock(YamlHelpTextLoader.class));
+                helpTextConfig, mock(YamlHelpTextLoader.class),
+                ckanClientConfiguration(Duration.ofSeconds(5)),
+                Executors.newVirtualThreadPerTaskExecutor());
 
         var result = new LinkedHashMap<String, String>();
         result.put("title", null);
@@ -120,7 +143,9 @@ class FilterHelpTextServiceTest {
         var helpTextConfig = mock(HelpTextConfig.class);
         var yamlHelpTextLoader = mock(YamlHelpTextLoader.class);
         var service = new FilterHelpTextService(ckanQueryApi, new ObjectMapper(),
-                helpTextConfig, yamlHelpTextLoader);
+                helpTextConfig, yamlHelpTextLoader,
+                ckanClientConfiguration(Duration.ofSeconds(5)),
+                Executors.newVirtualThreadPerTaskExecutor());
 
         when(helpTextConfig.filtersSource()).thenReturn(Optional.of("filters.yaml"));
         when(helpTextConfig.cacheTtl()).thenReturn(Duration.ofMinutes(5));
@@ -148,4 +173,58 @@ class FilterHelpTextServiceTest {
         assertThat(filters.get(1).getHelpText()).isNull();
         org.mockito.Mockito.verifyNoInteractions(ckanQueryApi);
     }
+
+    @Test
+    void enrichReusesCkanHelpTextsPerLanguageAndKeys() {
+        var ckanQueryApi = mock(CkanQueryApi.class);
+        var service = new FilterHelpTextService(ckanQueryApi, new ObjectMapper(),
+                mock(HelpTextConfig.class), mock(YamlHelpTextLoader.class),
+                ckanClientConfiguration(Duration.ofSeconds(5)),
+                Executors.newVirtualThreadPerTaskExecutor());
+        when(ckanQueryApi.gdiFilterHelpTextsShow(anyString(), anyString())).thenReturn(
+                CkanFilterHelpTextsResponse.builder()
+                        .result(Map.of("theme", "Dataset theme."))
+                        .build());
+
+        service.enrich(List.of(Filter.builder().key("theme").build()), "en");
+        var filters = List.of(Filter.builder().key("theme").build());
+        service.enrich(filters, "en");
+
+        assertThat(filters.get(0).getHelpText()).isEqualTo(textOnly("Dataset theme."));
+        verify(ckanQueryApi, times(1)).gdiFilterHelpTextsShow(anyString(), anyString());
+
+        service.enrich(List.of(Filter.builder().key("theme").build()), "nl");
+        verify(ckanQueryApi, times(2)).gdiFilterHelpTextsShow(anyString(), anyString());
+    }
+
+    @Test
+    void enrichDoesNotWaitForSlowCkan_andUsesHelpTextsOnceLoaded() throws InterruptedException {
+        var ckanQueryApi = mock(CkanQueryApi.class);
+        var service = new FilterHelpTextService(ckanQueryApi, new ObjectMapper(),
+                mock(HelpTextConfig.class), mock(YamlHelpTextLoader.class),
+                ckanClientConfiguration(Duration.ofMillis(200)),
+                Executors.newVirtualThreadPerTaskExecutor());
+        var release = new CountDownLatch(1);
+        var loaded = new CountDownLatch(1);
+        when(ckanQueryApi.gdiFilterHelpTextsShow(anyString(), anyString())).thenAnswer(
+                invocation -> {
+                    release.await();
+                    loaded.countDown();
+                    return CkanFilterHelpTextsResponse.builder()
+                            .result(Map.of("theme", "Dataset theme."))
+                            .build();
+                });
+
+        var first = List.of(Filter.builder().key("theme").build());
+        service.enrich(first, "en");
+        release.countDown();
+        assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var second = List.of(Filter.builder().key("theme").build());
+        service.enrich(second, "en");
+
+        assertThat(first.get(0).getHelpText()).isNull();
+        assertThat(second.get(0).getHelpText()).isEqualTo(textOnly("Dataset theme."));
+        verify(ckanQueryApi, times(1)).gdiFilterHelpTextsShow(anyString(), anyString());
+    }
 }
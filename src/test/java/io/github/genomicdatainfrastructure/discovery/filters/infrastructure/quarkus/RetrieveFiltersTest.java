@@ -8,6 +8,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.genomicdatainfrastructure.discovery.BaseTest;
 import io.github.genomicdatainfrastructure.discovery.model.Filter;
 import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit5.virtual.ShouldNotPin;
+import io.quarkus.test.junit5.virtual.VirtualThreadUnit;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 
@@ -19,6 +21,8 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @QuarkusTest
+@VirtualThreadUnit
+@ShouldNotPin
 public class RetrieveFiltersTest extends BaseTest {
 
     @Test
@@ -59,6 +63,33 @@ public class RetrieveFiltersTest extends BaseTest {
                 .body("find { it.key == 'vocab_in_series_title' }.values.size()", equalTo(2));
     }
 
+    @Test
+    void shouldAnswer304_WhenFiltersAreNotModified() {
+        given().get("/api/v1/filters").then().statusCode(200);
+
+        var etag = given()
+                .get("/api/v1/filters")
+                .then()
+                .statusCode(200)
+                .header("Cache-Control", equalTo("no-cache"))
+                .extract()
+                .header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .get("/api/v1/filters")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+
+        given()
+                .header("If-None-Match", "\"stale\"")
+                .get("/api/v1/filters")
+                .then()
+                .statusCode(200)
+                .header("ETag", equalTo(etag));
+    }
+
     @Test
     void shouldHandleEmptyRangeValues() {
         given()
@@ -0,0 +1,120 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> underTest = new SingleFlight<>();
+
+    @Test
+    void sharesOneCall_betweenOverlappingCallers() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> underTest.execute("key", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "value";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            var second = executor.submit(() -> underTest.execute("key", () -> {
+                calls.incrementAndGet();
+                return "other";
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("value");
+            assertThat(second.get()).isEqualTo("value");
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void loadsAgain_onceCallCompleted() {
+        var calls = new AtomicInteger();
+
+        underTest.execute("key", () -> "first " + calls.incrementAndGet());
+        var value = underTest.execute("key", () -> "second " + calls.incrementAndGet());
+
+        assertThat(value).isEqualTo("second 2");
+    }
+
+    @Test
+    void sharesFailure_withOverlappingCallers_andForgetsIt() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var failure = new IllegalStateException("upstream down");
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> underTest.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            var second = executor.submit(() -> underTest.execute("key", () -> "other"));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThatThrownBy(first::get).hasCause(failure);
+            assertThatThrownBy(second::get).hasCause(failure);
+        }
+        assertThat(underTest.execute("key", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void stopsWaiting_whenWaitingCallerIsInterrupted() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var interrupted = new AtomicReference<Boolean>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> underTest.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return "value";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            var second = executor.submit(() -> {
+                try {
+                    return underTest.execute("key", () -> "other");
+                } finally {
+                    interrupted.set(Thread.currentThread().isInterrupted());
+                }
+            });
+            Thread.sleep(100);
+            second.cancel(true);
+            Thread.sleep(100);
+            release.countDown();
+
+            // the call itself is unaffected by a waiting caller giving up
+            assertThat(first.get()).isEqualTo("value");
+        }
+        assertThat(interrupted.get()).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
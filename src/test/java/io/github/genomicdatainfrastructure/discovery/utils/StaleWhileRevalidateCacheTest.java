@@ -0,0 +1,180 @@
+// SPDX-FileCopyrightText: 2026 PNED G.I.E.
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package io.github.genomicdatainfrastructure.discovery.utils;
+
+import io.github.genomicdatainfrastructure.discovery.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleWhileRevalidateCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final Duration MAX_STALE = Duration.ofMinutes(5);
+    private static final Executor DIRECT = Runnable::run;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void sharesOneLoad_betweenConcurrentMisses() throws Exception {
+        var underTest = cache(DIRECT, 10);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> underTest.get("key", () -> {
+                started.countDown();
+                await(release);
+                return "value " + loads.incrementAndGet();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            var second = executor.submit(() -> underTest.get("key", this::load));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("value 1");
+            assertThat(second.get()).isEqualTo("value 1");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void servesStaleValue_whileRefreshingInBackground() {
+        var underTest = cache(DIRECT, 10);
+        underTest.get("key", this::load);
+
+        clock.advance(TTL);
+        // the refresh runs on the (direct) executor after the stale value was handed out
+        assertThat(underTest.get("key", this::load)).isEqualTo("value 1");
+        assertThat(underTest.get("key", this::load)).isEqualTo("value 2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void waitsForFreshValue_onceOlderThanMaxStale() {
+        var underTest = cache(command -> {
+        }, 10);
+        underTest.get("key", this::load);
+
+        clock.advance(MAX_STALE);
+
+        assertThat(underTest.get("key", this::load)).isEqualTo("value 2");
+    }
+
+    @Test
+    void propagatesFailedLoad_withoutCachingIt() {
+        var underTest = cache(DIRECT, 10);
+        var failure = new IllegalStateException("upstream down");
+
+        assertThatThrownBy(() -> underTest.get("key", () -> {
+            throw failure;
+        })).isSameAs(failure);
+        assertThat(underTest.get("key", this::load)).isEqualTo("value 1");
+    }
+
+    @Test
+    void keepsServingStaleValue_whenRefreshFails() {
+        var underTest = cache(DIRECT, 10);
+        underTest.get("key", this::load);
+
+        clock.advance(TTL);
+        underTest.get("key", () -> {
+            throw new IllegalStateException("upstream down");
+        });
+
+        assertThat(underTest.get("key", this::load)).isEqualTo("value 1");
+        clock.advance(TTL);
+        underTest.get("key", this::load);
+        assertThat(underTest.get("key", this::load)).isEqualTo("value 2");
+    }
+
+    @Test
+    void propagatesError_withoutLeavingCallersWaiting() throws Exception {
+        var failure = new NoClassDefFoundError("missing codec");
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var underTest = cache(executor, 10);
+
+            assertThatThrownBy(() -> underTest.getAsync("key", () -> {
+                throw failure;
+            }).get(5, TimeUnit.SECONDS)).hasCause(failure);
+            assertThatThrownBy(() -> underTest.get("other", () -> {
+                throw failure;
+            })).isSameAs(failure);
+
+            assertThat(underTest.getAsync("key", this::load).get(5, TimeUnit.SECONDS))
+                    .isEqualTo("value 1");
+            assertThat(underTest.get("other", this::load)).isEqualTo("value 2");
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedKey_onceFull() {
+        var underTest = cache(DIRECT, 2);
+        underTest.get("first", this::load);
+        underTest.get("second", this::load);
+        underTest.get("first", this::load);
+
+        underTest.get("third", this::load);
+
+        assertThat(underTest.get("third", this::load)).isEqualTo("value 3");
+        assertThat(underTest.get("first", this::load)).isEqualTo("value 1");
+        assertThat(underTest.get("second", this::load)).isEqualTo("value 4");
+    }
+
+    @Test
+    void loadsWithoutCaching_whenDisabled() {
+        var underTest = cache(DIRECT, 0);
+
+        underTest.get("key", this::load);
+
+        assertThat(underTest.get("key", this::load)).isEqualTo("value 2");
+    }
+
+    @Test
+    void keepsLoading_whenAsyncCallerStopsWaiting() throws Exception {
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var underTest = cache(executor, 10);
+            var waiting = underTest.getAsync("key", () -> {
+                await(release);
+                return load();
+            });
+
+            waiting.cancel(true);
+            release.countDown();
+
+            assertThat(underTest.getAsync("key", this::load).get(5, TimeUnit.SECONDS))
+                    .isEqualTo("value 1");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    private StaleWhileRevalidateCache<String, String> cache(Executor executor, int maxEntries) {
+        return new StaleWhileRevalidateCache<>("test", TTL, MAX_STALE, maxEntries, executor,
+                clock);
+    }
+
+    private String load() {
+        return "value " + loads.incrementAndGet();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}